@@ -5,18 +5,30 @@ package org.meveo.admin.async;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
- * The Class FlatFileAsyncListResponse its a list for FlatFileAsyncUnitResponse.
+ * The Class FlatFileAsyncListResponse holds the counters of the processed records of a file. Each {@link FlatFileAsyncUnitResponse} is handed
+ * over as soon as its record is processed and is not kept, unless the file is processed in rollback mode : the responses are then deferred
+ * until the whole file is processed.
  * 
  * @author anasseh
  * @lastModifiedVersion willBeSetLater
  */
 public class FlatFileAsyncListResponse {
     
-    /** The responses. */
-    private List<FlatFileAsyncUnitResponse> responses = new ArrayList<FlatFileAsyncUnitResponse>();
+    /** The number of processed lines. */
+    private final AtomicLong linesCount = new AtomicLong();
+
+    /** The number of lines in error. */
+    private final AtomicLong errorsCount = new AtomicLong();
+
+    /** The number of lines processed with a warning. */
+    private final AtomicLong warningsCount = new AtomicLong();
+
+    /** The responses to hand over once the whole file is processed. */
+    private final List<FlatFileAsyncUnitResponse> deferredResponses = new ArrayList<>();
    
     /**
      * Instantiates a new flat file async list response.
@@ -25,20 +37,61 @@ public class FlatFileAsyncListResponse {
     }
 
     /**
-     * Gets the responses.
+     * Count a processed record.
+     *
+     * @param response the response of the record
+     */
+    public void count(FlatFileAsyncUnitResponse response) {
+        linesCount.incrementAndGet();
+        if (!response.isSuccess()) {
+            errorsCount.incrementAndGet();
+        } else if (response.isWarning()) {
+            warningsCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Keep the response of a record until the whole file is processed.
+     *
+     * @param response the response of the record
+     */
+    public void defer(FlatFileAsyncUnitResponse response) {
+        deferredResponses.add(response);
+    }
+
+    /**
+     * Gets the deferred responses.
+     *
+     * @return the responses to hand over once the whole file is processed, in line order
+     */
+    public List<FlatFileAsyncUnitResponse> getDeferredResponses() {
+        return deferredResponses;
+    }
+
+    /**
+     * Gets the number of processed lines.
      *
-     * @return the responses
+     * @return the number of processed lines
      */
-    public List<FlatFileAsyncUnitResponse> getResponses() {
-        return responses;
+    public long getLinesCount() {
+        return linesCount.get();
     }
 
     /**
-     * Sets the responses.
+     * Gets the number of lines in error.
      *
-     * @param responses the responses to set
+     * @return the number of lines in error
      */
-    public void setResponses(List<FlatFileAsyncUnitResponse> responses) {
-        this.responses = responses;
-    }    
+    public long getErrorsCount() {
+        return errorsCount.get();
+    }
+
+    /**
+     * Gets the number of lines processed with a warning.
+     *
+     * @return the number of lines processed with a warning
+     */
+    public long getWarningsCount() {
+        return warningsCount.get();
+    }
 }
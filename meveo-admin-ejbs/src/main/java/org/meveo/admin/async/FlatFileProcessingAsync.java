@@ -3,19 +3,24 @@
  */
 package org.meveo.admin.async;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
+import javax.annotation.Resource;
 import javax.ejb.AsyncResult;
 import javax.ejb.Asynchronous;
 import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
+import javax.enterprise.concurrent.ManagedExecutorService;
 import javax.inject.Inject;
 
 import org.meveo.admin.exception.BusinessException;
@@ -23,6 +28,7 @@ import org.meveo.admin.job.FlatFileProcessingJob;
 import org.meveo.admin.job.UnitFlatFileProcessingJobBean;
 import org.meveo.commons.parsers.IFileParser;
 import org.meveo.commons.parsers.RecordContext;
+import org.meveo.commons.utils.ParamBeanFactory;
 import org.meveo.model.crm.Provider;
 import org.meveo.model.crm.custom.CustomFieldValues;
 import org.meveo.model.jobs.JobExecutionResultImpl;
@@ -50,6 +56,11 @@ public class FlatFileProcessingAsync {
 
 	private static final String THREAD_POOL_SIZE = FlatFileProcessingJob.FLAT_FILE_PROCESSING_JOB_THREAD_POOL_SIZE;
 
+	private static final String CHUNK_SIZE = FlatFileProcessingJob.FLAT_FILE_PROCESSING_JOB_CHUNK_SIZE;
+
+	/** Property holding the number of records after which the job running state is checked again. */
+	private static final String CHECK_RUNNING_EVERY = "flatFileProcessingJob.checkRunningEvery";
+
 	/** The log. */
 	private static Logger log = LoggerFactory.getLogger(FlatFileProcessingAsync.class);
 
@@ -61,6 +72,13 @@ public class FlatFileProcessingAsync {
 	@Inject
 	private JobExecutionService jobExecutionService;
 
+	@Inject
+	private ParamBeanFactory paramBeanFactory;
+
+	/** The executor shared by the flat file jobs. */
+	@Resource
+	private ManagedExecutorService executor;
+
 	@Inject
 	@CurrentUser
 	protected MeveoUser currentUser;
@@ -70,7 +88,11 @@ public class FlatFileProcessingAsync {
 	protected Provider appProvider;
 
 	/**
-	 * Read/parse file and execute script for each line.
+	 * Read/parse file and execute script for each line. Records are handed to the shared executor, at most the thread pool size at a time,
+	 * and each record response is passed to the response handler as soon as it is processed. In rollback mode, the responses are not passed
+	 * to the handler but kept in the returned {@link FlatFileAsyncListResponse}, to be handled once the file is processed without error.
+	 * When a chunk size greater than one is configured, records are grouped in chunks processed in a single transaction by
+	 * {@link ScriptInterface#executeBatch(List)}.
 	 * 
 	 * @param fileParser         FlatFile parser
 	 * @param result             job execution result
@@ -80,30 +102,40 @@ public class FlatFileProcessingAsync {
 	 * @param originFilename     originFilename var name
 	 * @param errorAction        action to do on error : continue, stop or rollback
 	 *                           after an error
+	 * @param responseHandler    handler of the record responses, may be called concurrently, not called in rollback mode
 	 * @return Future of FlatFileAsyncListResponse
 	 * @throws Exception Exception
 	 */
 	@Asynchronous
 	@TransactionAttribute(TransactionAttributeType.SUPPORTS)
 	public Future<FlatFileAsyncListResponse> launchAndForget(IFileParser fileParser, JobExecutionResultImpl result,
-			ScriptInterface script, String recordVariableName, String fileName, String originFilename, String errorAction)
-			throws Exception {
+			ScriptInterface script, String recordVariableName, String fileName, String originFilename, String errorAction,
+			Consumer<FlatFileAsyncUnitResponse> responseHandler) throws Exception {
 		long cpLines = 0;
 		FlatFileAsyncListResponse flatFileAsyncListResponse = new FlatFileAsyncListResponse();
+		// A failure rolls back all the records of the file, so their responses are only handed over once the whole file is processed
+		final Consumer<FlatFileAsyncUnitResponse> handler = FlatFileProcessingJob.ROLLBBACK.equals(errorAction) ? flatFileAsyncListResponse::defer
+				: responseHandler;
 		JobInstance jobInstance = result.getJobInstance();
 		CustomFieldValues values = jobInstance.getCfValuesNullSafe();
 		Long threadPoolSize = jobInstance != null ? (Long) values.getValue(THREAD_POOL_SIZE) : null;
 		int parallelism = threadPoolSize != null ? threadPoolSize.intValue() : 1;
-		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		Long chunkSizeValue = jobInstance != null ? (Long) values.getValue(CHUNK_SIZE) : null;
+		int chunkSize = chunkSizeValue != null ? chunkSizeValue.intValue() : 1;
+		int checkRunningEvery = Integer.parseInt(paramBeanFactory.getInstance().getProperty(CHECK_RUNNING_EVERY, "100"));
+
+		// Number of records (or chunks) that can be submitted to the executor and not processed yet
+		final Semaphore pendingRecords = new Semaphore(parallelism);
 		final AtomicBoolean doStop = new AtomicBoolean(false);
-		final AtomicReference<BusinessException> rollBackException = new AtomicReference<BusinessException>();
+		boolean running = jobExecutionService.isJobRunningOnThis(jobInstance);
+		List<ChunkRecord> chunk = new ArrayList<>(chunkSize);
 
-		while (fileParser.hasNext() && jobExecutionService.isJobRunningOnThis(jobInstance) && !doStop.get()) {
+		while (running && fileParser.hasNext() && !doStop.get()) {
 			RecordContext recordContext = null;
 			cpLines++;
 			FlatFileAsyncUnitResponse flatFileAsyncResponse = new FlatFileAsyncUnitResponse();
 			flatFileAsyncResponse.setLineNumber(cpLines);
-			flatFileAsyncListResponse.getResponses().add(flatFileAsyncResponse);
+			boolean submitted = false;
 			try {
 				recordContext = fileParser.getNextRecord();
 				final RecordContext recordContextFinal = recordContext;
@@ -115,7 +147,10 @@ public class FlatFileProcessingAsync {
 				Map<String, Object> executeParams = new HashMap<String, Object>();
 				executeParams.put(recordVariableName, recordContextFinal.getRecord());
 				executeParams.put(originFilename, fileName);
-				if (FlatFileProcessingJob.ROLLBBACK.equals(errorAction)) {
+				if (chunkSize > 1) {
+					chunk.add(new ChunkRecord(flatFileAsyncResponse, executeParams, recordContextFinal));
+					submitted = true;
+				} else if (FlatFileProcessingJob.ROLLBBACK.equals(errorAction)) {
 					executeParams.put(Script.CONTEXT_CURRENT_USER, currentUser);
 					executeParams.put(Script.CONTEXT_APP_PROVIDER, appProvider);
 					script.execute(executeParams);
@@ -124,39 +159,25 @@ public class FlatFileProcessingAsync {
 					unitFlatFileProcessingJobBean.execute(script, executeParams);
 					flatFileAsyncResponse.setSuccess(true);
 				} else {
-					while (pool.hasQueuedSubmissions()) {
-						Thread.sleep(10);
-					}
-
-					pool.submit(new Runnable() {
-						@Override
-						public void run() {
+					// Blocks until a previously submitted record is processed
+					pendingRecords.acquire();
+					try {
+						executor.submit(() -> {
 							try {
-								unitFlatFileProcessingJobBean.execute(script, executeParams);
-								flatFileAsyncResponse.setSuccess(true);
-							} catch (ImportWarningException e) {
-								String erreur = (recordContextFinal == null || recordContextFinal.getReason() == null) ? e.getMessage()
-										: recordContextFinal.getReason();
-								log.warn("record on warning :" + erreur);
-								flatFileAsyncResponse.setSuccess(true);
-								flatFileAsyncResponse.setWarning(true);
-								flatFileAsyncResponse.setReason(erreur);
-							} catch (Throwable e) {
-								if (FlatFileProcessingJob.ROLLBBACK.equals(errorAction)) {
-									rollBackException.set(new BusinessException(e.getMessage(), e));
-									doStop.set(true);
-								}
-								String erreur = (recordContextFinal == null || recordContextFinal.getReason() == null) ? e.getMessage()
-										: recordContextFinal.getReason();
-								log.warn("record on error :" + erreur);
-								flatFileAsyncResponse.setSuccess(false);
-								flatFileAsyncResponse.setReason(erreur);
-								if (FlatFileProcessingJob.STOP.equals(errorAction)) {
-									doStop.set(true);
+								executeRecord(script, new ChunkRecord(flatFileAsyncResponse, executeParams, recordContextFinal));
+							} finally {
+								try {
+									handleResponse(flatFileAsyncListResponse, handler, flatFileAsyncResponse);
+								} finally {
+									pendingRecords.release();
 								}
 							}
-						}
-					});
+						});
+						submitted = true;
+					} catch (RejectedExecutionException e) {
+						pendingRecords.release();
+						throw e;
+					}
 				}
 
 			} catch (ImportWarningException e) {
@@ -179,12 +200,184 @@ public class FlatFileProcessingAsync {
 					doStop.set(true);
 				}
 			}
+
+			if (!submitted) {
+				handleResponse(flatFileAsyncListResponse, handler, flatFileAsyncResponse);
+			}
+
+			if (chunk.size() >= chunkSize) {
+				submitChunk(script, chunk, errorAction, pendingRecords, doStop, flatFileAsyncListResponse, handler);
+				chunk = new ArrayList<>(chunkSize);
+			}
+
+			if (cpLines % checkRunningEvery == 0) {
+				running = jobExecutionService.isJobRunningOnThis(jobInstance);
+			}
+		}
+
+		// Records already read are processed even if the job was stopped meanwhile
+		if (!chunk.isEmpty()) {
+			submitChunk(script, chunk, errorAction, pendingRecords, doStop, flatFileAsyncListResponse, handler);
+		}
+
+		// Wait for the submitted records to be processed
+		if (!pendingRecords.tryAcquire(parallelism, 1, TimeUnit.HOURS)) {
+			log.warn("Timed out waiting for the records of file {} to be processed", fileName);
 		}
-		pool.shutdown();
-		pool.awaitTermination(1, TimeUnit.HOURS);
 
-		if (rollBackException.get() != null)
-			throw rollBackException.get();
 		return new AsyncResult<FlatFileAsyncListResponse>(flatFileAsyncListResponse);
 	}
+
+	/**
+	 * Process a chunk of records according to the error action : in the file transaction for rollback, synchronously for stop and by the
+	 * shared executor for continue.
+	 *
+	 * @param script                    script to execute
+	 * @param chunk                     records of the chunk
+	 * @param errorAction               action to do on error
+	 * @param pendingRecords            permits of the executor submissions
+	 * @param doStop                    set when processing must stop after an error
+	 * @param flatFileAsyncListResponse counters of the file
+	 * @param responseHandler           handler of the record responses
+	 * @throws BusinessException in rollback mode, when the chunk fails
+	 * @throws InterruptedException when interrupted while waiting for a permit
+	 */
+	private void submitChunk(ScriptInterface script, List<ChunkRecord> chunk, String errorAction, Semaphore pendingRecords,
+			AtomicBoolean doStop, FlatFileAsyncListResponse flatFileAsyncListResponse, Consumer<FlatFileAsyncUnitResponse> responseHandler)
+			throws BusinessException, InterruptedException {
+		if (FlatFileProcessingJob.ROLLBBACK.equals(errorAction)) {
+			List<Map<String, Object>> executeParamsList = new ArrayList<>(chunk.size());
+			for (ChunkRecord record : chunk) {
+				record.executeParams.put(Script.CONTEXT_CURRENT_USER, currentUser);
+				record.executeParams.put(Script.CONTEXT_APP_PROVIDER, appProvider);
+				executeParamsList.add(record.executeParams);
+			}
+			script.executeBatch(executeParamsList);
+			for (ChunkRecord record : chunk) {
+				record.response.setSuccess(true);
+				handleResponse(flatFileAsyncListResponse, responseHandler, record.response);
+			}
+
+		} else if (FlatFileProcessingJob.STOP.equals(errorAction)) {
+			if (!processChunk(script, chunk, flatFileAsyncListResponse, responseHandler)) {
+				doStop.set(true);
+			}
+
+		} else {
+			// Blocks until a previously submitted chunk is processed
+			pendingRecords.acquire();
+			try {
+				executor.submit(() -> {
+					try {
+						processChunk(script, chunk, flatFileAsyncListResponse, responseHandler);
+					} finally {
+						pendingRecords.release();
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				pendingRecords.release();
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Execute a chunk of records in a single transaction. If the chunk fails, its records are executed again one by one, each in its own
+	 * transaction, so only the faulty records are rejected.
+	 *
+	 * @param script                    script to execute
+	 * @param chunk                     records of the chunk
+	 * @param flatFileAsyncListResponse counters of the file
+	 * @param responseHandler           handler of the record responses
+	 * @return true if all the records were processed successfully
+	 */
+	private boolean processChunk(ScriptInterface script, List<ChunkRecord> chunk, FlatFileAsyncListResponse flatFileAsyncListResponse,
+			Consumer<FlatFileAsyncUnitResponse> responseHandler) {
+		boolean success = true;
+		try {
+			List<Map<String, Object>> executeParamsList = new ArrayList<>(chunk.size());
+			for (ChunkRecord record : chunk) {
+				// Work on a copy so a failed chunk leaves nothing behind in the record contexts
+				executeParamsList.add(new HashMap<>(record.executeParams));
+			}
+			unitFlatFileProcessingJobBean.executeBatch(script, executeParamsList);
+			for (ChunkRecord record : chunk) {
+				record.response.setSuccess(true);
+			}
+		} catch (Throwable e) {
+			log.warn("chunk of lines {} to {} failed, processing its records one by one : {}", chunk.get(0).response.getLineNumber(),
+					chunk.get(chunk.size() - 1).response.getLineNumber(), e.getMessage());
+			for (ChunkRecord record : chunk) {
+				success &= executeRecord(script, record);
+			}
+		}
+
+		for (ChunkRecord record : chunk) {
+			handleResponse(flatFileAsyncListResponse, responseHandler, record.response);
+		}
+		return success;
+	}
+
+	/**
+	 * Execute one record in a new transaction and fill its response.
+	 *
+	 * @param script script to execute
+	 * @param record record to execute
+	 * @return false if the record failed
+	 */
+	private boolean executeRecord(ScriptInterface script, ChunkRecord record) {
+		FlatFileAsyncUnitResponse flatFileAsyncResponse = record.response;
+		RecordContext recordContext = record.recordContext;
+		try {
+			unitFlatFileProcessingJobBean.execute(script, record.executeParams);
+			flatFileAsyncResponse.setSuccess(true);
+		} catch (ImportWarningException e) {
+			String erreur = (recordContext == null || recordContext.getReason() == null) ? e.getMessage() : recordContext.getReason();
+			log.warn("record on warning :" + erreur);
+			flatFileAsyncResponse.setSuccess(true);
+			flatFileAsyncResponse.setWarning(true);
+			flatFileAsyncResponse.setReason(erreur);
+		} catch (Throwable e) {
+			String erreur = (recordContext == null || recordContext.getReason() == null) ? e.getMessage() : recordContext.getReason();
+			log.warn("record on error :" + erreur);
+			flatFileAsyncResponse.setSuccess(false);
+			flatFileAsyncResponse.setReason(erreur);
+		}
+		return flatFileAsyncResponse.isSuccess();
+	}
+
+	/**
+	 * Count a processed record and pass its response to the handler.
+	 *
+	 * @param flatFileAsyncListResponse counters of the file
+	 * @param responseHandler           handler of the record responses
+	 * @param flatFileAsyncResponse     response of the record
+	 */
+	private void handleResponse(FlatFileAsyncListResponse flatFileAsyncListResponse, Consumer<FlatFileAsyncUnitResponse> responseHandler,
+			FlatFileAsyncUnitResponse flatFileAsyncResponse) {
+		flatFileAsyncListResponse.count(flatFileAsyncResponse);
+		try {
+			responseHandler.accept(flatFileAsyncResponse);
+		} catch (Exception e) {
+			log.error("Failed to handle response of line {}", flatFileAsyncResponse.getLineNumber(), e);
+		}
+	}
+
+	/**
+	 * A parsed record waiting to be processed, with its script context and response.
+	 */
+	private static class ChunkRecord {
+
+		private final FlatFileAsyncUnitResponse response;
+
+		private final Map<String, Object> executeParams;
+
+		private final RecordContext recordContext;
+
+		private ChunkRecord(FlatFileAsyncUnitResponse response, Map<String, Object> executeParams, RecordContext recordContext) {
+			this.response = response;
+			this.executeParams = executeParams;
+			this.recordContext = recordContext;
+		}
+	}
 }
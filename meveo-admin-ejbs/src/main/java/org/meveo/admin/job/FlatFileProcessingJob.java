@@ -71,6 +71,8 @@ public class FlatFileProcessingJob extends Job {
 
     public static final String FLAT_FILE_PROCESSING_JOB_THREAD_POOL_SIZE = "FlatFileProcessingJob_threadPoolSize";
 
+    public static final String FLAT_FILE_PROCESSING_JOB_CHUNK_SIZE = "FlatFileProcessingJob_chunkSize";
+
     /** The flat file processing job bean. */
     @Inject
     private FlatFileProcessingJobBean flatFileProcessingJobBean;
@@ -341,6 +343,16 @@ public class FlatFileProcessingJob extends Job {
         threadPoolSize.setValueRequired(false);
         result.put(FLAT_FILE_PROCESSING_JOB_THREAD_POOL_SIZE, threadPoolSize);
 
+        CustomFieldTemplate chunkSize = new CustomFieldTemplate();
+        chunkSize.setCode(FLAT_FILE_PROCESSING_JOB_CHUNK_SIZE);
+        chunkSize.setAppliesTo(JOB_FLAT_FILE_PROCESSING_JOB);
+        chunkSize.setActive(true);
+        chunkSize.setDescription(resourceMessages.getString("flatFile.chunkSize"));
+        chunkSize.setFieldType(CustomFieldTypeEnum.LONG);
+        chunkSize.setDefaultValue("1");
+        chunkSize.setValueRequired(false);
+        result.put(FLAT_FILE_PROCESSING_JOB_CHUNK_SIZE, chunkSize);
+
         return result;
     }
 }
@@ -210,19 +210,12 @@ public class FlatFileProcessingJobBean {
                 fileParser.parsing();
 
                 Future<FlatFileAsyncListResponse> futures = flatFileProcessingAsync.launchAndForget(fileParser, result, script, recordVariableName, fileName, originFilename,
-                    errorAction);
-                for (FlatFileAsyncUnitResponse flatFileAsyncResponse : futures.get().getResponses()) {
-                    cpLines++;
-                    if (!flatFileAsyncResponse.isSuccess()) {
-                        result.registerError("file=" + fileName + ", line=" + flatFileAsyncResponse.getLineNumber() + ": " + flatFileAsyncResponse.getReason());
-                        rejectRecord(flatFileAsyncResponse.getLineRecord(), flatFileAsyncResponse.getReason());
-                    } else if (flatFileAsyncResponse.isWarning()) {
-                        result.registerWarning("file=" + fileName + ", line=" + flatFileAsyncResponse.getLineNumber() + ": " + flatFileAsyncResponse.getReason());
-                        outputRecord(flatFileAsyncResponse.getLineRecord());
-                    } else {
-                        outputRecord(flatFileAsyncResponse.getLineRecord());
-                        result.registerSucces();
-                    }
+                    errorAction, flatFileAsyncResponse -> handleResponse(result, flatFileAsyncResponse));
+                FlatFileAsyncListResponse flatFileAsyncListResponse = futures.get();
+                cpLines = flatFileAsyncListResponse.getLinesCount();
+                // Records processed in rollback mode are only registered once the whole file is processed without error
+                for (FlatFileAsyncUnitResponse flatFileAsyncResponse : flatFileAsyncListResponse.getDeferredResponses()) {
+                    handleResponse(result, flatFileAsyncResponse);
                 }
                 if (cpLines == 0) {
                     String stateFile = "empty";
@@ -308,6 +301,29 @@ public class FlatFileProcessingJobBean {
 
     }
 
+    /**
+     * Register the result of a processed record and write it to the output or reject file, as soon as it is processed.
+     *
+     * @param result job execution result
+     * @param flatFileAsyncResponse the record response
+     */
+    private synchronized void handleResponse(JobExecutionResultImpl result, FlatFileAsyncUnitResponse flatFileAsyncResponse) {
+        try {
+            if (!flatFileAsyncResponse.isSuccess()) {
+                result.registerError("file=" + fileName + ", line=" + flatFileAsyncResponse.getLineNumber() + ": " + flatFileAsyncResponse.getReason());
+                rejectRecord(flatFileAsyncResponse.getLineRecord(), flatFileAsyncResponse.getReason());
+            } else if (flatFileAsyncResponse.isWarning()) {
+                result.registerWarning("file=" + fileName + ", line=" + flatFileAsyncResponse.getLineNumber() + ": " + flatFileAsyncResponse.getReason());
+                outputRecord(flatFileAsyncResponse.getLineRecord());
+            } else {
+                outputRecord(flatFileAsyncResponse.getLineRecord());
+                result.registerSucces();
+            }
+        } catch (FileNotFoundException e) {
+            log.error("Failed to create an output file for file {}", fileName, e);
+        }
+    }
+
     /**
      * Move file.
      *
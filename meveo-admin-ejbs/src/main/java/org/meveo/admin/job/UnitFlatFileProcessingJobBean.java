@@ -1,5 +1,6 @@
 package org.meveo.admin.job;
 
+import java.util.List;
 import java.util.Map;
 
 import javax.ejb.Stateless;
@@ -48,4 +49,21 @@ public class UnitFlatFileProcessingJobBean {
         executeParams.put(Script.CONTEXT_APP_PROVIDER, appProvider);
         script.execute(executeParams);
     }
+
+    /**
+     * Execute a chunk of lines/records, in a single new transaction.
+     * 
+     * @param script script to execute
+     * @param executeParamsList script context parameters of each record
+     * @throws BusinessException Business Exception
+     */
+    @JpaAmpNewTx
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public void executeBatch(ScriptInterface script, List<Map<String, Object>> executeParamsList) throws BusinessException {
+        for (Map<String, Object> executeParams : executeParamsList) {
+            executeParams.put(Script.CONTEXT_CURRENT_USER, currentUser);
+            executeParams.put(Script.CONTEXT_APP_PROVIDER, appProvider);
+        }
+        script.executeBatch(executeParamsList);
+    }
 }
@@ -14,7 +14,6 @@ import org.meveo.audit.logging.dto.MethodWithParameter;
 import org.meveo.commons.utils.ReflectionUtils;
 import org.meveo.service.base.PersistenceService;
 import org.meveo.service.base.local.IPersistenceService;
-import org.reflections.Reflections;
 
 /**
  * @author Edward P. Legaspi
@@ -26,9 +25,8 @@ public class AuditConfigurationProvider {
 	public List<Class<? extends IPersistenceService>> getServiceClasses() {
 		List<Class<? extends IPersistenceService>> result = new ArrayList<>();
 
-		Reflections reflections = new Reflections("org.meveo.service");
 		List<Class<? extends IPersistenceService>> classes = new ArrayList(
-				reflections.getSubTypesOf(IPersistenceService.class));
+				ReflectionUtils.getClassesThatExtends(IPersistenceService.class, "org.meveo.service"));
 		for (Class<? extends IPersistenceService> clazz : classes) {
 			if (!Modifier.isAbstract(clazz.getModifiers())) {
 				result.add(clazz);
@@ -1,10 +1,16 @@
 package org.meveo.audit.logging.core;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import javax.ejb.Stateless;
+import javax.inject.Inject;
 
 import org.meveo.admin.exception.BusinessException;
 import org.meveo.audit.logging.dto.AuditEvent;
 import org.meveo.audit.logging.handler.Handler;
+import org.meveo.security.keycloak.CurrentUserProvider;
 
 /**
  * @author Edward P. Legaspi
@@ -12,13 +18,47 @@ import org.meveo.audit.logging.handler.Handler;
 @Stateless
 public class AuditEventProcessor {
 
+	@Inject
+	private AuditEventQueue auditEventQueue;
+
+	@Inject
+	private CurrentUserProvider currentUserProvider;
+
+	/**
+	 * Hand an audit event to the audit queue, or to the handlers if the queue is disabled
+	 *
+	 * @param auditEvent audit event
+	 * @throws BusinessException if the event is processed synchronously and a handler fails
+	 */
 	public void process(AuditEvent auditEvent) throws BusinessException {
-		final String formattedEvent = AuditContext.getInstance().getAuditConfiguration().getLayout().format(auditEvent);
+		if (auditEventQueue.isActive()) {
+			auditEventQueue.offer(auditEvent);
+		} else {
+			handle(Collections.singletonList(auditEvent));
+		}
+	}
+
+	/**
+	 * Hand a batch of queued audit events to the handlers
+	 *
+	 * @param providerCode provider the events occurred in
+	 * @param auditEvents  audit events
+	 * @throws BusinessException if a handler fails
+	 */
+	public void process(String providerCode, List<AuditEvent> auditEvents) throws BusinessException {
+		currentUserProvider.forceAuthentication(AuditConstants.LOGGING_DEFAULT_USER, providerCode);
+		handle(auditEvents);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void handle(List<AuditEvent> auditEvents) throws BusinessException {
+		List<String> formattedEvents = new ArrayList<>(auditEvents.size());
+		for (AuditEvent auditEvent : auditEvents) {
+			formattedEvents.add(AuditContext.getInstance().getAuditConfiguration().getLayout().format(auditEvent));
+		}
 
 		for (final Handler handler : AuditContext.getInstance().getAuditConfiguration().getHandlers()) {
-			handler.setLoggableText(formattedEvent);
-			handler.setEvent(auditEvent);
-			handler.handle();
+			handler.handle(auditEvents, formattedEvents);
 		}
 	}
 
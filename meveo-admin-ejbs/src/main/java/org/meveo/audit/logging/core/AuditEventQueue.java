@@ -0,0 +1,250 @@
+package org.meveo.audit.logging.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.Lock;
+import javax.ejb.LockType;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.enterprise.concurrent.ManagedThreadFactory;
+import javax.inject.Inject;
+
+import org.meveo.audit.logging.dto.AuditEvent;
+import org.meveo.commons.utils.ParamBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded in-memory queue of audit events, drained by a background worker that hands them to the handlers in batches. Audited
+ * calls only pay for queuing the event. When the queue is full, the configured {@link AuditOverflowPolicyEnum} applies.
+ * <p>
+ * Configured with the properties :
+ * <ul>
+ * <li>audit.queue.capacity : maximum number of queued events, 0 to process events synchronously. Default 10000.</li>
+ * <li>audit.queue.batchSize : maximum number of events handled at once. Default 100.</li>
+ * <li>audit.queue.overflowPolicy : BLOCK, DROP_OLDEST or SAMPLE. Default BLOCK.</li>
+ * <li>audit.queue.sampleRate : with the SAMPLE policy, one event out of this rate is kept. Default 10.</li>
+ * </ul>
+ **/
+@Singleton
+@Startup
+@Lock(LockType.READ)
+public class AuditEventQueue {
+
+	private static final Logger log = LoggerFactory.getLogger(AuditEventQueue.class);
+
+	@Resource
+	private ManagedThreadFactory threadFactory;
+
+	@Inject
+	private AuditEventProcessor auditEventProcessor;
+
+	private BlockingQueue<AuditEvent> queue;
+
+	private int capacity;
+
+	private int batchSize;
+
+	private AuditOverflowPolicyEnum overflowPolicy;
+
+	private int sampleRate;
+
+	private volatile boolean running;
+
+	private Thread worker;
+
+	private final AtomicLong sampleCounter = new AtomicLong();
+
+	private final AtomicLong queuedEvents = new AtomicLong();
+
+	private final AtomicLong droppedEvents = new AtomicLong();
+
+	private final AtomicLong handledEvents = new AtomicLong();
+
+	private final AtomicLong failedEvents = new AtomicLong();
+
+	@PostConstruct
+	private void init() {
+		ParamBean paramBean = ParamBean.getInstance();
+		capacity = Integer.parseInt(paramBean.getProperty("audit.queue.capacity", "10000"));
+		batchSize = Math.max(1, Integer.parseInt(paramBean.getProperty("audit.queue.batchSize", "100")));
+		overflowPolicy = AuditOverflowPolicyEnum.valueOf(paramBean.getProperty("audit.queue.overflowPolicy", AuditOverflowPolicyEnum.BLOCK.name()));
+		sampleRate = Math.max(1, Integer.parseInt(paramBean.getProperty("audit.queue.sampleRate", "10")));
+
+		if (capacity <= 0) {
+			log.info("Audit events are processed synchronously");
+			return;
+		}
+
+		queue = new ArrayBlockingQueue<>(capacity);
+		running = true;
+		worker = threadFactory.newThread(this::drain);
+		worker.setName("meveo-audit-worker");
+		worker.start();
+
+		log.info("Audit events are queued, capacity {}, batch size {}, overflow policy {}", capacity, batchSize, overflowPolicy);
+	}
+
+	/**
+	 * Stop the worker once the queued events are handled
+	 */
+	@PreDestroy
+	private void shutdown() {
+		if (worker == null) {
+			return;
+		}
+
+		running = false;
+		try {
+			worker.join(TimeUnit.SECONDS.toMillis(30));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		if (!queue.isEmpty()) {
+			log.warn("{} audit events were not handled before shutdown", queue.size());
+		}
+	}
+
+	/**
+	 * @return true if events are queued, false if they must be processed synchronously
+	 */
+	public boolean isActive() {
+		return running;
+	}
+
+	/**
+	 * Queue an audit event, applying the overflow policy if the queue is full
+	 *
+	 * @param event audit event
+	 */
+	public void offer(AuditEvent event) {
+		boolean queued;
+
+		switch (overflowPolicy) {
+		case DROP_OLDEST:
+			queued = queue.offer(event);
+			while (!queued) {
+				if (queue.poll() != null) {
+					droppedEvents.incrementAndGet();
+				}
+				queued = queue.offer(event);
+			}
+			break;
+
+		case SAMPLE:
+			if (queue.size() >= capacity / 2 && sampleCounter.incrementAndGet() % sampleRate != 0) {
+				queued = false;
+			} else {
+				queued = queue.offer(event);
+			}
+			break;
+
+		default:
+			try {
+				queue.put(event);
+				queued = true;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				queued = false;
+			}
+		}
+
+		if (queued) {
+			queuedEvents.incrementAndGet();
+		} else {
+			droppedEvents.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Worker loop : wait for an event, then handle it along with the other queued events, up to the batch size
+	 */
+	private void drain() {
+		List<AuditEvent> batch = new ArrayList<>(batchSize);
+
+		while (running || !queue.isEmpty()) {
+			try {
+				AuditEvent event = queue.poll(1, TimeUnit.SECONDS);
+				if (event == null) {
+					continue;
+				}
+
+				batch.add(event);
+				queue.drainTo(batch, batchSize - 1);
+				handle(batch);
+
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	private void handle(List<AuditEvent> batch) {
+		// Events are handled in the context of their provider
+		Map<String, List<AuditEvent>> eventsByProvider = new LinkedHashMap<>();
+		for (AuditEvent event : batch) {
+			eventsByProvider.computeIfAbsent(event.getProviderCode(), providerCode -> new ArrayList<>()).add(event);
+		}
+
+		eventsByProvider.forEach((providerCode, events) -> {
+			try {
+				auditEventProcessor.process(providerCode, events);
+				handledEvents.addAndGet(events.size());
+
+			} catch (Exception e) {
+				failedEvents.addAndGet(events.size());
+				log.error("Failed to handle {} audit events", events.size(), e);
+			}
+		});
+	}
+
+	/**
+	 * @return number of events currently in the queue
+	 */
+	public int getQueueSize() {
+		return queue != null ? queue.size() : 0;
+	}
+
+	/**
+	 * @return number of events queued since startup
+	 */
+	public long getQueuedEvents() {
+		return queuedEvents.get();
+	}
+
+	/**
+	 * @return number of events dropped by the overflow policy since startup
+	 */
+	public long getDroppedEvents() {
+		return droppedEvents.get();
+	}
+
+	/**
+	 * @return number of events handled since startup
+	 */
+	public long getHandledEvents() {
+		return handledEvents.get();
+	}
+
+	/**
+	 * @return number of events whose handling failed since startup
+	 */
+	public long getFailedEvents() {
+		return failedEvents.get();
+	}
+}
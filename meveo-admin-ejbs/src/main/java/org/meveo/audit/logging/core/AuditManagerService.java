@@ -104,7 +104,8 @@ public class AuditManagerService {
 		for (Parameter parameter : parameters) {
 			final Object obj = objects[i++];
 
-			MethodParameter mp = new MethodParameter(parameter.getName(), obj, parameter.getType().getName());
+			// Values are rendered right away as the event is processed asynchronously, after the objects may have changed
+			MethodParameter mp = new MethodParameter(parameter.getName(), obj != null ? obj.toString() : null, parameter.getType().getName());
 			methodParameters.add(mp);
 		}
 
@@ -0,0 +1,25 @@
+package org.meveo.audit.logging.core;
+
+/**
+ * What to do with an audit event when the audit queue is full.
+ *
+ * @see AuditEventQueue
+ **/
+public enum AuditOverflowPolicyEnum {
+
+	/**
+	 * The audited call waits for room in the queue
+	 */
+	BLOCK,
+
+	/**
+	 * The oldest queued event is dropped to make room
+	 */
+	DROP_OLDEST,
+
+	/**
+	 * Once the queue is half full, only one event out of the sample rate is queued, the others are dropped
+	 */
+	SAMPLE;
+
+}
@@ -37,6 +37,14 @@ public class MetaDataProvider {
 		return AuditConstants.LOGGING_DEFAULT_USER;
 	}
 
+	public String getProviderCode() {
+		if (currentUser != null) {
+			return currentUser.getProviderCode();
+		}
+
+		return null;
+	}
+
 	private static String getClientIp(HttpServletRequest request) {
 		String remoteAddr = "";
 
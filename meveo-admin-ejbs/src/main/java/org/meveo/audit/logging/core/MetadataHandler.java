@@ -1,5 +1,7 @@
 package org.meveo.audit.logging.core;
 
+import java.util.Date;
+
 import javax.ejb.Stateless;
 import javax.inject.Inject;
 
@@ -17,6 +19,8 @@ public class MetadataHandler {
 	public AuditEvent addSignature(AuditEvent event) {
 		event.setActor(metaDataProvider.getActor());
 		event.setClientIp(metaDataProvider.getOrigin());
+		event.setProviderCode(metaDataProvider.getProviderCode());
+		event.setCreated(new Date());
 
 		return event;
 	}
@@ -12,6 +12,8 @@ public class AuditEvent extends Event {
 	private String clientIp;
 	private String entity;
 	private String action;
+	/** Code of the provider the event occurred in, null for the main provider. */
+	private String providerCode;
 	/** The action item. */
 	private List<MethodParameter> fields = new ArrayList<MethodParameter>();
 
@@ -95,6 +97,14 @@ public class AuditEvent extends Event {
 		this.entity = entity;
 	}
 
+	public String getProviderCode() {
+		return providerCode;
+	}
+
+	public void setProviderCode(String providerCode) {
+		this.providerCode = providerCode;
+	}
+
 	public String getClientIp() {
 		return clientIp;
 	}
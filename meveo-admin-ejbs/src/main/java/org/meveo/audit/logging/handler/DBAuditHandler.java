@@ -1,5 +1,7 @@
 package org.meveo.audit.logging.handler;
 
+import java.util.List;
+
 import org.meveo.admin.exception.BusinessException;
 import org.meveo.audit.logging.dto.AuditEvent;
 import org.meveo.audit.logging.writer.AuditEventDBWriter;
@@ -18,4 +20,12 @@ public class DBAuditHandler extends Handler<AuditEvent> {
 		auditEventDBWriter.write(getEvent());
 	}
 
+	@Override
+	public void handle(List<AuditEvent> events, List<String> loggableTexts) throws BusinessException {
+		AuditEventDBWriter auditEventDBWriter = ((AuditEventDBWriter) EjbUtils
+				.getServiceInterface("AuditEventDBWriter"));
+
+		auditEventDBWriter.write(events);
+	}
+
 }
@@ -1,5 +1,7 @@
 package org.meveo.audit.logging.handler;
 
+import java.util.List;
+
 import org.meveo.admin.exception.BusinessException;
 import org.meveo.audit.logging.dto.AuditEvent;
 import org.slf4j.Logger;
@@ -48,4 +50,10 @@ public class FileAuditHandler extends Handler<AuditEvent> {
 		LOGGER.info(logText);
 	}
 
+	@Override
+	public void handle(List<AuditEvent> events, List<String> loggableTexts) throws BusinessException {
+		// One log record per batch
+		LOGGER.info(String.join(System.lineSeparator(), loggableTexts));
+	}
+
 }
@@ -1,5 +1,7 @@
 package org.meveo.audit.logging.handler;
 
+import java.util.List;
+
 import org.meveo.admin.exception.BusinessException;
 import org.meveo.audit.logging.dto.AuditEvent;
 
@@ -13,6 +15,21 @@ public abstract class Handler<T extends AuditEvent> {
 
 	public abstract void handle() throws BusinessException;
 
+	/**
+	 * Handle a batch of events. By default, each event is handled in turn.
+	 * 
+	 * @param events         events to handle
+	 * @param loggableTexts  formatted events, in the same order
+	 * @throws BusinessException if an event can't be handled
+	 */
+	public void handle(List<T> events, List<String> loggableTexts) throws BusinessException {
+		for (int i = 0; i < events.size(); i++) {
+			setLoggableText(loggableTexts.get(i));
+			setEvent(events.get(i));
+			handle();
+		}
+	}
+
 	public String getLoggableText() {
 		return loggableText;
 	}
@@ -1,8 +1,12 @@
 package org.meveo.audit.logging.writer;
 
 import java.util.Date;
+import java.util.List;
 
 import javax.ejb.Stateless;
+import javax.persistence.EntityManager;
+
+import org.hibernate.Session;
 
 import org.meveo.admin.exception.BusinessException;
 import org.meveo.audit.logging.dto.AuditEvent;
@@ -19,6 +23,25 @@ import org.slf4j.LoggerFactory;
 @Stateless
 public class AuditEventDBWriter extends PersistenceService<AuditLog> {
 	
+	/**
+	 * Write audit events in a single transaction. The audit logs are inserted in JDBC batches when the transaction is flushed.
+	 * 
+	 * @param auditEvents audit events to write
+	 * @throws BusinessException if an audit log can't be created
+	 */
+	public void write(List<AuditEvent> auditEvents) throws BusinessException {
+		if (auditEvents.isEmpty()) {
+			return;
+		}
+
+		EntityManager em = getEntityManager();
+		em.unwrap(Session.class).setJdbcBatchSize(auditEvents.size());
+		for (AuditEvent auditEvent : auditEvents) {
+			write(auditEvent);
+		}
+		em.flush();
+	}
+
 	public void write(AuditEvent auditEvent) throws BusinessException {
 		AuditLog auditLog = new AuditLog();
 		auditLog.setAction(auditEvent.getAction());
@@ -29,7 +52,7 @@ public class AuditEventDBWriter extends PersistenceService<AuditLog> {
 			auditLog.setActor("meveo.admin.hardcoded");
 		}
 
-		auditLog.setCreated(new Date());
+		auditLog.setCreated(auditEvent.getCreated() != null ? auditEvent.getCreated() : new Date());
 		auditLog.setOrigin(auditEvent.getClientIp());
 		auditLog.setParameters(auditEvent.getMethodParametersAsString());
 		auditLog.setEntity(auditEvent.getEntity());
@@ -63,6 +63,7 @@ import org.meveo.service.crm.impl.CustomFieldTemplateService;
 import org.meveo.service.crm.impl.CustomFieldTemplateUtils;
 import org.meveo.service.custom.CustomEntityTemplateService;
 import org.meveo.service.custom.CustomRelationshipTemplateService;
+import org.meveo.service.monitoring.MetricsRegistry;
 import org.meveo.util.PersistenceUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -98,6 +99,9 @@ public class CustomFieldsCacheContainerProvider implements Serializable {
     @EJB
     private CustomRelationshipTemplateService customRelationshipTemplateService;
 
+    @Inject
+    private MetricsRegistry metricsRegistry;
+
     private ParamBean paramBean = ParamBean.getInstance();
     
     /**
@@ -542,6 +546,7 @@ public class CustomFieldsCacheContainerProvider implements Serializable {
             		}
             	}
             }
+            recordCacheRequest(MEVEO_CFT_CACHE, cfMaps != null);
             return cfMaps;
         } finally {
         	lock.unlock();
@@ -549,6 +554,10 @@ public class CustomFieldsCacheContainerProvider implements Serializable {
 
     }
 
+    private void recordCacheRequest(String cacheName, boolean hit) {
+        metricsRegistry.increment(MetricsRegistry.CACHE_REQUESTS, 1, "cache", cacheName, "result", hit ? "hit" : "miss");
+    }
+
     /**
      * Get custom entity templates
      * 
@@ -581,6 +590,7 @@ public class CustomFieldsCacheContainerProvider implements Serializable {
         } finally {
             lock.unlock();
         }
+        recordCacheRequest(MEVEO_CET_CACHE, customEntityTemplate != null);
 
         if(customEntityTemplate == null){
             customEntityTemplate = customEntityTemplateService.findByCode(code);
@@ -609,6 +619,7 @@ public class CustomFieldsCacheContainerProvider implements Serializable {
         } finally {
             lock.unlock();
         }
+        recordCacheRequest(MEVEO_CRT_CACHE, customRelationshipTemplate != null);
 
         if(customRelationshipTemplate == null) {
             customRelationshipTemplate = customRelationshipTemplateService.findByCode(code);
@@ -13,6 +13,15 @@ public class BoundedHashMap<K,V> extends LinkedHashMap<K,V> {
         this.maxSize = maxSize;
     }
 
+    /**
+     * @param maxSize     Maximum number of entries kept in the map
+     * @param accessOrder If true, the least recently accessed entry is evicted first (LRU) instead of the eldest inserted one
+     */
+    public BoundedHashMap(int maxSize, boolean accessOrder) {
+        super(16, 0.75f, accessOrder);
+        this.maxSize = maxSize;
+    }
+
     public void setMaxSize(int maxSize) {
         this.maxSize = maxSize;
     }
@@ -94,6 +94,7 @@ import org.meveo.cache.UserMessageCacheContainerProvider;
 import org.meveo.commons.utils.EjbUtils;
 import org.meveo.commons.utils.ParamBean;
 import org.meveo.commons.utils.ParamBeanFactory;
+import org.meveo.commons.utils.ReflectionUtils;
 import org.meveo.commons.utils.XStreamCDATAConverter;
 import org.meveo.comparators.GenericComparator;
 import org.meveo.elresolver.ELException;
@@ -266,8 +267,7 @@ public class EntityExportImportService implements Serializable {
         // Create definitions dynamically for each class in model package.
         // Do not overwrite previously loaded definitions from configuration file.
         // Do not create definition if a definition for a parent class was found already
-        Reflections reflections = new Reflections("org.meveo.model");
-        Set<Class<? extends IEntity>> classes = reflections.getSubTypesOf(IEntity.class);
+        Set<Class<? extends IEntity>> classes = ReflectionUtils.getClassesThatExtends(IEntity.class, "org.meveo.model");
 
         for (Class clazz : classes) {
 
@@ -1596,8 +1596,7 @@ public class EntityExportImportService implements Serializable {
     private void loadExportIdentifierMappings() {
         Map<Class<? extends IEntity>, String[]> exportIdMap = new HashMap<>();
 
-        Reflections reflections = new Reflections("org.meveo.model");
-        Set<Class<? extends IEntity>> classes = reflections.getSubTypesOf(IEntity.class);
+        Set<Class<? extends IEntity>> classes = ReflectionUtils.getClassesThatExtends(IEntity.class, "org.meveo.model");
 
         for (Class clazz : classes) {
             if (clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers()) || clazz.isAnnotation() || !IEntity.class.isAssignableFrom(clazz)) {
@@ -1619,8 +1618,7 @@ public class EntityExportImportService implements Serializable {
     private void loadAtributesToOmit() {
         Map<String, Object[]> attributesToOmitLocal = new HashMap<>();
 
-        Reflections reflections = new Reflections("org.meveo.model");
-        Set<Class<?>> classes = reflections.getTypesAnnotatedWith(Entity.class);
+        Set<Class<?>> classes = ReflectionUtils.getClassesAnnotatedWith(Entity.class, "org.meveo.model");
 
         for (Class clazz : classes) {
 
@@ -1665,8 +1663,7 @@ public class EntityExportImportService implements Serializable {
 
         Map<Class, List<Field>> nonCascadableFieldsLocal = new HashMap<>();
 
-        Reflections reflections = new Reflections("org.meveo.model");
-        Set<Class<? extends IEntity>> classes = reflections.getSubTypesOf(IEntity.class);
+        Set<Class<? extends IEntity>> classes = ReflectionUtils.getClassesThatExtends(IEntity.class, "org.meveo.model");
 
         for (Class clazz : classes) {
             if (clazz.isInterface() || clazz.isAnnotation() || !IEntity.class.isAssignableFrom(clazz)) {
@@ -64,6 +64,7 @@ import org.meveo.persistence.impl.SQLStorageImpl;
 import org.meveo.persistence.neo4j.service.Neo4jService;
 import org.meveo.persistence.scheduler.EntityRef;
 import org.meveo.security.PasswordUtils;
+import org.meveo.service.base.RowCountCache;
 import org.meveo.service.crm.impl.CustomFieldInstanceService;
 import org.meveo.service.crm.impl.CustomFieldTemplateService;
 import org.meveo.service.custom.CustomEntityInstanceService;
@@ -89,6 +90,9 @@ public class CrossStorageService implements CustomPersistenceService {
 	@Inject
 	private CustomFieldsCacheContainerProvider cache;
 
+	@Inject
+	private RowCountCache rowCountCache;
+
 	@Inject
 	private CustomTableService customTableService;
 
@@ -409,6 +413,17 @@ public class CrossStorageService implements CustomPersistenceService {
 				.collect(Collectors.toList());
 	}
 
+	/**
+	 * Remove the cached row counts of a custom entity template
+	 * 
+	 * @param cet the data type written to
+	 */
+	private void invalidateRowCounts(CustomEntityTemplate cet) {
+		if (cet != null) {
+			rowCountCache.invalidate(RowCountCache.getCetSource(cet.getCode()));
+		}
+	}
+
 	/**
 	 * Count the number of record for a given pagination
 	 * 
@@ -536,6 +551,7 @@ public class CrossStorageService implements CustomPersistenceService {
 		if(cet == null) {
 			throw new IllegalArgumentException("CET with code " + ceiToSave.getCetCode() + " does not exist");
 		}
+		invalidateRowCounts(cet);
 		
 		Set<EntityRef> persistedEntities = new HashSet<>();
 
@@ -714,6 +730,7 @@ public class CrossStorageService implements CustomPersistenceService {
 	public void update(Repository repository, CustomEntityInstance ceiToUpdate) throws BusinessException, IOException, BusinessApiException, EntityDoesNotExistsException {
 		ceiToUpdate.setRepository(repository);
 		CustomEntityTemplate cet = ceiToUpdate.getCet();
+		invalidateRowCounts(cet);
 		
 		Map<String, CustomFieldTemplate> customFieldTemplates = customFieldTemplateService.getCftsWithInheritedFields(cet);
 		ceiToUpdate.setFieldTemplates(customFieldTemplates);
@@ -838,6 +855,7 @@ public class CrossStorageService implements CustomPersistenceService {
 		if (uuid == null) {
 			throw new IllegalArgumentException("Cannot remove entity by UUID without uuid");
 		}
+		invalidateRowCounts(cet);
 		
 		CustomEntityInstance cei = new CustomEntityInstance();
 		cei.setCet(cet);
@@ -1291,7 +1309,7 @@ public class CrossStorageService implements CustomPersistenceService {
 	 * @param valuesList list of map of values
 	 * @param resultMap  map to merge or add
 	 */
-	private void mergeData(List<Map<String, Object>> valuesList, Map<String, Object> resultMap) {
+	static void mergeData(List<Map<String, Object>> valuesList, Map<String, Object> resultMap) {
 
 		String uuid = (String) (resultMap.get("uuid") != null ? resultMap.get("uuid") : resultMap.get("meveo_uuid"));
 
@@ -3,6 +3,8 @@
  */
 package org.meveo.persistence;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.util.HashMap;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -12,6 +14,7 @@ import javax.inject.Inject;
 
 import org.meveo.model.persistence.DBStorageType;
 import org.meveo.model.scripts.ScriptInstance;
+import org.meveo.service.monitoring.MetricsRegistry;
 import org.meveo.service.script.ScriptInstanceService;
 import org.meveo.service.script.ScriptInterface;
 
@@ -21,6 +24,9 @@ public class StorageImplProvider {
 	@Inject 
 	private transient ScriptInstanceService scriptInstanceService;
 	
+	@Inject
+	private MetricsRegistry metricsRegistry;
+	
 	private ConcurrentHashMap<DBStorageType, StorageImpl> cache = new ConcurrentHashMap<>();
 
 	public StorageImpl findImplementation(DBStorageType dbStorageType) {
@@ -48,8 +54,35 @@ public class StorageImplProvider {
 			throw new IllegalArgumentException("Incorrect DBStorage type object");
 		}
 		
+		// Always wrapped as the implementation is cached while the metrics can be enabled at runtime
+		result = metered(dbStorageType.getCode(), result);
+		
 		cache.put(dbStorageType, result);
 		return result;
 	}
+	
+	/**
+	 * Wrap a storage implementation so that the duration of its calls is recorded while the metrics are enabled
+	 * 
+	 * @param storage     code of the storage
+	 * @param storageImpl the implementation
+	 * @return the timed implementation
+	 */
+	private StorageImpl metered(String storage, StorageImpl storageImpl) {
+		return (StorageImpl) Proxy.newProxyInstance(StorageImpl.class.getClassLoader(), new Class<?>[] { StorageImpl.class }, (proxy, method, args) -> {
+			if (method.getDeclaringClass() == Object.class) {
+				return method.invoke(storageImpl, args);
+			}
+			
+			long start = metricsRegistry.start();
+			try {
+				return method.invoke(storageImpl, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			} finally {
+				metricsRegistry.stop(MetricsRegistry.CROSS_STORAGE_TIME, start, "storage", storage, "operation", method.getName());
+			}
+		});
+	}
 
 }
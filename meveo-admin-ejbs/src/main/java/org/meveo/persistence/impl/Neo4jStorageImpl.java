@@ -46,6 +46,8 @@ import org.meveo.persistence.neo4j.base.Neo4jConnectionProvider;
 import org.meveo.persistence.neo4j.base.Neo4jDao;
 import org.meveo.persistence.neo4j.service.Neo4jService;
 import org.meveo.persistence.neo4j.service.graphql.GraphQLService;
+import org.meveo.service.admin.impl.ModuleInstallationContext;
+import org.meveo.service.admin.impl.ModuleInstallationContext.DeferredWork;
 import org.meveo.service.crm.impl.CustomFieldInstanceService;
 import org.meveo.service.crm.impl.CustomFieldTemplateService;
 import org.meveo.util.PersistenceUtils;
@@ -81,6 +83,9 @@ public class Neo4jStorageImpl implements StorageImpl {
 	
 	@Inject
 	private GraphQLService graphQLService;
+
+	@Inject
+	private ModuleInstallationContext moduleInstallationContext;
 	
 	private static Logger log = LoggerFactory.getLogger(Neo4jStorageImpl.class);
 	
@@ -393,20 +398,40 @@ public class Neo4jStorageImpl implements StorageImpl {
 	public void cetCreated(CustomEntityTemplate cet) {
         if (cet.getAvailableStorages() != null && cet.getAvailableStorages().contains(DBStorageType.NEO4J)) {
         	neo4jService.addUUIDIndexes(cet);
+        	deferIdlUpdate(cet);
         }
 		
 	}
 
 	@Override
 	public void crtCreated(CustomRelationshipTemplate crt) {
-		// NOOP
-		
+		if (crt.getAvailableStorages() != null && crt.getAvailableStorages().contains(DBStorageType.NEO4J)) {
+			deferIdlUpdate(crt);
+		}
 	}
 
 	@Override
 	public void cftCreated(CustomModelObject template, CustomFieldTemplate cft) {
-		// NOOP
-		
+		if (cft.getStoragesNullSafe().contains(DBStorageType.NEO4J)) {
+			deferIdlUpdate(template);
+		}
+	}
+
+	/**
+	 * During a module installation, register the neo4j repositories of the template so their IDL is updated once at the end of the
+	 * installation.
+	 * 
+	 * @param template created template
+	 */
+	private void deferIdlUpdate(CustomModelObject template) {
+		IdlUpdate idlUpdate = moduleInstallationContext.getDeferredWork(IdlUpdate.class.getName(), () -> new IdlUpdate(graphQLService));
+		if (idlUpdate != null && template.getRepositories() != null) {
+			for (Repository repository : template.getRepositories()) {
+				if (repository.getNeo4jConfiguration() != null) {
+					idlUpdate.neo4jConfigurations.add(repository.getNeo4jConfiguration().getCode());
+				}
+			}
+		}
 	}
 
 	@Override
@@ -547,5 +572,27 @@ public class Neo4jStorageImpl implements StorageImpl {
 		System.out.println(query);
 	}
 
+	/**
+	 * IDL update of the neo4j repositories impacted by a module installation
+	 */
+	private static class IdlUpdate implements DeferredWork {
+
+		private final GraphQLService graphQLService;
+		private final Set<String> neo4jConfigurations = new HashSet<>();
+
+		private IdlUpdate(GraphQLService graphQLService) {
+			this.graphQLService = graphQLService;
+		}
 
+		@Override
+		public void flush() {
+			for (String neo4jConfiguration : neo4jConfigurations) {
+				try {
+					graphQLService.updateIDL(neo4jConfiguration);
+				} catch (Exception e) {
+					log.warn("Failed to update IDL of neo4j configuration {}", neo4jConfiguration, e);
+				}
+			}
+		}
+	}
 }
@@ -661,14 +661,14 @@ public class SQLStorageImpl implements StorageImpl {
 		if (template instanceof CustomEntityTemplate) {
 			CustomEntityTemplate cet = (CustomEntityTemplate) template;
 			if (cet.getSqlStorageConfiguration() != null && cet.getSqlStorageConfiguration().isStoreAsTable() && cet.getAvailableStorages().contains(DBStorageType.SQL)) {
-	            customTableCreatorService.updateField(cet, cft);
+	            customTableCreatorService.updateField(cet, oldCft, cft);
 			
 			} else if(cet.getAvailableStorages() != null && !cet.getAvailableStorages().contains(DBStorageType.SQL) && oldCft != null && oldCft.getStoragesNullSafe() != null && oldCft.getStoragesNullSafe().contains(DBStorageType.SQL)) {
 				customTableCreatorService.removeField(cet, cft);
 			}
 		} else {
 			if (template.getAvailableStorages().contains(DBStorageType.SQL)) {
-	            customTableCreatorService.updateField(template, cft);
+	            customTableCreatorService.updateField(template, oldCft, cft);
 			} else if(!template.getAvailableStorages().contains(DBStorageType.SQL) && oldCft.getStoragesNullSafe()!= null && oldCft.getStoragesNullSafe().contains(DBStorageType.SQL)) {
 				customTableCreatorService.removeField(template, cft);
 			}
@@ -1,9 +1,11 @@
 package org.meveo.persistence.sql;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.ejb.ConcurrencyManagement;
 import javax.ejb.ConcurrencyManagementType;
 import javax.ejb.Singleton;
@@ -11,8 +13,6 @@ import javax.ejb.Startup;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 import javax.inject.Provider;
-import javax.jms.JMSException;
-import javax.jms.Session;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.NoResultException;
@@ -20,9 +20,13 @@ import javax.persistence.PersistenceUnit;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Root;
+import javax.sql.DataSource;
 
 import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.meveo.commons.utils.StringUtils;
 import org.meveo.event.qualifier.Updated;
 import org.meveo.jpa.EntityManagerWrapper;
@@ -32,6 +36,10 @@ import org.meveo.security.PasswordUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
 /**
  * @author Edward P. Legaspi | czetsuya@gmail.com
  * @version 6.7.0
@@ -54,6 +62,7 @@ public class SQLConnectionProvider {
 	private SqlConfiguration defaultSqlConfiguration = new SqlConfiguration();
 	private static final Map<String, SqlConfiguration> configurationMap = new ConcurrentHashMap<>();
 	private static final Map<String, SessionFactory> SESSION_FACTORY_MAP = new ConcurrentHashMap<>();
+	private static final String POOL_NAME_PREFIX = "meveo-sql-";
 
 	@PostConstruct
 	public void loadConfig() {
@@ -113,21 +122,22 @@ public class SQLConnectionProvider {
 	}
 
 	public boolean testSession(SqlConfiguration sqlConfiguration) {
-		Session session = null;
+		SessionFactory sessionFactory = null;
 		try {
-			SessionFactory sessionFactory = buildSessionFactory(sqlConfiguration);
+			sessionFactory = buildSessionFactory(sqlConfiguration, false);
 			synchronized (this) {
-				return (sessionFactory.openSession() != null);
+				try (org.hibernate.Session session = sessionFactory.openSession()) {
+					return session != null;
+				}
 			}
 
 		} catch (Exception e) {
 			log.warn("Can't connect to sql configuration with code={}, url={}, error={}", sqlConfiguration.getCode(), sqlConfiguration.getUrl(), e.getCause());
 			return false;
 		} finally {
-			try {
-				if (session != null)
-					session.close();
-			} catch (JMSException ignored) {}
+			if (sessionFactory != null && !sqlConfiguration.getCode().equals(SqlConfiguration.DEFAULT_SQL_CONNECTION)) {
+				close(sessionFactory);
+			}
 		}
 	}
 
@@ -135,10 +145,21 @@ public class SQLConnectionProvider {
 
 		SqlConfiguration sqlConfiguration = getSqlConfiguration(sqlConfigurationCode);
 
-		return buildSessionFactory(sqlConfiguration);
+		return buildSessionFactory(sqlConfiguration, true);
 	}
 
 	public synchronized SessionFactory buildSessionFactory(SqlConfiguration sqlConfiguration) {
+		return buildSessionFactory(sqlConfiguration, true);
+	}
+
+	/**
+	 * Build the session factory of a configuration. Configurations given by url get their own bounded connection pool.
+	 *
+	 * @param sqlConfiguration the configuration
+	 * @param registerMbeans   whether to expose the pool statistics through JMX
+	 * @return the session factory
+	 */
+	private synchronized SessionFactory buildSessionFactory(SqlConfiguration sqlConfiguration, boolean registerMbeans) {
 
 		// Return the SessionFactory initialized by wildfly in case of using default configuration
 		if(sqlConfiguration.getCode().equals(SqlConfiguration.DEFAULT_SQL_CONNECTION)) {
@@ -152,16 +173,7 @@ public class SQLConnectionProvider {
 				config.setProperty( org.hibernate.cfg.AvailableSettings.JPA_TRANSACTION_TYPE, "RESOURCE_LOCAL");
 				//config.setProperty( org.hibernate.cfg.AvailableSettings.CONNECTION_PROVIDER, "org.hibernate.engine.jdbc.connections.internal.DatasourceConnectionProviderImpl");
 			} else {
-				config.setProperty("hibernate.connection.driver_class", sqlConfiguration.getDriverClass());
-				config.setProperty("hibernate.connection.url", sqlConfiguration.getUrl());
-				config.setProperty("hibernate.connection.username", sqlConfiguration.getUsername());
-				if(sqlConfiguration.getClearPassword() == null) {
-					String salt = PasswordUtils.getSalt(sqlConfiguration.getCode(), sqlConfiguration.getUrl());
-					var clearPwd = PasswordUtils.decrypt(salt, sqlConfiguration.getPassword());
-					config.setProperty("hibernate.connection.password", clearPwd);
-				} else {
-					config.setProperty("hibernate.connection.password", sqlConfiguration.getClearPassword());
-				}				
+				config.getProperties().put(AvailableSettings.DATASOURCE, createDataSource(sqlConfiguration, registerMbeans));
 			}
 			if (log.isTraceEnabled())
 				config.setProperty("hibernate.generate_statistics", "true");
@@ -179,8 +191,145 @@ public class SQLConnectionProvider {
 				config.setProperty("hibernate.dialect", sqlConfiguration.getDialect());
 			}
 
-			return config.buildSessionFactory();
+			try {
+				return config.buildSessionFactory();
+
+			} catch (RuntimeException e) {
+				Object dataSource = config.getProperties().get(AvailableSettings.DATASOURCE);
+				if (dataSource instanceof HikariDataSource) {
+					((HikariDataSource) dataSource).close();
+				}
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Create the connection pool of a configuration. Settings left empty on the configuration keep the pool defaults.
+	 *
+	 * @param sqlConfiguration the configuration
+	 * @param registerMbeans   whether to expose the pool statistics through JMX
+	 * @return the connection pool
+	 */
+	private HikariDataSource createDataSource(SqlConfiguration sqlConfiguration, boolean registerMbeans) {
+		HikariConfig poolConfig = new HikariConfig();
+		poolConfig.setPoolName(POOL_NAME_PREFIX + sqlConfiguration.getCode());
+		poolConfig.setDriverClassName(sqlConfiguration.getDriverClass());
+		poolConfig.setJdbcUrl(sqlConfiguration.getUrl());
+		poolConfig.setUsername(sqlConfiguration.getUsername());
+		if (sqlConfiguration.getClearPassword() == null) {
+			String salt = PasswordUtils.getSalt(sqlConfiguration.getCode(), sqlConfiguration.getUrl());
+			poolConfig.setPassword(PasswordUtils.decrypt(salt, sqlConfiguration.getPassword()));
+		} else {
+			poolConfig.setPassword(sqlConfiguration.getClearPassword());
+		}
+		poolConfig.setAutoCommit(false);
+		poolConfig.setRegisterMbeans(registerMbeans);
+
+		if (sqlConfiguration.getPoolMaxSize() != null) {
+			poolConfig.setMaximumPoolSize(sqlConfiguration.getPoolMaxSize());
+		}
+		if (sqlConfiguration.getPoolMinSize() != null) {
+			poolConfig.setMinimumIdle(sqlConfiguration.getPoolMinSize());
+		}
+		if (sqlConfiguration.getPoolConnectionTimeout() != null) {
+			poolConfig.setConnectionTimeout(sqlConfiguration.getPoolConnectionTimeout());
+		}
+		if (sqlConfiguration.getPoolIdleTimeout() != null) {
+			poolConfig.setIdleTimeout(sqlConfiguration.getPoolIdleTimeout());
+		}
+		if (sqlConfiguration.getPoolMaxLifetime() != null) {
+			poolConfig.setMaxLifetime(sqlConfiguration.getPoolMaxLifetime());
+		}
+		if (StringUtils.isNotBlank(sqlConfiguration.getPoolValidationQuery())) {
+			poolConfig.setConnectionTestQuery(sqlConfiguration.getPoolValidationQuery());
+		}
+
+		// Statement caching is done by the drivers, each one with its own properties
+		Integer statementCacheSize = sqlConfiguration.getPoolStatementCacheSize();
+		if (statementCacheSize != null && statementCacheSize > 0) {
+			String driverClass = String.valueOf(sqlConfiguration.getDriverClass());
+			if (driverClass.contains("postgresql")) {
+				poolConfig.addDataSourceProperty("preparedStatementCacheQueries", String.valueOf(statementCacheSize));
+			} else if (driverClass.contains("mysql") || driverClass.contains("mariadb")) {
+				poolConfig.addDataSourceProperty("cachePrepStmts", "true");
+				poolConfig.addDataSourceProperty("prepStmtCacheSize", String.valueOf(statementCacheSize));
+			} else {
+				log.warn("Statement cache size of sql configuration {} is not supported by driver {}", sqlConfiguration.getCode(), driverClass);
+			}
+		}
+
+		return new HikariDataSource(poolConfig);
+	}
+
+	/**
+	 * Get the statistics of the connection pool of a configuration.
+	 *
+	 * @param sqlConfigurationCode code of the configuration
+	 * @return the pool statistics, empty if the configuration has no pool opened
+	 */
+	public Map<String, Object> getPoolStatistics(String sqlConfigurationCode) {
+		Map<String, Object> statistics = new HashMap<>();
+		SessionFactory sessionFactory = SESSION_FACTORY_MAP.get(sqlConfigurationCode);
+		HikariDataSource dataSource = sessionFactory != null ? getPool(sessionFactory) : null;
+		if (dataSource != null && dataSource.getHikariPoolMXBean() != null) {
+			HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+			statistics.put("activeConnections", pool.getActiveConnections());
+			statistics.put("idleConnections", pool.getIdleConnections());
+			statistics.put("totalConnections", pool.getTotalConnections());
+			statistics.put("threadsAwaitingConnection", pool.getThreadsAwaitingConnection());
+			statistics.put("minimumIdle", dataSource.getMinimumIdle());
+			statistics.put("maximumPoolSize", dataSource.getMaximumPoolSize());
+		}
+		return statistics;
+	}
+
+	/**
+	 * Close the session factory of a configuration and its connection pool.
+	 *
+	 * @param sqlConfigurationCode code of the configuration
+	 */
+	public void close(String sqlConfigurationCode) {
+		if (SqlConfiguration.DEFAULT_SQL_CONNECTION.equals(sqlConfigurationCode)) {
+			return;
+		}
+		configurationMap.remove(sqlConfigurationCode);
+		SessionFactory sessionFactory = SESSION_FACTORY_MAP.remove(sqlConfigurationCode);
+		if (sessionFactory != null) {
+			close(sessionFactory);
+		}
+	}
+
+	@PreDestroy
+	public void closeAll() {
+		SESSION_FACTORY_MAP.keySet().forEach(this::close);
+	}
+
+	private void close(SessionFactory sessionFactory) {
+		HikariDataSource dataSource = getPool(sessionFactory);
+		try {
+			if (sessionFactory.isOpen()) {
+				sessionFactory.close();
+			}
+		} finally {
+			if (dataSource != null) {
+				dataSource.close();
+			}
+		}
+	}
+
+	private HikariDataSource getPool(SessionFactory sessionFactory) {
+		if (!(sessionFactory instanceof SessionFactoryImplementor)) {
+			return null;
+		}
+		ConnectionProvider connectionProvider = ((SessionFactoryImplementor) sessionFactory).getServiceRegistry().getService(ConnectionProvider.class);
+		if (connectionProvider != null && connectionProvider.isUnwrappableAs(DataSource.class)) {
+			DataSource dataSource = connectionProvider.unwrap(DataSource.class);
+			if (dataSource instanceof HikariDataSource) {
+				return (HikariDataSource) dataSource;
+			}
 		}
+		return null;
 	}
 
 	public SqlConfiguration findByCode(String code) {
@@ -197,14 +346,12 @@ public class SQLConnectionProvider {
 
 	public void onSqlConnectionUpdated(@Observes @Updated SqlConfiguration entity) {
 
-		configurationMap.put(entity.getCode(), entity);
-
-		SessionFactory oldSessionFactory = SESSION_FACTORY_MAP.get(entity.getCode());
-		if (!entity.getCode().equals(SqlConfiguration.DEFAULT_SQL_CONNECTION) && oldSessionFactory != null && oldSessionFactory.isOpen()) {
-			oldSessionFactory.close();
+		SessionFactory oldSessionFactory = SESSION_FACTORY_MAP.remove(entity.getCode());
+		if (!entity.getCode().equals(SqlConfiguration.DEFAULT_SQL_CONNECTION) && oldSessionFactory != null) {
+			close(oldSessionFactory);
 		}
 
-		SESSION_FACTORY_MAP.remove(entity.getCode());
+		configurationMap.put(entity.getCode(), entity);
 	}
 
 
@@ -332,6 +332,22 @@ public class SqlConfigurationService extends BusinessService<SqlConfiguration> {
 		entity.setInitialized(initialized);
 	}
 	
+	@Override
+	public void remove(SqlConfiguration entity) throws BusinessException {
+		super.remove(entity);
+		sqlConnectionProvider.close(entity.getCode());
+	}
+
+	/**
+	 * Get the statistics of the connection pool of a configuration.
+	 *
+	 * @param sqlConfigurationCode code of the configuration
+	 * @return the pool statistics, empty if the configuration has no pool opened
+	 */
+	public Map<String, Object> getPoolStatistics(String sqlConfigurationCode) {
+		return sqlConnectionProvider.getPoolStatistics(sqlConfigurationCode);
+	}
+
 	private void setDbSchema(SqlConfiguration entity) {
 		if(!StringUtils.isBlank(entity.getSchema())) {
 			if(!entity.getUrl().contains("currentSchema=" + entity.getSchema())) {
@@ -4,8 +4,11 @@
 package org.meveo.service.admin.impl;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import javax.annotation.PreDestroy;
 import javax.enterprise.context.RequestScoped;
@@ -34,6 +37,7 @@ public class ModuleInstallationContext {
 	private List<Repository> repositories;
 	private MeveoModule module;
 	private List<PostInstallAction> postInstallActions = new ArrayList<>();
+	private Map<String, DeferredWork> deferredWorks = new LinkedHashMap<>();
 	private boolean isJsonInstallation = true;
 	
 	private boolean active;
@@ -75,23 +79,26 @@ public class ModuleInstallationContext {
 	
 	/**
 	 * Declares the end of a module installation
-	 * @throws BusinessException if a post install action fails
+	 * @throws BusinessException if a deferred work or a post install action fails
 	 */
 	public void end() throws BusinessException {
-		if (!failed) {
-			for (var action : postInstallActions) {
-				action.run();
+		try {
+			if (!failed) {
+				flushDeferredWorks();
+				for (var action : postInstallActions) {
+					action.run();
+				}
+				postInstallActions.clear();
+				postInstallEvent.fire(module);
 			}
-			postInstallActions.clear();
-			postInstallEvent.fire(module);
+		} finally {
+			deferredWorks.clear();
+			active = false;
+			this.ModuleCodeInstallation = null;
+			this.repositories = null;
+			this.module = null;
+			this.isJsonInstallation = true;
 		}
-		
-		
-		active = false;
-		this.ModuleCodeInstallation = null;
-		this.repositories = null;
-		this.module = null;
-		this.isJsonInstallation = true;
 	}
 
 	/**
@@ -122,6 +129,40 @@ public class ModuleInstallationContext {
 		}
 	}
 	
+	/**
+	 * If the context is active, get the deferred work registered with the given key, registering a new one if needed.
+	 * Deferred works collect the schema changes requested while the items are installed and apply them at once when flushed.
+	 * 
+	 * @param <T>     type of the deferred work
+	 * @param key     key identifying the deferred work, e.g. the table it applies to
+	 * @param factory creates the deferred work if none is registered yet
+	 * @return the deferred work, or null if no module is being installed
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends DeferredWork> T getDeferredWork(String key, Supplier<T> factory) {
+		if (!active) {
+			return null;
+		}
+		return (T) deferredWorks.computeIfAbsent(key, k -> factory.get());
+	}
+
+	/**
+	 * Apply the deferred works, in the order they were registered. Called at the end of the installation, and before installing
+	 * items that rely on the schema being up to date, like custom entity instances or the module script.
+	 * 
+	 * @throws BusinessException if a deferred work fails
+	 */
+	public void flushDeferredWorks() throws BusinessException {
+		// A work may register other works when flushed, e.g. tables changes impacting the IDL
+		while (!deferredWorks.isEmpty()) {
+			List<DeferredWork> works = new ArrayList<>(deferredWorks.values());
+			deferredWorks.clear();
+			for (DeferredWork work : works) {
+				work.flush();
+			}
+		}
+	}
+
 	/**
 	 * @return the {@link #isJsonInstallation}
 	 */
@@ -146,5 +187,13 @@ public class ModuleInstallationContext {
 	public static interface PostInstallAction {
 		public void run() throws BusinessException;
 	}
+
+	/**
+	 * Work collected during the installation and applied at once
+	 */
+	@FunctionalInterface
+	public static interface DeferredWork {
+		public void flush() throws BusinessException;
+	}
 	
 }
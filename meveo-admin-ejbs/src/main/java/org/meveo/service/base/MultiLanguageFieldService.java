@@ -15,8 +15,8 @@ import java.util.Set;
 
 import javax.ejb.Stateless;
 
+import org.meveo.commons.utils.ReflectionUtils;
 import org.meveo.model.IEntity;
-import org.reflections.Reflections;
 
 @Stateless
 public class MultiLanguageFieldService implements Serializable {
@@ -33,8 +33,7 @@ public class MultiLanguageFieldService implements Serializable {
 
             Map<Class, List<String>> entityMapping = new HashMap<>();
 
-            Reflections reflections = new Reflections("org.meveo.model");
-            Set<Class<? extends IEntity>> classes = reflections.getSubTypesOf(IEntity.class);
+            Set<Class<? extends IEntity>> classes = ReflectionUtils.getClassesThatExtends(IEntity.class, "org.meveo.model");
 
             for (Class clazz : classes) {
                 if (clazz.isInterface() || clazz.isAnnotation() || Modifier.isAbstract(clazz.getModifiers()) || !IEntity.class.isAssignableFrom(clazz)) {
@@ -18,8 +18,10 @@ package org.meveo.service.base;
 import java.io.File;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
@@ -34,13 +36,19 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
@@ -97,6 +105,9 @@ import org.meveo.service.custom.CustomEntityTemplateService;
 import org.meveo.service.custom.CustomTableService;
 import org.meveo.service.custom.PostgresReserverdKeywords;
 import org.meveo.util.MeveoParamBean;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -137,6 +148,11 @@ public class NativePersistenceService extends BaseService {
 	 */
 	public static String FIELD_DISABLED = "disabled";
 
+	/**
+	 * How many times the requested number of rows a random sample should contain, so that block sampling rarely returns too few rows
+	 */
+	private static final int RANDOM_SAMPLE_OVERSIZE = 4;
+
 	@Inject
 	@MeveoJpa
 	private EntityManagerWrapper emWrapper;
@@ -171,6 +187,9 @@ public class NativePersistenceService extends BaseService {
     @Inject
     private CustomFieldsCacheContainerProvider cache;
 
+    @Inject
+    private RowCountCache rowCountCache;
+
 	/**
 	 * Return an entity manager for a current provider
 	 * @param sqlConfigurationCode Code of the sql configuration used to init the entity manager
@@ -260,6 +279,43 @@ public class NativePersistenceService extends BaseService {
 		}
 	}
 
+	/**
+	 * Find records by their identifiers using a single query
+	 *
+	 * @param sqlConnectionCode Datasource to query
+	 * @param tableName         Table name
+	 * @param uuids             Identifiers
+	 * @return A map of the found records, with their uuid as a map key and their values as a map value
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<String, Map<String, Object>> findByIds(String sqlConnectionCode, String tableName, Collection<String> uuids) {
+		Map<String, Map<String, Object>> results = new HashMap<>();
+		if (uuids == null || uuids.isEmpty()) {
+			return results;
+		}
+
+		tableName = PostgresReserverdKeywords.escapeAndFormat(tableName);
+
+		try {
+			Session session = sqlStorageImpl.getHibernateSession(sqlConnectionCode);
+
+			NativeQuery query = session.createSQLQuery("SELECT * FROM {h-schema}" + tableName + " e WHERE uuid IN (:uuids)");
+			query.setParameterList("uuids", uuids);
+			query.setResultTransformer(AliasToEntityOrderedMapResultTransformer.INSTANCE);
+
+			List<Map<String, Object>> rows = query.list();
+			for (Map<String, Object> row : rows) {
+				results.put((String) row.get(FIELD_ID), row);
+			}
+
+			return results;
+
+		} catch (Exception e) {
+			log.error("Failed to retrieve values from table by uuids {}/{}", tableName, uuids, e);
+			throw e;
+		}
+	}
+
 	private void setSchema(String sqlConnectionCode, Connection connection) {
 		String schema = sqlConfigurationService.getSchema(sqlConnectionCode);		
 		if(!StringUtils.isBlank(schema)) {
@@ -359,6 +415,123 @@ public class NativePersistenceService extends BaseService {
 		return result;
 	}
 
+	/**
+	 * Find, among a list of records, the ones that already exist in the table, using one query per set of defined unique fields. Records are
+	 * matched on their unique values the same way as {@link #findIdByUniqueValues(String, CustomModelObject, Map, Collection)} does, but
+	 * the parent template tables are not looked up.
+	 *
+	 * @param sqlConnectionCode Code of the sql configuration
+	 * @param customTemplate    Template related to the table
+	 * @param values            Records to look for
+	 * @param fields            Fields of the template
+	 * @return The indexes, in the given list, of the records that were found
+	 */
+	@SuppressWarnings("unchecked")
+	public Set<Integer> findExistingByUniqueValues(String sqlConnectionCode, CustomModelObject customTemplate, List<Map<String, Object>> values, Collection<CustomFieldTemplate> fields) {
+		Set<Integer> existingIndexes = new HashSet<>();
+
+		String tableName = PostgresReserverdKeywords.escapeAndFormat(customTemplate.getDbTableName());
+
+		// Unique values of each record, grouped by the unique fields they define
+		Map<List<String>, Map<Integer, List<Object>>> uniqueValuesByFields = new LinkedHashMap<>();
+
+		for (int index = 0; index < values.size(); index++) {
+			Map<String, Object> queryValues = values.get(index);
+			List<String> uniqueFields = new ArrayList<>();
+			List<Object> uniqueValues = new ArrayList<>();
+
+			for (CustomFieldTemplate cft : fields) {
+				// Don't use inherited values
+				if (!cft.isUnique() || !cft.getAppliesTo().equals(customTemplate.getAppliesTo())) {
+					continue;
+				}
+
+				Object uniqueValue = Optional.ofNullable(queryValues.get(cft.getCode())).orElse(queryValues.get(cft.getDbFieldname()));
+				if (uniqueValue instanceof EntityReferenceWrapper) {
+					uniqueValue = ((EntityReferenceWrapper) uniqueValue).getUuid();
+				}
+
+				if (uniqueValue != null && !(uniqueValue instanceof Collection) && !(uniqueValue instanceof File) && !(uniqueValue instanceof Map)) {
+					uniqueFields.add(cft.getDbFieldname());
+					uniqueValues.add(uniqueValue);
+				}
+			}
+
+			if (!uniqueFields.isEmpty()) {
+				uniqueValuesByFields.computeIfAbsent(uniqueFields, k -> new LinkedHashMap<>()).put(index, uniqueValues);
+			}
+		}
+
+		Session session = sqlStorageImpl.getHibernateSession(sqlConnectionCode);
+
+		for (Entry<List<String>, Map<Integer, List<Object>>> group : uniqueValuesByFields.entrySet()) {
+			List<String> uniqueFields = group.getKey().stream().map(PostgresReserverdKeywords::escapeAndFormat).collect(Collectors.toList());
+
+			StringBuilder q = new StringBuilder();
+			q.append("SELECT ").append(uniqueFields.stream().map(field -> "a." + field).collect(Collectors.joining(", ")));
+			q.append(" FROM {h-schema}" + tableName + " as a\nWHERE ");
+
+			String condition = uniqueFields.stream().map(field -> "a." + field + " = ?").collect(Collectors.joining(" AND ", "(", ")"));
+			q.append(group.getValue().keySet().stream().map(index -> condition).collect(Collectors.joining("\nOR ")));
+
+			NativeQuery<Object> query = session.createSQLQuery(q.toString());
+			int parameterIndex = 1;
+			for (List<Object> uniqueValues : group.getValue().values()) {
+				for (Object uniqueValue : uniqueValues) {
+					query.setParameter(parameterIndex++, uniqueValue);
+				}
+			}
+
+			Set<List<String>> existingKeys = new HashSet<>();
+			try {
+				for (Object result : query.getResultList()) {
+					List<Object> row = result instanceof Object[] ? Arrays.asList((Object[]) result) : Collections.singletonList(result);
+					existingKeys.add(toUniqueKey(row));
+				}
+
+			} catch (Exception e) {
+				log.error("Error executing query {}", query.getQueryString());
+				throw e;
+			}
+
+			group.getValue().forEach((index, uniqueValues) -> {
+				if (existingKeys.contains(toUniqueKey(uniqueValues))) {
+					existingIndexes.add(index);
+				}
+			});
+		}
+
+		return existingIndexes;
+	}
+
+	/**
+	 * Normalize unique values so values read from the database can be compared with the converted values of a record
+	 *
+	 * @param uniqueValues The values to normalize
+	 * @return The normalized key
+	 */
+	private static List<String> toUniqueKey(List<Object> uniqueValues) {
+		List<String> key = new ArrayList<>(uniqueValues.size());
+		for (Object value : uniqueValues) {
+			if (value instanceof Number) {
+				key.add(new BigDecimal(value.toString()).stripTrailingZeros().toPlainString());
+			} else if (value instanceof Date) {
+				key.add(String.valueOf(((Date) value).getTime()));
+			} else if (value instanceof Instant) {
+				key.add(String.valueOf(((Instant) value).toEpochMilli()));
+			} else if (value instanceof LocalDateTime) {
+				key.add(String.valueOf(Timestamp.valueOf((LocalDateTime) value).getTime()));
+			} else if (value instanceof LocalDate) {
+				key.add(String.valueOf(java.sql.Date.valueOf((LocalDate) value).getTime()));
+			} else if (value instanceof Boolean) {
+				key.add((Boolean) value ? "1" : "0");
+			} else {
+				key.add(String.valueOf(value));
+			}
+		}
+		return key;
+	}
+
 	/**
 	 * Create new or update existing custom table record value
 	 *
@@ -483,6 +656,7 @@ public class NativePersistenceService extends BaseService {
 		}
 
 		final String tableName = PostgresReserverdKeywords.escapeAndFormat(tableName_);
+		rowCountCache.invalidate(RowCountCache.getTableSource(sqlConnectionCode, tableName));
 
 		if (values == null || values.isEmpty()) {
 			throw new IllegalArgumentException("No values to insert");
@@ -597,6 +771,7 @@ public class NativePersistenceService extends BaseService {
 	public void create(String sqlConnectionCode, String tableName, List<CustomEntityInstance> ceis) throws BusinessException {
 
 		tableName = PostgresReserverdKeywords.escapeAndFormat(tableName);
+		rowCountCache.invalidate(RowCountCache.getTableSource(sqlConnectionCode, tableName));
 
 		List<Map<String, Object>> values = ceis.stream().map(e -> e.getCfValuesAsValues()).collect(Collectors.toList());
 
@@ -628,6 +803,7 @@ public class NativePersistenceService extends BaseService {
 
 		sql.append(" (").append(fields).append(") values (").append(fieldValues).append(")");
 		
+		final int batchSize = getJdbcBatchSize();
 		doBatch(sqlConnectionCode, sql.toString(), (preparedStatement -> {
 			Object fieldValue = null;
 			int i = 1;
@@ -665,15 +841,258 @@ public class NativePersistenceService extends BaseService {
 
 				preparedStatement.addBatch();
 
-				// Batch size: 20
-				if (itemsProcessed % 500 == 0) {
+				if (++itemsProcessed % batchSize == 0) {
 					preparedStatement.executeBatch();
 				}
-				itemsProcessed++;
 			}
 		}));
 	}
 
+	/**
+	 * Insert multiple records into a table using prepared statement batches. Records are grouped by the set of fields they define, so that
+	 * undefined fields keep their column default value as with {@link #create(String, String, Map, boolean)}. All the groups are inserted on
+	 * the same connection and in the same transaction, so either all the records are inserted or none.
+	 *
+	 * @param sqlConnectionCode Code of the sql configuration
+	 * @param tableName         Table name to insert values to
+	 * @param values            Converted values of the records to insert
+	 * @throws BusinessException General exception
+	 */
+	public void insertBatch(String sqlConnectionCode, String tableName, List<Map<String, Object>> values) throws BusinessException {
+		if (values == null || values.isEmpty()) {
+			return;
+		}
+
+		if (tableName == null) {
+			throw new BusinessException("Table name must not be null");
+		}
+
+		final String escapedTableName = PostgresReserverdKeywords.escapeAndFormat(tableName);
+		final int batchSize = getJdbcBatchSize();
+		rowCountCache.invalidate(RowCountCache.getTableSource(sqlConnectionCode, tableName));
+
+		Map<List<String>, List<Map<String, Object>>> valuesByFields = groupByFields(values);
+
+		try {
+			Session hibernateSession = sqlStorageImpl.getHibernateSession(sqlConnectionCode);
+			hibernateSession.doWork(connection -> {
+				boolean manualCommit = !sqlConnectionCode.equals(SqlConfiguration.DEFAULT_SQL_CONNECTION) && !sqlConnectionProvider.getSqlConfiguration(sqlConnectionCode).isXAResource();
+				if (manualCommit) {
+					connection.setAutoCommit(false);
+				}
+				setSchema(sqlConnectionCode, connection);
+
+				try {
+					for (Entry<List<String>, List<Map<String, Object>>> group : valuesByFields.entrySet()) {
+						List<String> fieldNames = group.getKey();
+
+						String sql = "insert into " + escapedTableName
+								+ " (" + fieldNames.stream().map(PostgresReserverdKeywords::escapeAndFormat).collect(Collectors.joining(",")) + ")"
+								+ " values (" + fieldNames.stream().map(fieldName -> "?").collect(Collectors.joining(",")) + ")";
+
+						try (PreparedStatement ps = connection.prepareStatement(sql)) {
+							int itemsProcessed = 0;
+							for (Map<String, Object> value : group.getValue()) {
+								int parameterIndex = 1;
+								for (String fieldName : fieldNames) {
+									setParameterValue(ps, parameterIndex++, value.get(fieldName));
+								}
+								ps.addBatch();
+
+								if (++itemsProcessed % batchSize == 0) {
+									ps.executeBatch();
+								}
+							}
+							ps.executeBatch();
+						}
+					}
+
+					if (manualCommit) {
+						connection.commit();
+					}
+
+				} catch (SQLException | RuntimeException e) {
+					if (manualCommit) {
+						connection.rollback();
+					}
+					throw e;
+				}
+			});
+
+		} catch (Exception e) {
+			log.error("Failed to insert {} records into table {}", values.size(), tableName, e);
+			throw new BusinessException(e);
+		}
+	}
+
+	/**
+	 * Group records by the set of fields they define with a value
+	 *
+	 * @param values Converted values of the records
+	 * @return The records, by their sorted field names
+	 */
+	private static Map<List<String>, List<Map<String, Object>>> groupByFields(List<Map<String, Object>> values) {
+		Map<List<String>, List<Map<String, Object>>> valuesByFields = new LinkedHashMap<>();
+		for (Map<String, Object> value : values) {
+			List<String> fieldNames = value.entrySet().stream()
+					.filter(entry -> entry.getValue() != null && !(entry.getKey().equals(FIELD_ID) && "null".equals(entry.getValue())))
+					.map(Entry::getKey)
+					.sorted()
+					.collect(Collectors.toList());
+			valuesByFields.computeIfAbsent(fieldNames, k -> new ArrayList<>()).add(value);
+		}
+		return valuesByFields;
+	}
+
+	/**
+	 * Insert multiple records into a table using the PostgreSQL COPY protocol. Records are streamed to the database one by one, records
+	 * without identifier get a generated one. As with {@link #insertBatch(String, String, List)}, records are grouped by the set of fields
+	 * they define so that undefined fields keep their column default value, and all the groups are copied in the same transaction. Falls back to {@link #insertBatch(String, String, List)} when the connection is not a
+	 * PostgreSQL one.
+	 *
+	 * @param sqlConnectionCode Code of the sql configuration
+	 * @param tableName         Table name to insert values to
+	 * @param values            Converted values of the records to insert
+	 * @throws BusinessException General exception
+	 */
+	public void copyIn(String sqlConnectionCode, String tableName, List<Map<String, Object>> values) throws BusinessException {
+		if (values == null || values.isEmpty()) {
+			return;
+		}
+
+		if (tableName == null) {
+			throw new BusinessException("Table name must not be null");
+		}
+
+		rowCountCache.invalidate(RowCountCache.getTableSource(sqlConnectionCode, tableName));
+
+		// Only the fields defined by the records of a group are copied, the identifier is always copied as it is generated when missing
+		Map<List<String>, List<Map<String, Object>>> valuesByFields = groupByFields(values);
+
+		AtomicBoolean copied = new AtomicBoolean(false);
+
+		try {
+			Session hibernateSession = sqlStorageImpl.getHibernateSession(sqlConnectionCode);
+			hibernateSession.doWork(connection -> {
+				if (!connection.isWrapperFor(PGConnection.class)) {
+					return;
+				}
+
+				boolean manualCommit = !sqlConnectionCode.equals(SqlConfiguration.DEFAULT_SQL_CONNECTION) && !sqlConnectionProvider.getSqlConfiguration(sqlConnectionCode).isXAResource();
+				if (manualCommit) {
+					connection.setAutoCommit(false);
+				}
+				setSchema(sqlConnectionCode, connection);
+
+				CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+				try {
+					for (Entry<List<String>, List<Map<String, Object>>> group : valuesByFields.entrySet()) {
+						Set<String> fieldNames = new LinkedHashSet<>();
+						fieldNames.add(FIELD_ID);
+						fieldNames.addAll(group.getKey());
+
+						String sql = "COPY " + PostgresReserverdKeywords.escapeAndFormat(tableName)
+								+ " (" + fieldNames.stream().map(PostgresReserverdKeywords::escapeAndFormat).collect(Collectors.joining(",")) + ")"
+								+ " FROM STDIN WITH (FORMAT csv)";
+
+						CopyIn copyIn = copyManager.copyIn(sql);
+						try {
+							for (Map<String, Object> value : group.getValue()) {
+								byte[] line = toCopyLine(fieldNames, value).getBytes(StandardCharsets.UTF_8);
+								copyIn.writeToCopy(line, 0, line.length);
+							}
+							copyIn.endCopy();
+
+						} finally {
+							if (copyIn.isActive()) {
+								copyIn.cancelCopy();
+							}
+						}
+					}
+
+					if (manualCommit) {
+						connection.commit();
+					}
+
+				} catch (SQLException e) {
+					if (manualCommit) {
+						connection.rollback();
+					}
+					throw e;
+				}
+
+				copied.set(true);
+			});
+
+		} catch (Exception e) {
+			log.error("Failed to copy {} records into table {}", values.size(), tableName, e);
+			throw new BusinessException(e);
+		}
+
+		if (!copied.get()) {
+			log.debug("Connection {} does not support COPY, inserting records in batch", sqlConnectionCode);
+			insertBatch(sqlConnectionCode, tableName, values);
+		}
+	}
+
+	/**
+	 * Format a record as a line of a CSV formatted COPY stream
+	 *
+	 * @param fieldNames Columns of the COPY statement
+	 * @param value      Converted values of the record
+	 * @return The CSV line, including the line separator
+	 */
+	private String toCopyLine(Collection<String> fieldNames, Map<String, Object> value) {
+		StringBuilder line = new StringBuilder();
+
+		boolean first = true;
+		for (String fieldName : fieldNames) {
+			if (!first) {
+				line.append(",");
+			}
+			first = false;
+
+			Object fieldValue = value.get(fieldName);
+			if (fieldName.equals(FIELD_ID) && (fieldValue == null || "null".equals(fieldValue))) {
+				fieldValue = UUID.randomUUID().toString();
+			}
+
+			if (fieldValue instanceof Map || fieldValue instanceof Collection) {
+				fieldValue = JacksonUtil.toString(fieldValue);
+			} else if (fieldValue instanceof File) {
+				fieldValue = ((File) fieldValue).getAbsolutePath();
+			} else if (fieldValue instanceof EntityReferenceWrapper) {
+				EntityReferenceWrapper erw = (EntityReferenceWrapper) fieldValue;
+				fieldValue = customFieldTemplateService.isReferenceJpaEntity(erw.getClassnameCode()) ? erw.getId() : erw.getUuid();
+			} else if (fieldValue instanceof Date) {
+				fieldValue = new Timestamp(((Date) fieldValue).getTime());
+			} else if (fieldValue instanceof Instant) {
+				fieldValue = new Timestamp(((Instant) fieldValue).toEpochMilli());
+			} else if (fieldValue instanceof LocalDateTime) {
+				fieldValue = Timestamp.valueOf((LocalDateTime) fieldValue);
+			} else if (fieldValue instanceof Boolean) {
+				// Boolean fields are stored as int
+				fieldValue = (Boolean) fieldValue ? 1 : 0;
+			} else if (fieldValue instanceof BigDecimal) {
+				fieldValue = ((BigDecimal) fieldValue).toPlainString();
+			}
+
+			// Unquoted empty value is NULL, quoted one is an empty string
+			if (fieldValue != null) {
+				line.append('"').append(fieldValue.toString().replace("\"", "\"\"")).append('"');
+			}
+		}
+
+		return line.append("\n").toString();
+	}
+
+	/**
+	 * @return Number of statements to add to a JDBC batch before executing it
+	 */
+	protected int getJdbcBatchSize() {
+		return Integer.parseInt(paramBean.getProperty("nativePersistence.jdbcBatchSize", "500"));
+	}
+
 	/**
 	 * Updates a {@linkplain CustomEntityInstance} in the database given a uuid.
 	 *
@@ -709,6 +1128,7 @@ public class NativePersistenceService extends BaseService {
 		}
 
 		String tableName = PostgresReserverdKeywords.escapeAndFormat(cei.getTableName());
+		rowCountCache.invalidate(RowCountCache.getTableSource(sqlConnectionCode, tableName));
 		
 		Map<String, Object> sqlValues = cei.getCfValuesAsValues(DBStorageType.SQL, cfts, removeNullValues);
 		var appliesTo = CustomEntityTemplate.getAppliesTo(cei.getCetCode());
@@ -861,6 +1281,7 @@ public class NativePersistenceService extends BaseService {
 		String cetCode = tableName;
 		var finalTableName = PostgresReserverdKeywords.escapeAndFormat(tableName);
 		var finalFieldName = PostgresReserverdKeywords.escapeAndFormat(fieldName);
+		rowCountCache.invalidate(RowCountCache.getTableSource(sqlConnectionCode, tableName));
 		
 		StringBuilder sql = new StringBuilder();
 		if (finalValue == null) {
@@ -893,6 +1314,7 @@ public class NativePersistenceService extends BaseService {
 	 */
 	public void disable(String sqlConnectionCode, String tableName, Set<String> ids) throws BusinessException {
 		tableName = PostgresReserverdKeywords.escapeAndFormat(tableName);
+		rowCountCache.invalidate(RowCountCache.getTableSource(sqlConnectionCode, tableName));
 		doUpdate(sqlConnectionCode, "update " + tableName + " set disabled=1 where uuid in ?", ps -> {
 			setParameterValue(ps, 1, ids);
 		});
@@ -907,6 +1329,7 @@ public class NativePersistenceService extends BaseService {
 	 */
 	public void disable(String sqlConnectionCode, String tableName, String uuid) throws BusinessException {
 		tableName = PostgresReserverdKeywords.escapeAndFormat(tableName);
+		rowCountCache.invalidate(RowCountCache.getTableSource(sqlConnectionCode, tableName));
 		doUpdate(sqlConnectionCode, "update " + tableName + " set disabled=1 where uuid= ?", ps -> {
 			setParameterValue(ps, 1, uuid);
 		});
@@ -921,6 +1344,7 @@ public class NativePersistenceService extends BaseService {
 	 */
 	public void enable(String sqlConnectionCode, String tableName, Set<String> ids) throws BusinessException {
 		tableName = PostgresReserverdKeywords.escapeAndFormat(tableName);
+		rowCountCache.invalidate(RowCountCache.getTableSource(sqlConnectionCode, tableName));
 		doUpdate(sqlConnectionCode, "update " + tableName + " set disabled=0 where uuid in ?", ps -> {
 			setParameterValue(ps, 1, ids);
 		});
@@ -935,6 +1359,7 @@ public class NativePersistenceService extends BaseService {
 	 */
 	public void enable(String sqlConnectionCode, String tableName, String uuid) throws BusinessException {
 		tableName = PostgresReserverdKeywords.escapeAndFormat(tableName);
+		rowCountCache.invalidate(RowCountCache.getTableSource(sqlConnectionCode, tableName));
 		doUpdate(sqlConnectionCode, "update " + tableName + " set disabled=0 where uuid= ?", ps -> {
 			setParameterValue(ps, 1, uuid);
 		});
@@ -954,6 +1379,7 @@ public class NativePersistenceService extends BaseService {
 		var subTemplates = customEntityTemplateService.getSubTemplates(template);
 		subTemplates.forEach(subT -> {
 			if (subT.isStoreAsTable()) {
+				rowCountCache.invalidate(RowCountCache.getTableSource(sqlConnectionCode, tableName(subT)));
 				doUpdate(sqlConnectionCode, "delete from " + tableName(subT), (ps) -> {});
 			}
 		});
@@ -1023,6 +1449,7 @@ public class NativePersistenceService extends BaseService {
 	 * @param ids
 	 */
 	private void removeRecords(String sqlConnectionCode, String tableName, Collection<String> ids) {
+		rowCountCache.invalidate(RowCountCache.getTableSource(sqlConnectionCode, tableName));
 		doUpdate(sqlConnectionCode, "delete from " + tableName + " where uuid in ?", (ps -> {
 			setParameterValue(ps, 1, ids);
 		}));
@@ -1060,6 +1487,7 @@ public class NativePersistenceService extends BaseService {
 	}
 
 	private void removeRecord(String sqlConnectionCode, String uuid, String tableName) {
+		rowCountCache.invalidate(RowCountCache.getTableSource(sqlConnectionCode, tableName));
 		doUpdate(sqlConnectionCode, "delete from " + tableName + " where uuid= ?", (ps -> {
 			setParameterValue(ps, 1, uuid);
 		}));
@@ -1129,6 +1557,8 @@ public class NativePersistenceService extends BaseService {
 	 * present. Applies to
 	 * <li>wildcardOrIgnoreCase. Similar to wildcardOr but ignoring case String type
 	 * fields.</li>
+	 * <li>eqIgnoreCase. Field value equals the value, ignoring case. Applies to
+	 * String type fields.</li>
 	 * <li>ne. Not equal.
 	 * </ul>
 	 * <p>
@@ -1184,10 +1614,24 @@ public class NativePersistenceService extends BaseService {
 	 * @return Query builder to filter entities according to pagination
 	 *         configuration data.
 	 */
-	@SuppressWarnings({ "rawtypes" })
 	public QueryBuilder getQuery(String tableName, PaginationConfiguration config) {
+		return getQuery(tableName, config, null);
+	}
+
+	/**
+	 * Same as {@link #getQuery(String, PaginationConfiguration)}, reading only a sample of the table
+	 *
+	 * @param tableName   A name of a table to query
+	 * @param config      Data filtering, sorting and pagination criteria
+	 * @param tableSample TABLESAMPLE clause to apply to the table, or null to read the whole table
+	 * @return Query builder to filter entities according to pagination
+	 *         configuration data.
+	 */
+	@SuppressWarnings({ "rawtypes" })
+	protected QueryBuilder getQuery(String tableName, PaginationConfiguration config, String tableSample) {
 		String startQuery;
 		tableName = PostgresReserverdKeywords.escapeAndFormat(tableName);
+		String fromTable = "{h-schema}" + tableName + " a " + (tableSample != null ? tableSample : "");
 		
 		String superType = config != null ? config.getSuperType() : null;
 		if(superType != null) {
@@ -1209,14 +1653,14 @@ public class NativePersistenceService extends BaseService {
 					startQuery += ", b.*";
 				}
 				
-				startQuery += "from {h-schema}" + tableName + " a ";
+				startQuery += "from " + fromTable;
 				startQuery += " INNER JOIN " + superType + " b ON a.uuid = b.uuid";
 			} else {
-				startQuery = "select * from {h-schema}" + tableName + " a ";
+				startQuery = "select * from " + fromTable;
 			}
 		} else if (config.getFetchFields().isEmpty()) {
 			// If fetch fields are empty, only return UUID
-			startQuery = "select a.uuid from {h-schema}" + tableName + " a ";
+			startQuery = "select a.uuid from " + fromTable;
 			if(superType != null) {
 				startQuery += " INNER JOIN " + superType + " b ON a.uuid = b.uuid"; 
 			}
@@ -1227,7 +1671,7 @@ public class NativePersistenceService extends BaseService {
 				builder.append(fieldName).append(", ");
 			});
 			builder.delete(builder.length() - 2, builder.length());
-			startQuery = builder.append(" from {h-schema}").append(tableName).append(" a ").toString();
+			startQuery = builder.append(" from ").append(fromTable).toString();
 			if(superType != null) {
 				startQuery += " INNER JOIN " + superType + " b ON a.uuid = b.uuid"; 
 			}
@@ -1373,7 +1817,11 @@ public class NativePersistenceService extends BaseService {
 					if (filterValue instanceof String) {
 						String filterString = (String) filterValue;
 						for (String field : fields) {
-							queryBuilder.addCriterionWildcard(field, filterString, false);
+							if (filterString.startsWith("*")) {
+								addContainsCriterion(queryBuilder, field, filterString.replace("*", "%"));
+							} else {
+								queryBuilder.addCriterionWildcard(field, filterString, false);
+							}
 						}
 					}
 					queryBuilder.endOrClause();
@@ -1384,7 +1832,7 @@ public class NativePersistenceService extends BaseService {
 				} else if (QueryBuilderHelper.SEARCH_WILDCARD_OR.equals(condition)) {
 					queryBuilder.startOrClause();
 					for (String field : fields) {
-						queryBuilder.addSql(field + " like '%" + filterValue + "%'");
+						addContainsCriterion(queryBuilder, field, "%" + filterValue + "%");
 					}
 					queryBuilder.endOrClause();
 
@@ -1397,6 +1845,11 @@ public class NativePersistenceService extends BaseService {
 					}
 					queryBuilder.endOrClause();
 
+					// Case-insensitive equality, backed by the lower() index of searchable fields
+				} else if (QueryBuilderHelper.SEARCH_EQUAL_IGNORE_CASE.equals(condition)) {
+					String paramName = queryBuilder.convertFieldToParam(fieldName);
+					queryBuilder.addSqlCriterion("lower(" + fieldName + ") = lower(:" + paramName + ")", paramName, filterValue);
+
 					// Search by additional Sql clause with specified parameters
 				} else if (QueryBuilderHelper.SEARCH_SQL.equals(condition)) {
 					if (filterValue.getClass().isArray()) {
@@ -1465,6 +1918,20 @@ public class NativePersistenceService extends BaseService {
 		return queryBuilder;
 	}
 
+	/**
+	 * Add a case-sensitive like criterion whose pattern starts with a wildcard. The
+	 * lower() predicate can use the trigram index of searchable fields, the plain
+	 * one keeps the match case-sensitive.
+	 *
+	 * @param queryBuilder Query builder to add the criterion to
+	 * @param field        Field name
+	 * @param pattern      Like pattern
+	 */
+	private void addContainsCriterion(QueryBuilder queryBuilder, String field, String pattern) {
+		String paramName = queryBuilder.convertFieldToParam(field);
+		queryBuilder.addSqlCriterion("(lower(" + field + ") like lower(:" + paramName + ") and " + field + " like :" + paramName + ")", paramName, pattern);
+	}
+
 	/**
 	 * Retrieve values from a table
 	 *
@@ -1487,10 +1954,17 @@ public class NativePersistenceService extends BaseService {
 	 * @return A list of map of values for each record
 	 */
 	public List<Map<String, Object>> list(String sqlConnectionCode, String tableName, PaginationConfiguration config) {
-		QueryBuilder queryBuilder = getQuery(tableName, config);
-		
 		Session session = sqlStorageImpl.getHibernateSession(sqlConnectionCode);
 
+		if (config != null && config.isRandomize()) {
+			List<Map<String, Object>> sample = listRandomSample(session, tableName, config);
+			if (sample != null) {
+				return sample;
+			}
+		}
+
+		QueryBuilder queryBuilder = getQuery(tableName, config);
+
 		NativeQuery<Map<String, Object>> query = queryBuilder.getNativeQuery(session, true);
 		try {
 			return query.list();
@@ -1503,6 +1977,66 @@ public class NativePersistenceService extends BaseService {
 		}
 	}
 	
+	/**
+	 * Draw random records from a large table with a PostgreSQL TABLESAMPLE
+	 * instead of sorting the whole table with ORDER BY RANDOM(). The sample is
+	 * sized from the planner's row estimate to hold a few times the requested
+	 * number of rows, and is then shuffled. Sampling method is configured with
+	 * the nativePersistence.randomSampling property : SYSTEM (default),
+	 * BERNOULLI or NONE.
+	 *
+	 * @param session   Session to the database of the table
+	 * @param tableName A name of a table to query
+	 * @param config    Data filtering, sorting and pagination criteria
+	 * @return The random records, or null if the query is filtered, paged or
+	 *         not limited, if the table is small, or if the sample did not
+	 *         contain enough records
+	 */
+	@SuppressWarnings("unchecked")
+	private List<Map<String, Object>> listRandomSample(Session session, String tableName, PaginationConfiguration config) {
+		String method = paramBean.getProperty("nativePersistence.randomSampling", "SYSTEM").toUpperCase();
+		if (!"SYSTEM".equals(method) && !"BERNOULLI".equals(method)) {
+			return null;
+		}
+
+		// Filters apply after sampling, so a filtered sample may not contain enough records
+		Integer numberOfRows = config.getNumberOfRows();
+		boolean filtered = (config.getFilters() != null && !config.getFilters().isEmpty()) || !StringUtils.isBlank(config.getFullTextFilter());
+		if (numberOfRows == null || numberOfRows <= 0 || filtered || (config.getFirstRow() != null && config.getFirstRow() > 0)) {
+			return null;
+		}
+
+		Double estimatedRows = session.doReturningWork(connection -> {
+			if (!connection.isWrapperFor(PGConnection.class)) {
+				return null;
+			}
+			try (PreparedStatement ps = connection.prepareStatement("select reltuples from pg_class where oid = to_regclass(?)")) {
+				ps.setString(1, PostgresReserverdKeywords.escapeAndFormat(tableName));
+				try (ResultSet resultSet = ps.executeQuery()) {
+					return resultSet.next() ? resultSet.getDouble(1) : null;
+				}
+			}
+		});
+
+		if (estimatedRows == null || estimatedRows <= 0) {
+			return null;
+		}
+
+		double percentage = numberOfRows * RANDOM_SAMPLE_OVERSIZE * 100d / estimatedRows;
+		if (percentage >= 100) {
+			return null;
+		}
+
+		QueryBuilder queryBuilder = getQuery(tableName, config, "TABLESAMPLE " + method + " (" + String.format(Locale.ROOT, "%.6f", percentage) + ") ");
+		List<Map<String, Object>> records = queryBuilder.getNativeQuery(session, true).list();
+		if (records.size() < numberOfRows) {
+			log.debug("Random sample of {} returned {} records out of {}, falling back to a full random sort", tableName, records.size(), numberOfRows);
+			return null;
+		}
+
+		return records;
+	}
+
 	/**
 	 * Load and return the list of the records IN A Object[] format from database
 	 * according to sorting and paging information in
@@ -1549,6 +2083,35 @@ public class NativePersistenceService extends BaseService {
 		}
 	}
 
+	/**
+	 * Estimate the number of records of a table from the statistics of the query planner, without scanning the table
+	 * 
+	 * @param sqlConnectionCode Datasource to query
+	 * @param tableName         Table name
+	 * @return The estimated number of records, or null if not available, like on other databases than PostgreSQL or for a table
+	 *         that was never analyzed
+	 */
+	public Long estimateCount(String sqlConnectionCode, String tableName) {
+		String escapedTableName = PostgresReserverdKeywords.escapeAndFormat(tableName);
+		Session session = sqlStorageImpl.getHibernateSession(sqlConnectionCode);
+
+		return session.doReturningWork(connection -> {
+			if (!"PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())) {
+				return null;
+			}
+
+			try (PreparedStatement statement = connection.prepareStatement("SELECT reltuples FROM pg_class WHERE oid = to_regclass(?)")) {
+				statement.setString(1, escapedTableName);
+				try (ResultSet resultSet = statement.executeQuery()) {
+					if (resultSet.next() && resultSet.getDouble(1) > 0) {
+						return (long) resultSet.getDouble(1);
+					}
+				}
+			}
+			return null;
+		});
+	}
+
 	/**
 	 * Convert value of unknown data type to a target data type. A value of type
 	 * list is considered as already converted value, as would come only from WS.
@@ -111,6 +111,9 @@ public abstract class PersistenceService<E extends IEntity> extends BaseService
 	@Inject
 	private Conversation conversation;
 
+	@Inject
+	private RowCountCache rowCountCache;
+
 	@Inject
 	@Created
 	protected Event<BaseEntity> entityCreatedEventProducer;
@@ -362,6 +365,7 @@ public abstract class PersistenceService<E extends IEntity> extends BaseService
 			}
 			
 			getEntityManager().remove(entity);
+			rowCountCache.invalidate(entity.getClass());
 			
 			if (entity instanceof BusinessEntity) {
 				BusinessService businessService = (BusinessService) this;
@@ -416,6 +420,7 @@ public abstract class PersistenceService<E extends IEntity> extends BaseService
 		Query query = getEntityManager().createQuery("delete from " + getEntityClass().getName() + " where id in (:ids)");
 		query.setParameter("ids", ids);
 		query.executeUpdate();
+		rowCountCache.invalidate(getEntityClass());
 	}
 
 	private void preUpdate(E entity) throws BusinessException {
@@ -425,6 +430,7 @@ public abstract class PersistenceService<E extends IEntity> extends BaseService
 	private void preUpdate(E entity, boolean asynchEvent) throws BusinessException {
 
 		beforeUpdateOrCreate(entity);
+		rowCountCache.invalidate(entity.getClass());
 
 		if (entity instanceof IAuditable) {
 			((IAuditable) entity).updateAudit(currentUser);
@@ -522,6 +528,7 @@ public abstract class PersistenceService<E extends IEntity> extends BaseService
 		}
 
 		getEntityManager().persist(entity);
+		rowCountCache.invalidate(entity.getClass());
 
 		if (entity instanceof BaseEntity && entity.getClass().isAnnotationPresent(ObservableEntity.class)) {
 			entityCreatedAfterTxEventProducer.fire((BaseEntity) entity);
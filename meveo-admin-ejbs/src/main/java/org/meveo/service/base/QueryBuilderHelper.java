@@ -69,6 +69,12 @@ public class QueryBuilderHelper {
     */
    public static String SEARCH_WILDCARD_OR_IGNORE_CAS = "wildcardOrIgnoreCase";
 
+   /**
+    * Entity list search parameter criteria - field value equals the value,
+    * ignoring case
+    */
+   public static String SEARCH_EQUAL_IGNORE_CASE = "eqIgnoreCase";
+
    @SuppressWarnings({ "rawtypes", "unchecked" })
    public static QueryBuilder getQuery(PaginationConfiguration config, Class<?> entityClass) {		
 
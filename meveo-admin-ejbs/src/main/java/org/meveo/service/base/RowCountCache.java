@@ -0,0 +1,172 @@
+package org.meveo.service.base;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.persistence.Entity;
+
+import org.meveo.commons.utils.ParamBean;
+import org.meveo.model.sql.SqlConfiguration;
+import org.meveo.security.CurrentUser;
+import org.meveo.security.MeveoUser;
+import org.meveo.service.custom.PostgresReserverdKeywords;
+
+/**
+ * Row counts of the list views, by data source and filter signature, so that paging and sorting do not count the rows again.
+ * Counts of a data source are invalidated when the data source is written to through the services, and expire after a TTL to
+ * account for the writes made outside of them. Counts are kept per provider.
+ * <p>
+ * Configured with the properties :
+ * <ul>
+ * <li>rowCount.cache.ttl : time to live of a count in seconds, 0 to disable the cache. Default 60.</li>
+ * <li>rowCount.cache.maxEntries : maximum number of counts kept per data source. Default 100.</li>
+ * <li>rowCount.estimateThreshold : unfiltered tables with more estimated rows are not counted exactly, but only on demand.
+ * Default 1000000.</li>
+ * </ul>
+ */
+@ApplicationScoped
+public class RowCountCache {
+
+	@Inject
+	@CurrentUser
+	private MeveoUser currentUser;
+
+	private final Map<String, Map<String, CachedCount>> counts = new ConcurrentHashMap<>();
+
+	private long ttl;
+
+	private int maxEntries;
+
+	private long estimateThreshold;
+
+	@PostConstruct
+	private void init() {
+		ParamBean paramBean = ParamBean.getInstance();
+		ttl = TimeUnit.SECONDS.toMillis(Long.parseLong(paramBean.getProperty("rowCount.cache.ttl", "60")));
+		maxEntries = Integer.parseInt(paramBean.getProperty("rowCount.cache.maxEntries", "100"));
+		estimateThreshold = Long.parseLong(paramBean.getProperty("rowCount.estimateThreshold", "1000000"));
+	}
+
+	/**
+	 * Get a row count from the cache, or count the rows and cache the result
+	 *
+	 * @param source    data source, see {@link #getEntitySource(Class)}, {@link #getTableSource(String, String)} and
+	 *                  {@link #getCetSource(String)}
+	 * @param signature signature of the filters, see {@link #getSignature(Map)}
+	 * @param counter   counts the rows
+	 * @return the row count
+	 */
+	public long count(String source, String signature, LongSupplier counter) {
+		if (ttl <= 0) {
+			return counter.getAsLong();
+		}
+
+		Map<String, CachedCount> sourceCounts = counts.computeIfAbsent(getKey(source), key -> new ConcurrentHashMap<>());
+		CachedCount cachedCount = sourceCounts.get(signature);
+		long now = System.currentTimeMillis();
+		if (cachedCount != null && cachedCount.expiresAt > now) {
+			return cachedCount.count;
+		}
+
+		long count = counter.getAsLong();
+		if (sourceCounts.size() >= maxEntries) {
+			sourceCounts.clear();
+		}
+		sourceCounts.put(signature, new CachedCount(count, now + ttl));
+		return count;
+	}
+
+	/**
+	 * Remove the cached row counts of a data source
+	 *
+	 * @param source data source
+	 */
+	public void invalidate(String source) {
+		counts.remove(getKey(source));
+	}
+
+	/**
+	 * Remove the cached row counts of an entity class and of its parent entity classes, as their lists include it
+	 *
+	 * @param entityClass entity class, or a proxy of it
+	 */
+	public void invalidate(Class<?> entityClass) {
+		for (Class<?> clazz = entityClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+			if (clazz.isAnnotationPresent(Entity.class)) {
+				invalidate(getEntitySource(clazz));
+			}
+		}
+	}
+
+	/**
+	 * @return minimum number of estimated rows of an unfiltered table for the estimate to be used instead of an exact count
+	 */
+	public long getEstimateThreshold() {
+		return estimateThreshold;
+	}
+
+	private String getKey(String source) {
+		return currentUser.getProviderCode() + "|" + source;
+	}
+
+	/**
+	 * @param entityClass entity class
+	 * @return the data source of the lists of an entity
+	 */
+	public static String getEntitySource(Class<?> entityClass) {
+		return "entity|" + entityClass.getName();
+	}
+
+	/**
+	 * @param sqlConnectionCode code of the SQL configuration, null for the default one
+	 * @param tableName         table name
+	 * @return the data source of the lists of a native table
+	 */
+	public static String getTableSource(String sqlConnectionCode, String tableName) {
+		return "table|" + (sqlConnectionCode == null ? SqlConfiguration.DEFAULT_SQL_CONNECTION : sqlConnectionCode) + "|"
+				+ (tableName == null ? null : PostgresReserverdKeywords.escapeAndFormat(tableName).toLowerCase());
+	}
+
+	/**
+	 * @param cetCode code of the custom entity template
+	 * @return the data source of the lists of a custom entity template across the storages
+	 */
+	public static String getCetSource(String cetCode) {
+		return "cet|" + cetCode;
+	}
+
+	/**
+	 * @param filters search criteria
+	 * @return a signature of the search criteria, independent of their order
+	 */
+	public static String getSignature(Map<String, Object> filters) {
+		if (filters == null || filters.isEmpty()) {
+			return "";
+		}
+
+		StringBuilder signature = new StringBuilder();
+		new TreeMap<>(filters).forEach((key, value) -> {
+			signature.append(key).append('=').append(value instanceof Object[] ? Arrays.deepToString((Object[]) value) : value).append('&');
+		});
+		return signature.toString();
+	}
+
+	private static class CachedCount {
+
+		private final long count;
+
+		private final long expiresAt;
+
+		private CachedCount(long count, long expiresAt) {
+			this.count = count;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
@@ -23,6 +23,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
@@ -58,6 +59,11 @@ public class CounterInstanceService extends PersistenceService<CounterInstance>
     @Inject
     private CounterPeriodService counterPeriodService;
 
+    /**
+     * Last counter period found for each counter instance, by counter instance id. Saves the period lookup on each deduction as long as the date falls in that period.
+     */
+    private static final Map<Long, CachedCounterPeriod> currentCounterPeriods = new ConcurrentHashMap<>();
+
     public CounterInstance counterInstanciation(CounterTemplate counterTemplate, boolean isVirtual) throws BusinessException {
         CounterInstance result = null;
 
@@ -117,7 +123,7 @@ public class CounterInstanceService extends PersistenceService<CounterInstance>
      * @param counterInstance Counter instance
      * @param chargeDate Charge date - to match the period validity dates
      * @param initDate Initial date, used for period start/end date calculation
-     * @return CounterPeriod instance
+     * @return CounterPeriod instance, null if the charge date does not match the counter calendar
      * @throws BusinessException Business exception
      */
     // we must make sure the counter period is persisted in db before storing it in cache
@@ -127,6 +133,9 @@ public class CounterInstanceService extends PersistenceService<CounterInstance>
         CounterTemplate counterTemplate = counterInstance.getCounterTemplate();
 
         CounterPeriod counterPeriod = instantiateCounterPeriod(counterTemplate, chargeDate, initDate);
+        if (counterPeriod == null) {
+            return null;
+        }
         counterPeriod.setCounterInstance(counterInstance);
         counterPeriodService.create(counterPeriod);
 
@@ -229,7 +238,8 @@ public class CounterInstanceService extends PersistenceService<CounterInstance>
     // }
 
     /**
-     * Deduce a given value from a counter. Will instantiate a counter period if one was not created yet matching the given date
+     * Deduce a given value from a counter. Will instantiate a counter period if one was not created yet matching the given date. The value is deduced with a single
+     * conditional update, so concurrent deductions are never lost and the counter never goes below zero.
      * 
      * @param counterInstance Counter instance
      * @param date Date of event
@@ -241,18 +251,69 @@ public class CounterInstanceService extends PersistenceService<CounterInstance>
      */
     public BigDecimal deduceCounterValue(CounterInstance counterInstance, Date date, Date initDate, BigDecimal value) throws CounterValueInsufficientException, BusinessException, ELException {
 
-        CounterPeriod counterPeriod = getOrCreateCounterPeriod(counterInstance, date, initDate);
+        CachedCounterPeriod cachedPeriod = currentCounterPeriods.get(counterInstance.getId());
+        if (cachedPeriod != null && cachedPeriod.contains(date)) {
+            BigDecimal newValue = deduceCounterPeriodValue(cachedPeriod.id, value);
+            if (newValue != null) {
+                return newValue;
+            }
+            // Either the value is insufficient or the period was removed meanwhile, look it up again
+            currentCounterPeriods.remove(counterInstance.getId(), cachedPeriod);
+        }
 
-        if (counterPeriod == null || counterPeriod.getValue().compareTo(value) < 0) {
+        Long counterPeriodId = getCounterPeriodId(counterInstance, date, initDate);
+        BigDecimal newValue = counterPeriodId != null ? deduceCounterPeriodValue(counterPeriodId, value) : null;
+        if (newValue == null) {
             throw new CounterValueInsufficientException();
+        }
+        return newValue;
+    }
 
-        } else {
-            counterPeriod.setValue(counterPeriod.getValue().subtract(value));
-            counterPeriod.updateAudit(currentUser);
-            return counterPeriod.getValue();
+    /**
+     * Find or create the counter period for a given date. Only periods found in database are cached, as a period created in the current transaction is not visible to
+     * the others until it is committed.
+     * 
+     * @return Counter period identifier, null if the date does not match the counter calendar
+     */
+    private Long getCounterPeriodId(CounterInstance counterInstance, Date date, Date initDate) throws BusinessException, ELException {
+        Query query = getEntityManager().createNamedQuery("CounterPeriod.findByPeriodDate");
+        query.setParameter("counterInstance", counterInstance);
+        query.setParameter("date", date, TemporalType.TIMESTAMP);
+
+        try {
+            CounterPeriod counterPeriod = (CounterPeriod) query.getSingleResult();
+            currentCounterPeriods.put(counterInstance.getId(),
+                new CachedCounterPeriod(counterPeriod.getId(), counterPeriod.getPeriodStartDate(), counterPeriod.getPeriodEndDate()));
+            return counterPeriod.getId();
+
+        } catch (NoResultException e) {
+            CounterPeriod counterPeriod = createPeriod(counterInstance, date, initDate);
+            return counterPeriod != null ? counterPeriod.getId() : null;
         }
     }
 
+    /**
+     * Deduce a value from a counter period if its current value is sufficient
+     * 
+     * @param counterPeriodId Counter period identifier
+     * @param value Value to deduce
+     * @return The new value, or null if the value is insufficient or the period does not exist
+     */
+    private BigDecimal deduceCounterPeriodValue(Long counterPeriodId, BigDecimal value) {
+        int updated = getEntityManager().createNamedQuery("CounterPeriod.deduceValue")
+            .setParameter("id", counterPeriodId)
+            .setParameter("value", value)
+            .setParameter("updated", new Date())
+            .setParameter("updater", currentUser != null ? currentUser.getUserName() : null)
+            .executeUpdate();
+
+        if (updated == 0) {
+            return null;
+        }
+
+        return (BigDecimal) getEntityManager().createNamedQuery("CounterPeriod.getValue").setParameter("id", counterPeriodId).getSingleResult();
+    }
+
     /**
      * Decrease counter period by a given value. If given amount exceeds current value, only partial amount will be deduced. NOTE: counterPeriod passed to the method will become
      * stale if it happens to be updated in this method
@@ -362,6 +423,8 @@ public class CounterInstanceService extends PersistenceService<CounterInstance>
             itemsDeleted++;
         }
 
+        currentCounterPeriods.clear();
+
         log.info("Removed {} counter periods which end date is older then a {} date", itemsDeleted, date);
 
         return itemsDeleted;
@@ -405,4 +468,26 @@ public class CounterInstanceService extends PersistenceService<CounterInstance>
 	public Logger getLogger() {
 		return log;
 	}
-}
\ No newline at end of file
+
+    /**
+     * Identifier and dates of a counter period
+     */
+    private static class CachedCounterPeriod {
+
+        private final Long id;
+
+        private final Date periodStartDate;
+
+        private final Date periodEndDate;
+
+        private CachedCounterPeriod(Long id, Date periodStartDate, Date periodEndDate) {
+            this.id = id;
+            this.periodStartDate = periodStartDate;
+            this.periodEndDate = periodEndDate;
+        }
+
+        private boolean contains(Date date) {
+            return !periodStartDate.after(date) && periodEndDate.after(date);
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package org.meveo.service.communication.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.Lock;
+import javax.ejb.LockType;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.enterprise.concurrent.ManagedThreadFactory;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+
+import org.meveo.commons.utils.ParamBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded queue of outgoing emails, sent in the background by a small pool of workers. Each worker keeps its SMTP connection open
+ * and sends consecutive emails over it, instead of connecting and authenticating for every email. Emails that fail to be sent are
+ * retried with an exponential backoff.
+ * <p>
+ * Configured with the properties :
+ * <ul>
+ * <li>mail.queue.capacity : maximum number of queued emails, 0 to send emails synchronously. Default 1000.</li>
+ * <li>mail.queue.poolSize : number of workers, each with its own SMTP connection. Default 2.</li>
+ * <li>mail.queue.batchSize : maximum number of emails sent over one SMTP connection before reconnecting. Default 100.</li>
+ * <li>mail.queue.idleTimeout : delay in milliseconds after which an unused SMTP connection is closed. Default 30000.</li>
+ * <li>mail.queue.maxRetries : number of retries of an email that failed to be sent. Default 3.</li>
+ * <li>mail.queue.retryBackoff : delay before the first retry in milliseconds, doubled on each retry. Default 1000.</li>
+ * </ul>
+ */
+@Singleton
+@Startup
+@Lock(LockType.READ)
+public class EmailQueue {
+
+	private static final Logger log = LoggerFactory.getLogger(EmailQueue.class);
+
+	@Resource
+	private ManagedThreadFactory threadFactory;
+
+	@Resource
+	private ManagedExecutorService executor;
+
+	private BlockingQueue<QueuedEmail> queue;
+
+	/**
+	 * Runs the delayed retries, so that the results of emails failing on retry are completed on a managed thread
+	 */
+	private Executor retryExecutor;
+
+	private int poolSize;
+
+	private int batchSize;
+
+	private long idleTimeout;
+
+	private int maxRetries;
+
+	private long retryBackoff;
+
+	private volatile boolean running;
+
+	private final List<Thread> workers = new ArrayList<>();
+
+	private final AtomicLong sentEmails = new AtomicLong();
+
+	private final AtomicLong failedEmails = new AtomicLong();
+
+	private final AtomicLong rejectedEmails = new AtomicLong();
+
+	private final AtomicLong retries = new AtomicLong();
+
+	private final AtomicLong connections = new AtomicLong();
+
+	public EmailQueue() {
+
+	}
+
+	/**
+	 * Constructor used outside of the container
+	 *
+	 * @param threadFactory factory of the workers
+	 * @param retryExecutor executor running the delayed retries
+	 * @param capacity      maximum number of queued emails
+	 * @param poolSize      number of workers
+	 * @param batchSize     maximum number of emails sent over one connection
+	 * @param idleTimeout   delay in milliseconds after which an unused connection is closed
+	 * @param maxRetries    number of retries
+	 * @param retryBackoff  delay before the first retry in milliseconds
+	 */
+	EmailQueue(ThreadFactory threadFactory, Executor retryExecutor, int capacity, int poolSize, int batchSize, long idleTimeout, int maxRetries, long retryBackoff) {
+		start(threadFactory, retryExecutor, capacity, poolSize, batchSize, idleTimeout, maxRetries, retryBackoff);
+	}
+
+	@PostConstruct
+	private void init() {
+		ParamBean paramBean = ParamBean.getInstance();
+		start(threadFactory, executor,
+				Integer.parseInt(paramBean.getProperty("mail.queue.capacity", "1000")),
+				Integer.parseInt(paramBean.getProperty("mail.queue.poolSize", "2")),
+				Integer.parseInt(paramBean.getProperty("mail.queue.batchSize", "100")),
+				Long.parseLong(paramBean.getProperty("mail.queue.idleTimeout", "30000")),
+				Integer.parseInt(paramBean.getProperty("mail.queue.maxRetries", "3")),
+				Long.parseLong(paramBean.getProperty("mail.queue.retryBackoff", "1000")));
+	}
+
+	private void start(ThreadFactory threadFactory, Executor retryExecutor, int capacity, int poolSize, int batchSize, long idleTimeout, int maxRetries, long retryBackoff) {
+		this.retryExecutor = retryExecutor;
+		this.poolSize = Math.max(1, poolSize);
+		this.batchSize = Math.max(1, batchSize);
+		this.idleTimeout = idleTimeout;
+		this.maxRetries = Math.max(0, maxRetries);
+		this.retryBackoff = retryBackoff;
+
+		if (capacity <= 0) {
+			log.info("Emails are sent synchronously");
+			return;
+		}
+
+		queue = new ArrayBlockingQueue<>(capacity);
+		running = true;
+		for (int i = 0; i < this.poolSize; i++) {
+			Thread worker = threadFactory.newThread(this::work);
+			worker.setName("meveo-mail-worker-" + i);
+			worker.start();
+			workers.add(worker);
+		}
+
+		log.info("Emails are queued, capacity {}, {} workers, batch size {}", capacity, this.poolSize, this.batchSize);
+	}
+
+	/**
+	 * Stop the workers once the queued emails are sent
+	 */
+	@PreDestroy
+	void shutdown() {
+		if (!running) {
+			return;
+		}
+
+		running = false;
+		for (Thread worker : workers) {
+			try {
+				worker.join(TimeUnit.SECONDS.toMillis(30));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		QueuedEmail email;
+		while ((email = queue.poll()) != null) {
+			fail(email, new RejectedExecutionException("Email was not sent before shutdown"));
+		}
+	}
+
+	/**
+	 * @return true if emails are queued, false if they must be sent synchronously
+	 */
+	public boolean isActive() {
+		return running;
+	}
+
+	/**
+	 * Queue an email
+	 *
+	 * @param session mail session the email was created with, providing the SMTP server
+	 * @param message email to send
+	 * @return completes once the email is sent, or fails with the last error. Fails with a {@link RejectedExecutionException} if
+	 *         the queue is full.
+	 */
+	public CompletableFuture<Void> offer(Session session, MimeMessage message) {
+		QueuedEmail email = new QueuedEmail(session, message);
+		if (!queue.offer(email)) {
+			rejectedEmails.incrementAndGet();
+			log.warn("Email queue is full, email '{}' is rejected", getSubject(message));
+			email.result.completeExceptionally(new RejectedExecutionException("Email queue is full"));
+		}
+		return email.result;
+	}
+
+	/**
+	 * Worker loop : send the queued emails over a connection that is kept open while there are emails to send
+	 */
+	private void work() {
+		Session transportSession = null;
+		Transport transport = null;
+		int sentOnConnection = 0;
+		long lastUse = System.currentTimeMillis();
+
+		while (running || !queue.isEmpty()) {
+			QueuedEmail email;
+			try {
+				email = queue.poll(1, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+
+			if (email == null) {
+				if (transport != null && System.currentTimeMillis() - lastUse > idleTimeout) {
+					close(transport);
+					transport = null;
+				}
+				continue;
+			}
+
+			try {
+				// Reconnect when the mail configuration changed, the server dropped the connection or the batch is complete
+				if (transport == null || email.session != transportSession || !transport.isConnected() || sentOnConnection >= batchSize) {
+					close(transport);
+					transportSession = email.session;
+					transport = transportSession.getTransport("smtp");
+					transport.connect();
+					connections.incrementAndGet();
+					sentOnConnection = 0;
+				}
+
+				email.message.saveChanges();
+				transport.sendMessage(email.message, email.message.getAllRecipients());
+				sentOnConnection++;
+				sentEmails.incrementAndGet();
+				email.result.complete(null);
+
+			} catch (SendFailedException e) {
+				// Invalid addresses will not become valid with a retry
+				if (e.getInvalidAddresses() != null && e.getInvalidAddresses().length > 0) {
+					fail(email, e);
+				} else {
+					close(transport);
+					transport = null;
+					retry(email, e);
+				}
+
+			} catch (MessagingException | RuntimeException e) {
+				close(transport);
+				transport = null;
+				retry(email, e);
+			}
+
+			lastUse = System.currentTimeMillis();
+		}
+
+		close(transport);
+	}
+
+	private void retry(QueuedEmail email, Exception error) {
+		if (email.attempts >= maxRetries || !running) {
+			fail(email, error);
+			return;
+		}
+
+		long delay = retryBackoff << email.attempts;
+		email.attempts++;
+		retries.incrementAndGet();
+		log.debug("Retrying email '{}' in {} ms : {}", getSubject(email.message), delay, error.getMessage());
+
+		CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, retryExecutor).execute(() -> {
+			if (!running || !queue.offer(email)) {
+				fail(email, error);
+			}
+		});
+	}
+
+	private void fail(QueuedEmail email, Exception error) {
+		failedEmails.incrementAndGet();
+		log.error("Failed to send email '{}'", getSubject(email.message), error);
+		email.result.completeExceptionally(error);
+	}
+
+	private static void close(Transport transport) {
+		if (transport == null) {
+			return;
+		}
+		try {
+			transport.close();
+		} catch (MessagingException e) {
+			log.debug("Failed to close SMTP connection", e);
+		}
+	}
+
+	private static String getSubject(MimeMessage message) {
+		try {
+			return message.getSubject();
+		} catch (MessagingException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return number of emails currently in the queue
+	 */
+	public int getQueueSize() {
+		return queue != null ? queue.size() : 0;
+	}
+
+	/**
+	 * @return number of emails sent since startup
+	 */
+	public long getSentEmails() {
+		return sentEmails.get();
+	}
+
+	/**
+	 * @return number of emails that could not be sent, after the retries, since startup
+	 */
+	public long getFailedEmails() {
+		return failedEmails.get();
+	}
+
+	/**
+	 * @return number of emails rejected because the queue was full since startup
+	 */
+	public long getRejectedEmails() {
+		return rejectedEmails.get();
+	}
+
+	/**
+	 * @return number of retries since startup
+	 */
+	public long getRetries() {
+		return retries.get();
+	}
+
+	/**
+	 * @return number of SMTP connections opened since startup
+	 */
+	public long getConnections() {
+		return connections.get();
+	}
+
+	private static class QueuedEmail {
+
+		private final Session session;
+
+		private final MimeMessage message;
+
+		private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+		private int attempts;
+
+		private QueuedEmail(Session session, MimeMessage message) {
+			this.session = session;
+			this.message = message;
+		}
+	}
+}
@@ -1,10 +1,12 @@
 package org.meveo.service.communication.impl;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import javax.activation.DataHandler;
 import javax.activation.DataSource;
@@ -22,6 +24,7 @@ import javax.mail.internet.MimeBodyPart;
 import javax.mail.internet.MimeMessage;
 import javax.mail.internet.MimeMessage.RecipientType;
 import javax.mail.internet.MimeMultipart;
+import javax.mail.util.ByteArrayDataSource;
 
 import org.meveo.admin.exception.BusinessException;
 import org.meveo.api.exception.MissingParameterException;
@@ -36,6 +39,9 @@ public class EmailSender {
     @Inject
     private MailerSessionFactory mailerSessionFactory;
 
+    @Inject
+    private EmailQueue emailQueue;
+
     @PostConstruct
     public void init() {
         mailSession = mailerSessionFactory.getSession();
@@ -131,7 +137,7 @@ public class EmailSender {
     }
 
     /**
-     * Send an email message.
+     * Send an email message. The message is queued and sent in the background, unless the email queue is disabled.
      * 
      * @param from Sender's email address
      * @param replyTo Reply to email addresses
@@ -143,11 +149,37 @@ public class EmailSender {
      * @param htmlContent HTML type contents
      * @param attachments Email attachments
      * @param sendDate Sending date
-     * @throws org.meveo.admin.exception.BusinessException business exception.
+     * @throws org.meveo.admin.exception.BusinessException business exception, or if the email queue is full.
      */
     public void send(String from, List<String> replyTo, List<String> to, List<String> cc, List<String> bcc, String subject, String textContent, String htmlContent,
             List<File> attachments, Date sendDate) throws BusinessException {
 
+        CompletableFuture<Void> result = sendAsync(from, replyTo, to, cc, bcc, subject, textContent, htmlContent, attachments, sendDate);
+        // The email is only failed right away when the queue is full, sending errors are reported by the queue
+        if (result.isCompletedExceptionally()) {
+            throw new BusinessException("Email queue is full");
+        }
+    }
+
+    /**
+     * Send an email message in the background.
+     * 
+     * @param from Sender's email address
+     * @param replyTo Reply to email addresses
+     * @param to Recipient's email addresses
+     * @param cc CC recipient's email addresses
+     * @param bcc BCC recipient's email addresses
+     * @param subject Email subject
+     * @param textContent Plain text contents
+     * @param htmlContent HTML type contents
+     * @param attachments Email attachments
+     * @param sendDate Sending date
+     * @return completes once the email is sent, or fails with the sending error. Already completed if the email queue is disabled.
+     * @throws org.meveo.admin.exception.BusinessException business exception.
+     */
+    public CompletableFuture<Void> sendAsync(String from, List<String> replyTo, List<String> to, List<String> cc, List<String> bcc, String subject, String textContent,
+            String htmlContent, List<File> attachments, Date sendDate) throws BusinessException {
+
         try {
             if (to == null || to.isEmpty()) {
                 throw new MissingParameterException(Arrays.asList("addressTo"));
@@ -192,6 +224,8 @@ public class EmailSender {
                 messageBodyPart.setContent(textContent, "text/plain; charset=UTF-8");
             }
 
+            boolean queued = emailQueue.isActive();
+
             Multipart multipart = new MimeMultipart();
             multipart.addBodyPart(messageBodyPart);
             if (attachments != null && !attachments.isEmpty()) {
@@ -200,6 +234,10 @@ public class EmailSender {
                     if (file != null) {
                         mimeBodyPart = new MimeBodyPart();
                         DataSource source = new FileDataSource(file);
+                        if (queued) {
+                            // Attachments are read now, the files may not exist any more when the email is sent
+                            source = new ByteArrayDataSource(Files.readAllBytes(file.toPath()), source.getContentType());
+                        }
                         mimeBodyPart.setDataHandler(new DataHandler(source));
                         mimeBodyPart.setFileName(file.getName());
                         multipart.addBodyPart(mimeBodyPart);
@@ -208,7 +246,14 @@ public class EmailSender {
 
             }
             msg.setContent(multipart);
+
+            if (queued) {
+                return emailQueue.offer(mailSession, msg);
+            }
+
             Transport.send(msg);
+            return CompletableFuture.completedFuture(null);
+
         } catch (Exception e) {
             throw new BusinessException(e);
         }
@@ -1,6 +1,9 @@
 package org.meveo.service.communication.impl;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.ws.rs.sse.OutboundSseEvent;
 import javax.ws.rs.sse.SseEventSink;
@@ -14,6 +17,16 @@ public class FilteringSink implements SseEventSink {
 	private String userName;
 	private String filterEL;
 
+	/**
+	 * Number of events dispatched to the sink and not sent yet
+	 */
+	private final AtomicInteger pendingEvents = new AtomicInteger();
+
+	/**
+	 * Completes when the last dispatched event is sent, the next event is sent after it
+	 */
+	private CompletableFuture<Void> lastSend = CompletableFuture.completedFuture(null);
+
 	FilteringSink(String callerIp, String userName, String filterEL, SseEventSink sink) {
 		this.callerIp = callerIp;
 		this.userName = userName;
@@ -34,6 +47,35 @@ public class FilteringSink implements SseEventSink {
 		return sink.send(outboundSseEvent);
 	}
 
+	/**
+	 * Send an event asynchronously, after the events previously dispatched to the sink
+	 * 
+	 * @param outboundSseEvent event to send
+	 * @param executor executor sending the event
+	 * @param maxPendingEvents maximum number of events waiting to be sent
+	 * @return false if the sink is lagging, with too many events waiting to be sent, and the event was not dispatched
+	 */
+	synchronized boolean dispatch(OutboundSseEvent outboundSseEvent, Executor executor, int maxPendingEvents) {
+		if (pendingEvents.incrementAndGet() > maxPendingEvents) {
+			pendingEvents.decrementAndGet();
+			return false;
+		}
+
+		lastSend = lastSend.thenComposeAsync(v -> sink.send(outboundSseEvent).thenApply(r -> (Void) null), executor)
+			.handle((r, e) -> {
+				pendingEvents.decrementAndGet();
+				return null;
+			});
+		return true;
+	}
+
+	/**
+	 * @return number of events dispatched to the sink and not sent yet
+	 */
+	public int getPendingEvents() {
+		return pendingEvents.get();
+	}
+
 	String getKey() {
 		return callerIp + "_" + userName + "_" + filterEL;
 	}
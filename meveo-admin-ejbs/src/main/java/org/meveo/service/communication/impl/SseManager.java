@@ -2,11 +2,16 @@ package org.meveo.service.communication.impl;
 
 import java.io.IOException;
 import java.security.Principal;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
 import javax.ejb.Singleton;
+import javax.enterprise.concurrent.ManagedExecutorService;
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.GET;
@@ -22,6 +27,7 @@ import javax.ws.rs.sse.OutboundSseEvent;
 import javax.ws.rs.sse.Sse;
 import javax.ws.rs.sse.SseEventSink;
 
+import org.meveo.commons.utils.ParamBean;
 import org.meveo.model.notification.WebNotification;
 import org.meveo.service.base.MeveoValueExpressionWrapper;
 import org.meveo.service.notification.WebNotificationService;
@@ -30,7 +36,12 @@ import org.slf4j.LoggerFactory;
 
 /**
  * This class allow web client to subscribe to WebNotifications and publish
- * messages
+ * messages.
+ * <p>
+ * Subscribers are grouped by filter expression, so each distinct filter is
+ * evaluated once per message. Messages are sent asynchronously, in order for
+ * each subscriber, and subscribers with more than sse.maxPendingEvents
+ * (default 100) messages waiting to be sent are disconnected.
  */
 @Path("/ssenotif")
 @Singleton
@@ -44,7 +55,20 @@ public class SseManager {
 	@Context
 	private Sse sse;
 
-	private Map<String, Map<String, FilteringSink>> notifFilteringSinks = new ConcurrentHashMap<>();
+	@Resource
+	private ManagedExecutorService executor;
+
+	/**
+	 * Sinks by web notification code, then by filter expression, then by sink key
+	 */
+	private Map<String, Map<String, Map<String, FilteringSink>>> notifFilteringSinks = new ConcurrentHashMap<>();
+
+	private int maxPendingEvents;
+
+	@PostConstruct
+	private void init() {
+		maxPendingEvents = Integer.parseInt(ParamBean.getInstance().getProperty("sse.maxPendingEvents", "100"));
+	}
 
 	@GET
 	@Path("/register/{notif}")
@@ -75,23 +99,23 @@ public class SseManager {
 			throw new IllegalStateException("web notification not active.");
 		}
 
-		Map<String, FilteringSink> filteringSinks = notifFilteringSinks.get(webNotification.getCode());
-		if (filteringSinks == null) {
-			filteringSinks = new HashMap<>();
-			notifFilteringSinks.put(webNotification.getCode(), filteringSinks);
-		}
 		FilteringSink filteringSink = new FilteringSink(callerIp, userName, filterEL, sink);
-		FilteringSink oldFilteringSink = filteringSinks.get(filteringSink.getKey());
-		if (oldFilteringSink == null) {
-			filteringSinks.put(filteringSink.getKey(), filteringSink);
-			log.debug("notif={} with key={} has been successfully registered", notif, filteringSink.getKey());
+		Map<String, Map<String, FilteringSink>> sinksByFilter = notifFilteringSinks.computeIfAbsent(webNotification.getCode(), k -> new ConcurrentHashMap<>());
+		sinksByFilter.compute(getFilterKey(filterEL), (filter, filteringSinks) -> {
+			if (filteringSinks == null) {
+				filteringSinks = new ConcurrentHashMap<>();
+			}
+			FilteringSink oldFilteringSink = filteringSinks.get(filteringSink.getKey());
+			if (oldFilteringSink == null) {
+				filteringSinks.put(filteringSink.getKey(), filteringSink);
+				log.debug("notif={} with key={} has been successfully registered", notif, filteringSink.getKey());
 
-		} else {
-			if (oldFilteringSink.isClosed()) {
+			} else if (oldFilteringSink.isClosed()) {
 				filteringSinks.put(filteringSink.getKey(), filteringSink);
 				log.debug("notif={} with key={} has been successfully re-registered", notif, filteringSink.getKey());
 			}
-		}
+			return filteringSinks;
+		});
 
 //		OutboundSseEvent.Builder eventBuilder = sse.newEventBuilder().name("create").data("hello world");
 //		eventBuilder.id("1");
@@ -148,89 +172,92 @@ public class SseManager {
 	 */
 	public void sendMessage(String id, String name, String comment, String data, Map<Object, Object> context) {
 
-		Map<String, FilteringSink> filteringSinks = notifFilteringSinks.get(name);
-		if (filteringSinks == null) {
+		Map<String, Map<String, FilteringSink>> sinksByFilter = notifFilteringSinks.get(name);
+		if (sinksByFilter == null) {
 			log.debug("cannot send message to " + name + " as no one subscribed to it");
 			return;
 		}
 
-		Map<String, FilteringSink> closedSinks = new HashMap<>();
-		Map<String, FilteringSink> listeningSinks = new HashMap<>();
-		for (Map.Entry<String, FilteringSink> entry : filteringSinks.entrySet()) {
-			FilteringSink filteringSink = entry.getValue();
-			if (filteringSink.isClosed()) {
-				closedSinks.put(entry.getKey(), filteringSink);
+		// Each distinct filter is evaluated once, for all the sinks sharing it
+		List<String> listeningFilters = new ArrayList<>();
+		for (String filterEL : sinksByFilter.keySet()) {
+			if (filterEL.isEmpty()) {
+				listeningFilters.add(filterEL);
 
 			} else {
-				if (filteringSink.getfilterEL() == null || filteringSink.getfilterEL().isEmpty()) {
-					listeningSinks.put(entry.getKey(), filteringSink);
-
-				} else {
-					try {
-						Object res = MeveoValueExpressionWrapper.evaluateExpression(filteringSink.getfilterEL(),
-								context, Boolean.class);
-						boolean result = (Boolean) res;
-						if (result) {
-							listeningSinks.put(entry.getKey(), filteringSink);
-						}
-
-					} catch (Exception e) {
-						throw new IllegalStateException(
-								"Expression " + filteringSink.getfilterEL() + " do not evaluate to boolean");
+				try {
+					Object res = MeveoValueExpressionWrapper.evaluateExpression(filterEL, context, Boolean.class);
+					boolean result = (Boolean) res;
+					if (result) {
+						listeningFilters.add(filterEL);
 					}
+
+				} catch (Exception e) {
+					throw new IllegalStateException("Expression " + filterEL + " do not evaluate to boolean");
 				}
 			}
 		}
 
-		if (listeningSinks.size() > 0) {
-			OutboundSseEvent.Builder eventBuilder = sse.newEventBuilder().name(name).data(data);
-			if (id != null) {
-				eventBuilder.id(id);
-			}
-			if (comment != null) {
-				eventBuilder.comment(comment);
-			}
-			OutboundSseEvent event = eventBuilder.reconnectDelay(10000).build();
-			for (Map.Entry<String, FilteringSink> entry : listeningSinks.entrySet()) {
-				FilteringSink filteringSink = entry.getValue();
-				if (!filteringSink.isClosed()) {
-					try {
-						filteringSink.send(event);
+		if (listeningFilters.isEmpty()) {
+			return;
+		}
 
-					} catch (Exception e) {
-						e.printStackTrace();
-						log.error(e.getMessage());
-					}
+		OutboundSseEvent.Builder eventBuilder = sse.newEventBuilder().name(name).data(data);
+		if (id != null) {
+			eventBuilder.id(id);
+		}
+		if (comment != null) {
+			eventBuilder.comment(comment);
+		}
+		OutboundSseEvent event = eventBuilder.reconnectDelay(10000).build();
 
-				} else {
-					closedSinks.put(entry.getKey(), filteringSink);
-				}
+		for (String filterEL : listeningFilters) {
+			Map<String, FilteringSink> filteringSinks = sinksByFilter.get(filterEL);
+			if (filteringSinks == null) {
+				continue;
 			}
-		}
+			for (FilteringSink filteringSink : filteringSinks.values()) {
+				if (filteringSink.isClosed()) {
+					evict(sinksByFilter, filterEL, filteringSink);
 
-		if (closedSinks.size() > 0) {
-			for (Map.Entry<String, FilteringSink> entry : closedSinks.entrySet()) {
-				entry.getValue().close();
-				filteringSinks.remove(entry.getKey());
+				} else if (!filteringSink.dispatch(event, executor, maxPendingEvents)) {
+					log.warn("Disconnecting sink {} from notif {}, {} messages are waiting to be sent", filteringSink.getKey(), name, filteringSink.getPendingEvents());
+					evict(sinksByFilter, filterEL, filteringSink);
+				}
 			}
 		}
 	}
 
+	/**
+	 * Remove a sink and close it without waiting
+	 */
+	private void evict(Map<String, Map<String, FilteringSink>> sinksByFilter, String filterEL, FilteringSink filteringSink) {
+		sinksByFilter.computeIfPresent(filterEL, (filter, filteringSinks) -> {
+			filteringSinks.remove(filteringSink.getKey(), filteringSink);
+			return filteringSinks.isEmpty() ? null : filteringSinks;
+		});
+		executor.execute(filteringSink::close);
+	}
+
+	private static String getFilterKey(String filterEL) {
+		return filterEL == null ? "" : filterEL;
+	}
+
 	public void removeNotification(String notificationCode) {
 
-		Map<String, FilteringSink> filteringSinks = notifFilteringSinks.get(notificationCode);
-		if (filteringSinks == null) {
+		Map<String, Map<String, FilteringSink>> sinksByFilter = notifFilteringSinks.remove(notificationCode);
+		if (sinksByFilter == null) {
 			log.debug("remove notification: no one was listening");
 			return;
 		}
 
-		for (Map.Entry<String, FilteringSink> entry : filteringSinks.entrySet()) {
-			FilteringSink filteringSink = entry.getValue();
-			if (!filteringSink.isClosed()) {
-				log.debug("closing sink {}", filteringSink.getKey());
-				filteringSink.close();
+		for (Map<String, FilteringSink> filteringSinks : sinksByFilter.values()) {
+			for (FilteringSink filteringSink : filteringSinks.values()) {
+				if (!filteringSink.isClosed()) {
+					log.debug("closing sink {}", filteringSink.getKey());
+					filteringSink.close();
+				}
 			}
 		}
-		filteringSinks.remove(notificationCode);
 	}
 }
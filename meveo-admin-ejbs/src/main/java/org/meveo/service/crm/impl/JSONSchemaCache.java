@@ -0,0 +1,153 @@
+package org.meveo.service.crm.impl;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.everit.json.schema.Schema;
+import org.meveo.model.crm.CustomFieldTemplate;
+import org.meveo.model.customEntities.CustomEntityTemplate;
+import org.meveo.model.customEntities.CustomRelationshipTemplate;
+import org.meveo.security.CurrentUser;
+import org.meveo.security.MeveoUser;
+
+/**
+ * JSON schemas generated by the {@link JSONSchemaGenerator}, per provider. The schema of a template is kept until the template,
+ * its fields or a template it depends on changes, so only the changed templates are generated again. The assembled ontology
+ * documents are kept until any template changes.
+ * <p>
+ * A template is invalidated once the transaction that changed it is committed, whatever the event fired for it.
+ */
+@ApplicationScoped
+public class JSONSchemaCache {
+
+	@Inject
+	@CurrentUser
+	private MeveoUser currentUser;
+
+	private final Map<String, CachedSchema> schemas = new ConcurrentHashMap<>();
+
+	private final Map<String, JSONSchemaDocument> documents = new ConcurrentHashMap<>();
+
+	/**
+	 * Incremented on each invalidation, so that a schema generated meanwhile is not cached
+	 */
+	private final AtomicLong generation = new AtomicLong();
+
+	/**
+	 * Get the schema of a template from the cache, or generate it and cache it
+	 *
+	 * @param schemaLocation location of the schema
+	 * @param code           code of the template
+	 * @param generator      generates the schema, filling the given set with the codes of the templates it depends on
+	 * @return the schema of the template
+	 */
+	public Schema getSchema(String schemaLocation, String code, Function<Set<String>, Schema> generator) {
+		String key = getKey(schemaLocation + "|" + code);
+		CachedSchema cachedSchema = schemas.get(key);
+		if (cachedSchema != null) {
+			return cachedSchema.schema;
+		}
+
+		long currentGeneration = generation.get();
+		Set<String> dependencies = new HashSet<>();
+		Schema schema = generator.apply(dependencies);
+		dependencies.add(code);
+		if (generation.get() == currentGeneration) {
+			schemas.put(key, new CachedSchema(schema, dependencies));
+		}
+		return schema;
+	}
+
+	/**
+	 * Get an assembled document from the cache, or assemble it and cache it
+	 *
+	 * @param schemaLocation      location of the schema
+	 * @param activeTemplatesOnly whether the document only contains the active templates
+	 * @param categoryCode        code of the category of the templates, may be null
+	 * @param assembler           assembles the document
+	 * @return the document with its ETag
+	 */
+	public JSONSchemaDocument getDocument(String schemaLocation, boolean activeTemplatesOnly, String categoryCode, Supplier<String> assembler) {
+		String key = getKey(schemaLocation + "|" + activeTemplatesOnly + "|" + categoryCode);
+		JSONSchemaDocument document = documents.get(key);
+		if (document != null) {
+			return document;
+		}
+
+		long currentGeneration = generation.get();
+		String schema = assembler.get();
+		document = new JSONSchemaDocument(schema, DigestUtils.sha256Hex(schema));
+		if (generation.get() == currentGeneration) {
+			documents.put(key, document);
+		}
+		return document;
+	}
+
+	/**
+	 * Invalidate the schema of a template and of the templates that depend on it, and the assembled documents
+	 *
+	 * @param code code of the template
+	 */
+	public void invalidate(String code) {
+		if (code == null) {
+			return;
+		}
+		generation.incrementAndGet();
+		schemas.values().removeIf(cachedSchema -> cachedSchema.dependencies.contains(code));
+		documents.clear();
+	}
+
+	/**
+	 * Invalidate the schemas on any creation, update or removal of a template
+	 *
+	 * @param cet changed template
+	 */
+	public void onCetChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) CustomEntityTemplate cet) {
+		invalidate(cet.getCode());
+	}
+
+	/**
+	 * @param crt changed relationship template
+	 */
+	public void onCrtChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) CustomRelationshipTemplate crt) {
+		invalidate(crt.getCode());
+	}
+
+	/**
+	 * @param cft changed field of a template
+	 */
+	public void onCftChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) CustomFieldTemplate cft) {
+		String cetCode = CustomEntityTemplate.getCodeFromAppliesTo(cft.getAppliesTo());
+		invalidate(cetCode != null ? cetCode : CustomRelationshipTemplate.getCodeFromAppliesTo(cft.getAppliesTo()));
+	}
+
+	private String getKey(String key) {
+		return currentUser.getProviderCode() + "|" + key;
+	}
+
+	private static class CachedSchema {
+
+		private final Schema schema;
+
+		/**
+		 * Codes of the templates the schema was generated from
+		 */
+		private final Set<String> dependencies;
+
+		private CachedSchema(Schema schema, Set<String> dependencies) {
+			this.schema = schema;
+			this.dependencies = dependencies;
+		}
+	}
+}
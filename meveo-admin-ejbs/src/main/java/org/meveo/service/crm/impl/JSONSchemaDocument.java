@@ -0,0 +1,36 @@
+package org.meveo.service.crm.impl;
+
+/**
+ * Assembled JSON schema of the ontology, with its ETag
+ *
+ * @see JSONSchemaCache
+ */
+public class JSONSchemaDocument {
+
+	private final String schema;
+
+	private final String etag;
+
+	/**
+	 * @param schema serialized schema
+	 * @param etag   digest of the schema
+	 */
+	public JSONSchemaDocument(String schema, String etag) {
+		this.schema = schema;
+		this.etag = etag;
+	}
+
+	/**
+	 * @return the serialized schema
+	 */
+	public String getSchema() {
+		return schema;
+	}
+
+	/**
+	 * @return the digest of the schema
+	 */
+	public String getEtag() {
+		return etag;
+	}
+}
@@ -69,6 +69,9 @@ public class JSONSchemaGenerator {
 	@Inject
 	private CustomFieldTemplateService cftService;
 
+	@Inject
+	private JSONSchemaCache schemaCache;
+
 	abstract static class CustomTemplateProcessor {
 		abstract String code();
 
@@ -82,24 +85,39 @@ public class JSONSchemaGenerator {
 	}
 
 	public String generateSchema(String schemaLocation, boolean activeTemplatesOnly, String categoryCode) {
-		Map<String, Schema> processed = new HashMap<>();
-		Set<String> primary = new HashSet<>();
+		return getSchemaDocument(schemaLocation, activeTemplatesOnly, categoryCode).getSchema();
+	}
 
-		// Entity templates
-		processCustomEntityTemplates(schemaLocation, activeTemplatesOnly, primary, processed, categoryCode);
+	/**
+	 * Get the schema of the entity and relationship templates with its ETag. The document is cached until a template changes,
+	 * and is then assembled from the cached schemas of the templates that did not change.
+	 *
+	 * @param schemaLocation      location of the schema
+	 * @param activeTemplatesOnly whether to only include the active templates
+	 * @param categoryCode        code of the category of the templates, may be null
+	 * @return the schema document
+	 */
+	public JSONSchemaDocument getSchemaDocument(String schemaLocation, boolean activeTemplatesOnly, String categoryCode) {
+		return schemaCache.getDocument(schemaLocation, activeTemplatesOnly, categoryCode, () -> {
+			Map<String, Schema> processed = new HashMap<>();
+			Set<String> primary = new HashSet<>();
 
-		// Relationship templates
-		processCustomRelationshipTemplates(schemaLocation, activeTemplatesOnly, primary, processed, categoryCode);
+			// Entity templates
+			processCustomEntityTemplates(schemaLocation, activeTemplatesOnly, primary, processed, categoryCode);
 
-		RootCombinedSchema.Builder builder = RootCombinedSchema.builder().specificationVersion(JSON_SCHEMA_VERSION);
+			// Relationship templates
+			processCustomRelationshipTemplates(schemaLocation, activeTemplatesOnly, primary, processed, categoryCode);
 
-		processed.forEach((k, v) -> builder.addDefinition(k, v, primary.contains(k)));
+			RootCombinedSchema.Builder builder = RootCombinedSchema.builder().specificationVersion(JSON_SCHEMA_VERSION);
 
-		StringWriter out = new StringWriter();
-		JSONPrinter json = new JSONPrinter(out);
+			processed.forEach((k, v) -> builder.addDefinition(k, v, primary.contains(k)));
 
-		builder.build().describeTo(json);
-		return out.toString();
+			StringWriter out = new StringWriter();
+			JSONPrinter json = new JSONPrinter(out);
+
+			builder.build().describeTo(json);
+			return out.toString();
+		});
 	}
 
 	public String generateEntitiesSchema(String schemaLocation, boolean activeTemplatesOnly, String categoryCode) {
@@ -150,7 +168,7 @@ public class JSONSchemaGenerator {
 					.collect(Collectors.toList());
 		}
 
-		templates.forEach(t -> createSchema(schemaLocation, processorOf(t), processed));
+		templates.forEach(t -> processed.put(t.getCode(), getCachedSchema(schemaLocation, processorOf(t))));
 
 		final List<String> templatesCodes = templates.stream().map(CustomEntityTemplate::getCode).collect(Collectors.toList());
 		primary.addAll(templatesCodes);
@@ -172,7 +190,7 @@ public class JSONSchemaGenerator {
 					.collect(Collectors.toList());
 		}
 
-		templates.forEach(t -> createSchema(schemaLocation, processorOf(t), processed));
+		templates.forEach(t -> processed.put(t.getCode(), getCachedSchema(schemaLocation, processorOf(t))));
 
 		final List<String> templatesCodes = templates.stream().map(CustomRelationshipTemplate::getCode).collect(Collectors.toList());
 		primary.addAll(templatesCodes);
@@ -219,6 +237,13 @@ public class JSONSchemaGenerator {
 		return root;
 	}
 
+	/**
+	 * Get the schema of a template from the cache, or build it
+	 */
+	private Schema getCachedSchema(String schemaLocation, CustomTemplateProcessor template) {
+		return schemaCache.getSchema(schemaLocation, template.code(), dependencies -> buildSchema(schemaLocation, template, dependencies));
+	}
+
 	private ObjectSchema createSchema(String schemaLocation, CustomTemplateProcessor template, Map<String, Schema> processed) {
 		Set<String> ownRefs = new HashSet<>();
 		ObjectSchema result = buildSchema(schemaLocation, template, ownRefs);
@@ -570,11 +595,14 @@ public class JSONSchemaGenerator {
 			final CustomEntityTemplate customEntityTemplate = cache.getCustomEntityTemplate(refCode);
 			Integer fieldsSize = 0;
 			if(field.getRelationship() != null) {
+				// The schema depends on the relationship fields, see JSONSchemaCache
+				allRefs.add(field.getRelationship().getCode());
 				var fields = cftService.findByAppliesTo(field.getRelationship().getAppliesTo());
 				fieldsSize = fields == null ? 0 : fields.size();
 			}
 			// Do not make a reference in case of a primitive entity if the relation has no fields
 			if (fieldsSize == 0 && customEntityTemplate != null && customEntityTemplate.getNeo4JStorageConfiguration() != null && customEntityTemplate.getNeo4JStorageConfiguration().isPrimitiveEntity()) {
+				allRefs.add(refCode);
 				field.setMaxValue(customEntityTemplate.getNeo4JStorageConfiguration().getMaxValue());
 				switch (customEntityTemplate.getNeo4JStorageConfiguration().getPrimitiveType()) {
 					case STRING:
@@ -10,6 +10,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -49,6 +50,8 @@ import org.meveo.model.sql.SqlConfiguration;
 import org.meveo.model.storage.Repository;
 import org.meveo.persistence.sql.SQLConnectionProvider;
 import org.meveo.persistence.sql.SqlConfigurationService;
+import org.meveo.service.admin.impl.ModuleInstallationContext;
+import org.meveo.service.admin.impl.ModuleInstallationContext.DeferredWork;
 import org.meveo.util.PersistenceUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -100,6 +103,12 @@ public class CustomTableCreatorService implements Serializable {
 
 	private static final String UUID = "uuid";
 
+	/**
+	 * Maximum length of the string fields indexed with btree search indexes, so that an entry stays under the btree row size limit
+	 * (2704 bytes) with 4 bytes characters
+	 */
+	private static final long MAX_BTREE_INDEXED_LENGTH = 676;
+
 	private static final long serialVersionUID = -5858023657669249422L;
 
 	@Inject
@@ -118,6 +127,13 @@ public class CustomTableCreatorService implements Serializable {
 	
 	@Inject
 	private CustomFieldsCacheContainerProvider cache;
+
+	@Inject
+	private ModuleInstallationContext moduleInstallCtx;
+
+	/** Used to add the columns collected during a module installation */
+	@Inject
+	private CustomTableCreatorService self;
 	
 	private EntityManager getEntityManager(String sqlConfigurationCode) {
 
@@ -645,6 +661,10 @@ public class CustomTableCreatorService implements Serializable {
 			if (cft.isUnique()) {
 				createOrUpdateUniqueField(dbTableName, cft, changeSet);
 			}
+
+			if (cft.isSearchable()) {
+				createOrUpdateSearchIndexes(dbTableName, cft, changeSet);
+			}
 		}
 
 		// Add a foreign key constraint pointing on referenced table if field is an
@@ -654,46 +674,78 @@ public class CustomTableCreatorService implements Serializable {
 		}
 
 		if (!changeSet.getChanges().isEmpty()) {
+			PendingColumn pendingColumn = new PendingColumn(dbFieldname, cft, column, changeSet.getChanges());
 
-			dbLog.addChangeSet(changeSet);
+			// During a module installation, the columns of a table are added at once at the end
+			PendingColumns pendingColumns = moduleInstallCtx.getDeferredWork("sql/" + sqlConnectionCode + "/" + dbTableName,
+					() -> new PendingColumns(self, sqlConnectionCode, dbTableName));
+			if (pendingColumns != null) {
+				pendingColumns.columns.add(pendingColumn);
+			} else {
+				addColumns(sqlConnectionCode, dbTableName, Collections.singletonList(pendingColumn));
+			}
+		}
+	}
 
-			try (Session hibernateSession = sqlConnectionProvider.getSession(sqlConnectionCode)) {
-				
-				try {
-					CompletableFuture.runAsync(() -> {
-						hibernateSession.doWork(connection -> {
-							Database database;
-							try {
-								database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
-								setSchemaName(database);
-								
-								var meta = connection.getMetaData();
-								
+	/**
+	 * Add columns to a db table, in a single liquibase changeset. Columns that already exist in the table are only checked against
+	 * their definition.
+	 * 
+	 * @param sqlConnectionCode Code of the {@link SqlConfiguration}
+	 * @param dbTableName       DB Table name
+	 * @param columns           Columns to add, with their constraints
+	 */
+	@AccessTimeout(value = 1L, unit = TimeUnit.MINUTES)
+	public void addColumns(String sqlConnectionCode, String dbTableName, List<PendingColumn> columns) {
+		String columnNames = columns.stream().map(c -> c.dbFieldname).collect(Collectors.joining(", "));
+
+		DatabaseChangeLog dbLog = new DatabaseChangeLog("path");
+		String changeSetId = columns.size() == 1 ? dbTableName + "_CT_" + columns.get(0).dbFieldname + "_AF_" + System.currentTimeMillis()
+				: dbTableName + "_CT_AF_" + System.currentTimeMillis();
+		ChangeSet changeSet = new ChangeSet(changeSetId, "Meveo", false, false, "meveo", "", "", dbLog);
+		dbLog.addChangeSet(changeSet);
+
+		try (Session hibernateSession = sqlConnectionProvider.getSession(sqlConnectionCode)) {
+
+			try {
+				CompletableFuture.runAsync(() -> {
+					hibernateSession.doWork(connection -> {
+						Database database;
+						try {
+							database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+							setSchemaName(database);
+
+							var meta = connection.getMetaData();
+
+							for (PendingColumn pendingColumn : columns) {
 								// Check if field already exist in table
-								try (ResultSet res = meta.getColumns(null, database.getDefaultSchemaName(), dbTableName, dbFieldname)) {
-									if(res.next()) {
-										checkTypeMatches(dbTableName, cft, column, res.getString("TYPE_NAME"), res.getInt("COLUMN_SIZE"));
-										
+								try (ResultSet res = meta.getColumns(null, database.getDefaultSchemaName(), dbTableName, pendingColumn.dbFieldname)) {
+									if (res.next()) {
+										checkTypeMatches(dbTableName, pendingColumn.cft, pendingColumn.column, res.getString("TYPE_NAME"), res.getInt("COLUMN_SIZE"));
+
 									} else {
-										// Create the field
-										Liquibase liquibase = new Liquibase(dbLog, new ClassLoaderResourceAccessor(), database);
-										liquibase.update(new Contexts(), new LabelExpression());
-										liquibase.forceReleaseLocks();
+										pendingColumn.changes.forEach(changeSet::addChange);
 									}
 								}
-								
+							}
 
-							} catch (Exception e) {
-								log.error("Failed to add field {} to custom table {}", dbFieldname, dbTableName, e);
-								throw new SQLException(String.format("Failed to add field %s to custom table %s : ",dbFieldname, dbTableName) + e.getMessage(), e);
+							// Create the fields
+							if (!changeSet.getChanges().isEmpty()) {
+								Liquibase liquibase = new Liquibase(dbLog, new ClassLoaderResourceAccessor(), database);
+								liquibase.update(new Contexts(), new LabelExpression());
+								liquibase.forceReleaseLocks();
 							}
-						});
-					}).get(1, TimeUnit.MINUTES);
-					
-				} catch (InterruptedException | ExecutionException | TimeoutException e) {
-					log.error("Failed to add field {} to custom table {} within 1 minute",dbFieldname, dbTableName, e);
-					throw new RuntimeException(e);
-				}
+
+						} catch (Exception e) {
+							log.error("Failed to add fields {} to custom table {}", columnNames, dbTableName, e);
+							throw new SQLException(String.format("Failed to add fields %s to custom table %s : ", columnNames, dbTableName) + e.getMessage(), e);
+						}
+					});
+				}).get(columns.size(), TimeUnit.MINUTES);
+
+			} catch (InterruptedException | ExecutionException | TimeoutException e) {
+				log.error("Failed to add fields {} to custom table {} within {} minute(s)", columnNames, dbTableName, columns.size(), e);
+				throw new RuntimeException(e);
 			}
 		}
 	}
@@ -746,6 +798,19 @@ public class CustomTableCreatorService implements Serializable {
 	 * @param cft         Field definition
 	 */
 	public void updateField(String sqlConnectionCode, String dbTableName, CustomFieldTemplate cft) {
+		updateField(sqlConnectionCode, dbTableName, null, cft);
+	}
+
+	/**
+	 * Update a field of a db table. Creates a liquibase changeset to add a field to
+	 * a table and executes it. The search indexes are only updated if the field
+	 * definition changed in a way that affects them.
+	 * 
+	 * @param dbTableName DB Table name
+	 * @param oldCft      Field definition before the update, may be null
+	 * @param cft         Field definition
+	 */
+	public void updateField(String sqlConnectionCode, String dbTableName, CustomFieldTemplate oldCft, CustomFieldTemplate cft) {
 
 		String dbFieldname = cft.getDbFieldname();
 
@@ -854,6 +919,9 @@ public class CustomTableCreatorService implements Serializable {
 				dbLog.addChangeSet(changeSet);
 			}
 			createOrUpdateUniqueField(dbTableName, cft, changeSet);
+			if (isSearchIndexChanged(oldCft, cft)) {
+				createOrUpdateSearchIndexes(dbTableName, cft, changeSet);
+			}
 
 			hibernateSession.doWork(connection -> {
 
@@ -950,6 +1018,77 @@ public class CustomTableCreatorService implements Serializable {
 		}
 	}
 
+	/**
+	 * Add the changes creating or dropping the search indexes of a CFT on PostgreSQL : a trigram index on the lower-cased value for
+	 * the "contains" searches and, for string fields with a maximum length that fits in a btree index, an index on the lower-cased value
+	 * for the case-insensitive equality and a text_pattern_ops index for the "starts with" searches. The indexes that don't apply to the
+	 * field are dropped. The trigram index is skipped with a warning if the pg_trgm extension can't be installed.
+	 * 
+	 * @param dbTableName Table concerned by the changeset
+	 * @param cft         Concernced CFT
+	 * @param changeSet   Changeset to add the change
+	 */
+	private void createOrUpdateSearchIndexes(String dbTableName, CustomFieldTemplate cft, ChangeSet changeSet) {
+		boolean textField = cft.getFieldType() == CustomFieldTypeEnum.STRING || cft.getFieldType() == CustomFieldTypeEnum.TEXT_AREA
+				|| cft.getFieldType() == CustomFieldTypeEnum.LIST;
+		if (!cft.isSqlStorage() || !textField || cft.getStorageType() != CustomFieldStorageTypeEnum.SINGLE) {
+			return;
+		}
+
+		String dbFieldname = cft.getDbFieldname();
+		String trigramIndex = getSearchIndexName("trgm", dbTableName, dbFieldname);
+		String lowerIndex = getSearchIndexName("lower", dbTableName, dbFieldname);
+		String prefixIndex = getSearchIndexName("prefix", dbTableName, dbFieldname);
+
+		String tableName = PostgresReserverdKeywords.escapeAndFormat(dbTableName);
+		String columnName = PostgresReserverdKeywords.escapeAndFormat(dbFieldname);
+
+		boolean btreeIndexed = cft.getFieldType() == CustomFieldTypeEnum.STRING && cft.getMaxValue() != null && cft.getMaxValue() > 0
+				&& cft.getMaxValue() <= MAX_BTREE_INDEXED_LENGTH;
+
+		List<String> statements = new ArrayList<>();
+		if (cft.isSearchable()) {
+			statements.add("DO $$ BEGIN CREATE EXTENSION IF NOT EXISTS pg_trgm; " 
+					+ "CREATE INDEX IF NOT EXISTS " + trigramIndex + " ON " + tableName + " USING gin (lower(" + columnName + ") gin_trgm_ops); "
+					+ "EXCEPTION WHEN OTHERS THEN RAISE WARNING 'Trigram index not created on " + dbTableName + "." + dbFieldname + " : %', SQLERRM; END $$");
+			if (btreeIndexed) {
+				statements.add("CREATE INDEX IF NOT EXISTS " + lowerIndex + " ON " + tableName + " (lower(" + columnName + "))");
+				statements.add("CREATE INDEX IF NOT EXISTS " + prefixIndex + " ON " + tableName + " (" + columnName + " text_pattern_ops)");
+			} else {
+				statements.add("DROP INDEX IF EXISTS " + lowerIndex + ", " + prefixIndex);
+			}
+		} else {
+			statements.add("DROP INDEX IF EXISTS " + trigramIndex + ", " + lowerIndex + ", " + prefixIndex);
+		}
+
+		for (String statement : statements) {
+			RawSQLChange sqlChange = new RawSQLChange(statement);
+			sqlChange.setDbms("postgresql");
+			sqlChange.setSplitStatements(false);
+			changeSet.addChange(sqlChange);
+		}
+	}
+
+	/**
+	 * @param oldCft Field definition before the update, may be null
+	 * @param cft    Field definition
+	 * @return Whether the search indexes of the field may have to be created or dropped
+	 */
+	private boolean isSearchIndexChanged(CustomFieldTemplate oldCft, CustomFieldTemplate cft) {
+		return oldCft == null || oldCft.isSearchable() != cft.isSearchable() || oldCft.getFieldType() != cft.getFieldType()
+				|| oldCft.getStorageType() != cft.getStorageType() || !Objects.equals(oldCft.getMaxValue(), cft.getMaxValue());
+	}
+
+	/**
+	 * @param kind        Kind of search index
+	 * @param dbTableName Table name
+	 * @param dbFieldname Column name
+	 * @return Concatenated search index name
+	 */
+	public String getSearchIndexName(String kind, String dbTableName, String dbFieldname) {
+		return "ix_" + kind + "_" + dbTableName.replace("\"", "") + "_" + dbFieldname.replace("\"", "");
+	}
+
 	/**
 	 * @param dbTableName Table name
 	 * @param dbFieldname Column name
@@ -1220,10 +1359,21 @@ public class CustomTableCreatorService implements Serializable {
 	 * @param cft         the custom field template
 	 */
 	public void updateField(CustomModelObject template, CustomFieldTemplate cft) {
+		updateField(template, null, cft);
+	}
+
+	/**
+	 * Update a field in all active and initialized Sql datasource
+	 * 
+	 * @param template the custom model object
+	 * @param oldCft   the custom field template before the update, may be null
+	 * @param cft      the custom field template
+	 */
+	public void updateField(CustomModelObject template, CustomFieldTemplate oldCft, CustomFieldTemplate cft) {
         template.getRepositories().forEach(e -> {
 			// non entity field
 			if (!cft.hasReferenceJpaEntity() || (cft.hasReferenceJpaEntity() && e.getSqlConfiguration().getCode().equals(SqlConfiguration.DEFAULT_SQL_CONNECTION))) {
-				updateField(e.getSqlConfiguration().getCode(), SQLStorageConfiguration.getDbTablename(template), cft);
+				updateField(e.getSqlConfiguration().getCode(), SQLStorageConfiguration.getDbTablename(template), oldCft, cft);
 			}
 		});
 	}
@@ -1312,4 +1462,44 @@ public class CustomTableCreatorService implements Serializable {
 				.createNativeQuery("SELECT EXISTS(SELECT * FROM information_schema.tables WHERE table_schema = :tableSchema AND table_name = :tableName)")
 				.setParameter("tableSchema", schema).setParameter("tableName", tableName).getSingleResult();
 	}
+
+	/**
+	 * A column to add to a table, with its constraints
+	 */
+	public static class PendingColumn {
+
+		private final String dbFieldname;
+		private final CustomFieldTemplate cft;
+		private final AddColumnConfig column;
+		private final List<Change> changes;
+
+		private PendingColumn(String dbFieldname, CustomFieldTemplate cft, AddColumnConfig column, List<Change> changes) {
+			this.dbFieldname = dbFieldname;
+			this.cft = cft;
+			this.column = column;
+			this.changes = new ArrayList<>(changes);
+		}
+	}
+
+	/**
+	 * Columns of a table collected during a module installation, added at once when flushed
+	 */
+	private static class PendingColumns implements DeferredWork {
+
+		private final CustomTableCreatorService customTableCreatorService;
+		private final String sqlConnectionCode;
+		private final String dbTableName;
+		private final List<PendingColumn> columns = new ArrayList<>();
+
+		private PendingColumns(CustomTableCreatorService customTableCreatorService, String sqlConnectionCode, String dbTableName) {
+			this.customTableCreatorService = customTableCreatorService;
+			this.sqlConnectionCode = sqlConnectionCode;
+			this.dbTableName = dbTableName;
+		}
+
+		@Override
+		public void flush() {
+			customTableCreatorService.addColumns(sqlConnectionCode, dbTableName, columns);
+		}
+	}
 }
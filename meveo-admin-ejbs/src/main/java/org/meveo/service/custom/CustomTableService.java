@@ -18,18 +18,21 @@ package org.meveo.service.custom;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.Writer;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -47,10 +50,13 @@ import javax.transaction.Transactional;
 import javax.transaction.Transactional.TxType;
 
 import org.hibernate.SQLQuery;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.meveo.admin.exception.BusinessException;
 import org.meveo.admin.exception.ValidationException;
 import org.meveo.admin.util.pagination.PaginationConfiguration;
 import org.meveo.cache.CustomFieldsCacheContainerProvider;
+import org.meveo.commons.utils.BoundedHashMap;
 import org.meveo.commons.utils.ParamBean;
 import org.meveo.commons.utils.ParamBeanFactory;
 import org.meveo.commons.utils.QueryBuilder;
@@ -179,6 +185,31 @@ public class CustomTableService extends NativePersistenceService {
 		createInNewTx(sqlConnectionCode, cet, ceis, updateES);
 	}
 
+	/**
+	 * Insert multiple converted records into a table in batch, using a new transaction.
+	 *
+	 * @param tableName the name of the SQL table
+	 * @param values    converted values of the records
+	 * @throws BusinessException failed to insert the records
+	 */
+	@Transactional(TxType.REQUIRES_NEW)
+	public void insertBatchInNewTx(String sqlConnectionCode, String tableName, List<Map<String, Object>> values) throws BusinessException {
+		insertBatch(sqlConnectionCode, tableName, values);
+	}
+
+	/**
+	 * Insert multiple converted records into a table with the PostgreSQL COPY protocol, using a new transaction.
+	 * Records are inserted in batch if the connection is not a PostgreSQL one.
+	 *
+	 * @param tableName the name of the SQL table
+	 * @param values    converted values of the records
+	 * @throws BusinessException failed to insert the records
+	 */
+	@Transactional(TxType.REQUIRES_NEW)
+	public void copyInNewTx(String sqlConnectionCode, String tableName, List<Map<String, Object>> values) throws BusinessException {
+		copyIn(sqlConnectionCode, tableName, values);
+	}
+
     /**
      * Insert multiple values into table with optionally not updating ES. Will execute in a new transaction
      * 
@@ -273,6 +304,9 @@ public class CustomTableService extends NativePersistenceService {
 
     /**
      * Export data into a file into exports directory. Filename is in the following format: &lt;db table name&gt;_id_&lt;formated date&gt;.csv
+     * <p>
+     * Rows are streamed over a single forward-only cursor and written to the file chunk by chunk. Entity references of a chunk are resolved with one
+     * query per referenced template and kept in a bounded cache for the whole export.
      * 
      * @param cet Custom table definition
      * @param config Pagination and search criteria
@@ -288,13 +322,13 @@ public class CustomTableService extends NativePersistenceService {
 
             SQLQuery query = queryBuilder.getNativeQuery(getEntityManager(sqlConnectionCode), true);
 
-            int firstRow = 0;
-            int nrItemsFound;
-
             ParamBean parambean = paramBeanFactory.getInstance();
             String providerRoot = parambean.getChrootDir(currentUser.getProviderCode());
             String exportDir = providerRoot + File.separator + "exports" + File.separator;
 
+            int fetchSize = Integer.parseInt(parambean.getProperty("customTable.export.fetchSize", "500"));
+            int referencesCacheSize = Integer.parseInt(parambean.getProperty("customTable.export.referencesCacheSize", "10000"));
+
             File exportsDirFile = new File(exportDir);
 
             File exportFile = new File(exportDir + dbTablename + DateUtils.formatDateWithPattern(new Date(), "_yyyy-MM-dd_HH-mm-ss") + ".csv");
@@ -318,42 +352,45 @@ public class CustomTableService extends NativePersistenceService {
                 return pos1 - pos2;
             });
 
+            // Entity reference fields, grouped by referenced template
+            Map<String, List<CustomFieldTemplate>> entityFieldsByCet = fields.stream()
+            		.filter(field -> field.getFieldType() == CustomFieldTypeEnum.ENTITY)
+            		.collect(Collectors.groupingBy(CustomFieldTemplate::getEntityClazzCetCode));
+
+            // Serialized entity references, shared by the whole export. Key is the referenced template code and the referenced uuid.
+            Map<String, String> entityReferencesCache = new BoundedHashMap<>(referencesCacheSize, true);
+
             ObjectWriter oWriter = getCSVWriter(fields);
 
-            try (FileWriter fileWriter = new FileWriter(exportFile)) {
+            query.setFetchSize(fetchSize);
+            query.setReadOnly(true);
+            ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY);
 
-                SequenceWriter sWriter = oWriter.writeValues(fileWriter);
+            try (Writer fileWriter = Files.newBufferedWriter(exportFile.toPath(), StandardCharsets.UTF_8);
+            		SequenceWriter sWriter = oWriter.writeValues(fileWriter)) {
 
-                do {
-                    queryBuilder.applyPagination(query, firstRow, 500);
-                    List<Map<String, Object>> values = query.list();
+                List<Map<String, Object>> values = new ArrayList<>(fetchSize);
 
-                    /* Fetch entity references */
-                    Map<String, Map<String, String>> entityReferencesCache = new HashMap<>();	// Cache used to avoid fetching multiple time the same data
-                    for(Map<String, Object> map : values) {
-                    	for(Entry<String, Object> entry : new HashMap<>(map).entrySet()) {
-                    		for(CustomFieldTemplate field : fields) {
-                    			if(field.getDbFieldname().equals(entry.getKey()) && field.getFieldType() == CustomFieldTypeEnum.ENTITY) {
-                    				String referencedEntity = entityReferencesCache
-                    						.computeIfAbsent((String) entry.getValue(), k -> new HashMap<>())
-                    						.computeIfAbsent(field.getDbFieldname(), fieldName -> fetchField(sqlConnectionCode, entry.getValue(), field, fieldName));
+                while (results.next()) {
+                    values.add((Map<String, Object>) results.get(0));
 
-                    				map.put(entry.getKey(), referencedEntity);
-                    			}
-                    		}
-                    	}
+                    if (values.size() >= fetchSize) {
+                        replaceEntityReferencesForExport(sqlConnectionCode, entityFieldsByCet, values, entityReferencesCache);
+                        sWriter.writeAll(values);
+                        values.clear();
                     }
-                    
-                    nrItemsFound = values.size();
-                    firstRow = firstRow + 500;
-
-                    sWriter.writeAll(values);
+                }
 
-                } while (nrItemsFound == 500);
+                // Write remaining records
+                replaceEntityReferencesForExport(sqlConnectionCode, entityFieldsByCet, values, entityReferencesCache);
+                sWriter.writeAll(values);
 
             } catch (IOException e) {
                 log.error("Failed to write {} table data to a file {}", dbTablename, exportFile.getAbsolutePath(), e);
                 throw new BusinessException(e);
+
+            } finally {
+                results.close();
             }
 
             return new AsyncResult<>(new DataImportExportStatistics(exportFile.getAbsolutePath().substring(providerRoot.length())));
@@ -363,6 +400,67 @@ public class CustomTableService extends NativePersistenceService {
         }
     }
 
+    /**
+     * Replace the entity references of a chunk of exported rows by the serialized referenced entities.
+     * References that are not cached yet are fetched with a single query per referenced template.
+     *
+     * @param sqlConnectionCode     Code of the sql configuration
+     * @param entityFieldsByCet     Entity reference fields, grouped by referenced template code
+     * @param values                Rows to update
+     * @param entityReferencesCache Already serialized references, keyed by referenced template code and uuid
+     */
+    private void replaceEntityReferencesForExport(String sqlConnectionCode, Map<String, List<CustomFieldTemplate>> entityFieldsByCet, List<Map<String, Object>> values,
+    		Map<String, String> entityReferencesCache) {
+
+    	if (values.isEmpty()) {
+    		return;
+    	}
+
+    	for (Entry<String, List<CustomFieldTemplate>> cetFields : entityFieldsByCet.entrySet()) {
+    		String cetCode = cetFields.getKey();
+
+    		// References of the chunk, resolved from the cache when possible
+    		Map<String, String> chunkReferences = new HashMap<>();
+    		Set<String> missingIds = new HashSet<>();
+
+    		for (Map<String, Object> map : values) {
+    			for (CustomFieldTemplate field : cetFields.getValue()) {
+    				Object id = map.get(field.getDbFieldname());
+    				if (id == null || chunkReferences.containsKey(id.toString())) {
+    					continue;
+    				}
+
+    				String referencedEntity = entityReferencesCache.get(cetCode + "/" + id);
+    				if (referencedEntity != null) {
+    					chunkReferences.put(id.toString(), referencedEntity);
+    				} else {
+    					missingIds.add(id.toString());
+    				}
+    			}
+    		}
+
+    		if (!missingIds.isEmpty()) {
+    			log.debug("Fetching {} references of {}", missingIds.size(), cetCode);
+    			CustomEntityTemplate referencedCet = customFieldsCacheContainerProvider.getCustomEntityTemplate(cetCode);
+    			findByIds(sqlConnectionCode, referencedCet, missingIds).forEach((uuid, entityRefValues) -> {
+    				entityRefValues.remove("uuid");				// We don't want to save the uuid
+    				String referencedEntity = JacksonUtil.toString(entityRefValues);
+    				chunkReferences.put(uuid, referencedEntity);
+    				entityReferencesCache.put(cetCode + "/" + uuid, referencedEntity);
+    			});
+    		}
+
+    		for (Map<String, Object> map : values) {
+    			for (CustomFieldTemplate field : cetFields.getValue()) {
+    				Object id = map.get(field.getDbFieldname());
+    				if (id != null) {
+    					map.put(field.getDbFieldname(), chunkReferences.get(id.toString()));
+    				}
+    			}
+    		}
+    	}
+    }
+
     public String fetchField(String sqlConnectionCode, Object id, CustomFieldTemplate field, String tableName) {
 		log.info("Fetching {} with uuid {}", field.getCode(), id);
 		CustomEntityTemplate cet = customFieldsCacheContainerProvider.getCustomEntityTemplate(field.getEntityClazzCetCode());
@@ -419,8 +517,14 @@ public class CustomTableService extends NativePersistenceService {
 
         int importedLines = 0;
         int importedLinesTotal = 0;
+        int readLines = 0;
         List<Map<String, Object>> values = new ArrayList<>();
 
+        ParamBean parambean = paramBeanFactory.getInstance();
+        int batchSize = Integer.parseInt(parambean.getProperty("customTable.import.batchSize", "500"));
+        int appendBatchSize = Integer.parseInt(parambean.getProperty("customTable.import.appendBatchSize", "500"));
+        boolean useCopy = Boolean.parseBoolean(parambean.getProperty("customTable.import.useCopy", "false"));
+
         ObjectReader oReader = getCSVReader(fields);
 
         try (Reader reader = new InputStreamReader(inputStream)) {
@@ -436,18 +540,19 @@ public class CustomTableService extends NativePersistenceService {
                 if(append) {
                 	lineValues = convertValue(lineValues, cfts, true, null);
                 	replaceEntityreferences(sqlConnectionCode, fields, entityReferencesCache, lineValues);
-                	String uuid = findIdByUniqueValues(sqlConnectionCode, cet, lineValues, fields);
-                	if(uuid == null) {
-                		final String tablename = SQLStorageConfiguration.getDbTablename(cet);
-                		super.createInNewTx(sqlConnectionCode, tablename, lineValues);
-                		importedLines++;
-                        importedLinesTotal++;
+                	values.add(lineValues);
+                	readLines++;
+
+                	// Look up and insert the records by chunks
+                	if (values.size() >= appendBatchSize) {
+                		importedLinesTotal += appendBatch(sqlConnectionCode, cet, fields, values, readLines - values.size() + 2);
+                		values.clear();
                 	}
                 } else {
-	            	// Save to DB every 500 records
-	                if (importedLines >= 500) {
+	            	// Save to DB every batchSize records
+	                if (importedLines >= batchSize) {
 	
-	                    saveBatch(sqlConnectionCode, cfts, fields, cet.getCode(), values, entityReferencesCache);
+	                    saveBatch(sqlConnectionCode, cfts, fields, cet.getCode(), values, entityReferencesCache, useCopy);
 	
 	                    values.clear();
 	                    importedLines = 0;
@@ -464,9 +569,11 @@ public class CustomTableService extends NativePersistenceService {
                 
             }
 
-            if(!append) {
-                // Save remaining records
-	            saveBatch(sqlConnectionCode, cfts, fields, cet.getCode(), values, entityReferencesCache);
+            // Save remaining records
+            if(append) {
+            	importedLinesTotal += appendBatch(sqlConnectionCode, cet, fields, values, readLines - values.size() + 2);
+            } else {
+	            saveBatch(sqlConnectionCode, cfts, fields, cet.getCode(), values, entityReferencesCache, useCopy);
             }
 
             log.info("Imported {} lines to {} table", importedLinesTotal, dbTableName);
@@ -582,8 +689,104 @@ public class CustomTableService extends NativePersistenceService {
         }
     }
 
+	/**
+	 * Inserts a chunk of records in append mode. Records that already exist in the table, based on their unique values, are skipped and the
+	 * others are inserted with {@link #insertNewRecords(String, String, List, List)}.
+	 *
+	 * @param cet       {@link CustomEntityTemplate} to insert values to
+	 * @param fields    list of {@link CustomFieldTemplate}
+	 * @param values    converted values of the records, with entity references replaced
+	 * @param firstLine line number of the first record in the imported file
+	 * @return the number of inserted records
+	 * @throws BusinessException failed to look up the existing records or to insert some records
+	 */
+	private int appendBatch(String sqlConnectionCode, CustomEntityTemplate cet, List<CustomFieldTemplate> fields, List<Map<String, Object>> values, int firstLine) throws BusinessException {
+		if (values.isEmpty()) {
+			return 0;
+		}
+
+		Set<Integer> existingIndexes = findExistingByUniqueValues(sqlConnectionCode, cet, values, fields);
+
+		List<Map<String, Object>> newValues = new ArrayList<>();
+		List<Integer> newLines = new ArrayList<>();
+		Set<List<Object>> newUniqueValues = new HashSet<>();
+		for (int i = 0; i < values.size(); i++) {
+			Map<String, Object> lineValues = values.get(i);
+			if (existingIndexes.contains(i)) {
+				continue;
+			}
+
+			// Record may also exist in the parent template table
+			if (cet.getSuperTemplate() != null && findIdByUniqueValues(sqlConnectionCode, cet, lineValues, fields) != null) {
+				continue;
+			}
+
+			// Skip duplicates within the chunk
+			List<Object> uniqueValues = fields.stream()
+					.filter(cft -> cft.isUnique() && cft.getAppliesTo().equals(cet.getAppliesTo()))
+					.map(cft -> Optional.ofNullable(lineValues.get(cft.getCode())).orElse(lineValues.get(cft.getDbFieldname())))
+					.collect(Collectors.toList());
+			if (uniqueValues.stream().anyMatch(Objects::nonNull) && !newUniqueValues.add(uniqueValues)) {
+				continue;
+			}
+
+			newValues.add(lineValues);
+			newLines.add(firstLine + i);
+		}
+
+		return insertNewRecords(sqlConnectionCode, SQLStorageConfiguration.getDbTablename(cet), newValues, newLines);
+	}
+
+	/**
+	 * Inserts records in batch in a single transaction. If the batch fails, nothing is inserted and the records are inserted one by one, each in
+	 * its own transaction, so that the valid records are inserted and the faulty ones are reported with their line number.
+	 *
+	 * @param tablename the name of the SQL table
+	 * @param values    converted values of the records
+	 * @param lines     line numbers of the records in the imported file
+	 * @return the number of inserted records
+	 * @throws BusinessException some records could not be inserted, the exception names their lines
+	 */
+	int insertNewRecords(String sqlConnectionCode, String tablename, List<Map<String, Object>> values, List<Integer> lines) throws BusinessException {
+		try {
+			self().insertBatchInNewTx(sqlConnectionCode, tablename, values);
+			return values.size();
+
+		} catch (Exception e) {
+			log.warn("Failed to insert a batch of {} records into {} table, inserting them one by one : {}", values.size(), tablename, e.getMessage());
+		}
+
+		List<Integer> failedLines = new ArrayList<>();
+		Exception firstFailure = null;
+		for (int i = 0; i < values.size(); i++) {
+			try {
+				self().createInNewTx(sqlConnectionCode, tablename, values.get(i));
+			} catch (Exception e) {
+				log.error("Failed to import line {} into {} table : {}", lines.get(i), tablename, e.getMessage());
+				failedLines.add(lines.get(i));
+				if (firstFailure == null) {
+					firstFailure = e;
+				}
+			}
+		}
+
+		if (firstFailure != null) {
+			throw new BusinessException("Failed to import lines {} into {} table : {}", firstFailure,
+					failedLines.stream().map(String::valueOf).collect(Collectors.joining(", ")), tablename, firstFailure.getMessage());
+		}
+
+		return values.size();
+	}
+
+	/**
+	 * @return the container proxy of this service, so that the transaction attributes of the called methods apply
+	 */
+	CustomTableService self() {
+		return customTableService.get();
+	}
+
 	private void saveBatch(String sqlConnectionCode, Map<String, CustomFieldTemplate> cfts, List<CustomFieldTemplate> fields, String cetCode, List<Map<String, Object>> values,
-			Map<String, Map<String, String>> entityReferencesCache) throws BusinessException {
+			Map<String, Map<String, String>> entityReferencesCache, boolean useCopy) throws BusinessException {
 
 		List<CustomEntityInstance> ceis = new ArrayList<>();
 		for (Map<String, Object> value : values) {
@@ -593,7 +796,7 @@ public class CustomTableService extends NativePersistenceService {
 			ceis.add(cei);
 		}
 
-		saveBatch(sqlConnectionCode, cfts, fields, ceis, entityReferencesCache);
+		saveBatch(sqlConnectionCode, cfts, fields, ceis, entityReferencesCache, useCopy);
 	}
 
 	/**
@@ -603,9 +806,10 @@ public class CustomTableService extends NativePersistenceService {
 	 * @param fields list of {@link CustomFieldTemplate}
 	 * @param ceis list of transient {@link CustomEntityInstance}
 	 * @param entityReferencesCache
+	 * @param useCopy if true, use the PostgreSQL COPY protocol when available
 	 * @throws BusinessException batch saving failed
 	 */
-	private void saveBatch(String sqlConnectionCode, Map<String, CustomFieldTemplate> cfts, List<CustomFieldTemplate> fields,  List<CustomEntityInstance> ceis, Map<String, Map<String, String>> entityReferencesCache) throws BusinessException {
+	private void saveBatch(String sqlConnectionCode, Map<String, CustomFieldTemplate> cfts, List<CustomFieldTemplate> fields,  List<CustomEntityInstance> ceis, Map<String, Map<String, String>> entityReferencesCache, boolean useCopy) throws BusinessException {
 		
 		if(ceis == null || ceis.isEmpty()) {
 			return;
@@ -615,7 +819,11 @@ public class CustomTableService extends NativePersistenceService {
 		values = convertValues(values, cfts, false);
 		values = replaceEntityReferences(sqlConnectionCode, fields, values, entityReferencesCache);
         final CustomEntityTemplate cet = customEntityTemplateService.findByCodeOrDbTablename(ceis.get(0).getTableName());
-        customTableService.get().createInNewTx(sqlConnectionCode, cet, false, values);
+        if (useCopy) {
+        	customTableService.get().copyInNewTx(sqlConnectionCode, SQLStorageConfiguration.getDbTablename(cet), values);
+        } else {
+        	customTableService.get().createInNewTx(sqlConnectionCode, cet, false, values);
+        }
 	}
 
 	private List<Map<String, Object>> replaceEntityReferences(String sqlConnectionCode, List<CustomFieldTemplate> fields, List<Map<String, Object>> oldvalues, Map<String, Map<String, String>> entityReferencesCache) throws BusinessException {
@@ -808,6 +1016,48 @@ public class CustomTableService extends NativePersistenceService {
 		return replaceKeys(cfts, convertedData);
 	}
 
+	/**
+	 * Retrieves and convert data of several rows from database table, using one query per table
+	 *
+	 * @param cet   Template of the data
+	 * @param uuids UUIDs of the rows
+	 * @return the converted rows data, with the uuid as a map key
+	 */
+	@SuppressWarnings("deprecation")
+	public Map<String, Map<String, Object>> findByIds(String sqlConnectionCode, CustomEntityTemplate cet, Collection<String> uuids) {
+		Map<String, Map<String, Object>> results = new HashMap<>();
+		if (uuids == null || uuids.isEmpty()) {
+			return results;
+		}
+
+		// Retrieve fields of the template
+		Collection<CustomFieldTemplate> cfts = customFieldTemplateService.findByAppliesTo(cet.getAppliesTo()).values();
+
+		Map<String, Map<String, Object>> data = new HashMap<>();
+
+		// Complete data with parent table
+		var superTemplate = cet.getSuperTemplate() != null ? customEntityTemplateService.findById(cet.getSuperTemplate().getId()) : null;
+		if(superTemplate != null && superTemplate.storedIn(DBStorageType.SQL)) {
+			super.findByIds(sqlConnectionCode, SQLStorageConfiguration.getDbTablename(superTemplate), uuids)
+				.forEach((uuid, parentData) -> data.computeIfAbsent(uuid, k -> new HashMap<>()).putAll(parentData));
+		}
+
+		// Get raw data
+		super.findByIds(sqlConnectionCode, SQLStorageConfiguration.getDbTablename(cet), uuids)
+			.forEach((uuid, rowData) -> data.computeIfAbsent(uuid, k -> new HashMap<>()).putAll(rowData));
+
+		if(data.isEmpty()) {
+			return results;
+		}
+
+		// Format the data to the representation defined by the fields and replace the db column names by the fields codes
+		for (Map<String, Object> convertedData : convertData(new ArrayList<>(data.values()), cet)) {
+			results.put((String) convertedData.get(FIELD_ID), replaceKeys(cfts, convertedData));
+		}
+
+		return results;
+	}
+
 	/**
 	 * Convert the data to the expected format. For instance, deserializes lists
 	 *
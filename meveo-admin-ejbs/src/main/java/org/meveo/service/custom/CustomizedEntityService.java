@@ -14,6 +14,7 @@ import java.util.Set;
 import javax.inject.Inject;
 
 import org.meveo.admin.util.pagination.PaginationConfiguration;
+import org.meveo.commons.utils.ReflectionUtils;
 import org.meveo.commons.utils.StringUtils;
 import org.meveo.model.CustomFieldEntity;
 import org.meveo.model.ICustomFieldEntity;
@@ -25,7 +26,6 @@ import org.meveo.service.base.QueryBuilderHelper;
 import org.meveo.service.job.Job;
 import org.meveo.service.job.JobInstanceService;
 import org.meveo.util.EntityCustomizationUtils;
-import org.reflections.Reflections;
 
 /**
  * @author Edward P. Legaspi | <czetsuya@gmail.com>
@@ -409,8 +409,7 @@ public class CustomizedEntityService implements Serializable {
     public void scanPackageForCfClasses(String packageStr) {
     	if(!scannedPackages.contains(packageStr)) {
 	    	// Find standard entities that implement ICustomFieldEntity interface except JobInstance
-	        Reflections reflections = new Reflections(packageStr);
-	    	cfClasses.addAll(reflections.getSubTypesOf(ICustomFieldEntity.class));
+	    	cfClasses.addAll(ReflectionUtils.getClassesThatExtends(ICustomFieldEntity.class, packageStr));
 	    	scannedPackages.add(packageStr);
     	}
     }
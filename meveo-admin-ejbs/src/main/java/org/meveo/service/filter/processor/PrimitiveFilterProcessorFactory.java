@@ -4,8 +4,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
+import org.meveo.commons.utils.ReflectionUtils;
 import org.meveo.model.filter.PrimitiveFilterCondition;
-import org.reflections.Reflections;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,8 +56,7 @@ public class PrimitiveFilterProcessorFactory {
 	private void initializeProcessors() {
 		logger.info("Initializing PrimitiveFilterProcessors");
 		processors = new ArrayList<>();
-		Reflections reflections = new Reflections("org.meveo.service.filter.processor");
-		Set<Class<? extends PrimitiveFilterProcessor>> processorClasses = reflections.getSubTypesOf(PrimitiveFilterProcessor.class);
+		Set<Class<? extends PrimitiveFilterProcessor>> processorClasses = ReflectionUtils.getClassesThatExtends(PrimitiveFilterProcessor.class, "org.meveo.service.filter.processor");
 		PrimitiveFilterProcessor processor = null;
 		for (Class<? extends PrimitiveFilterProcessor> processorClass : processorClasses) {
 			try {
@@ -33,6 +33,7 @@ import org.meveo.security.MeveoUser;
 import org.meveo.service.admin.impl.UserService;
 import org.meveo.service.audit.AuditOrigin;
 import org.meveo.service.crm.impl.CustomFieldInstanceService;
+import org.meveo.service.monitoring.MetricsRegistry;
 import org.meveo.util.ApplicationProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -88,6 +89,9 @@ public abstract class Job {
     @Inject
     private AuditOrigin auditOrigin;
 
+    @Inject
+    private MetricsRegistry metricsRegistry;
+
     private static Logger log = LoggerFactory.getLogger(Job.class);
 
     /**
@@ -115,8 +119,10 @@ public abstract class Job {
                     customFieldInstanceService.getCFValue(jobInstance, "nbRuns", false));
 
             try {
+                long start = metricsRegistry.start();
                 execute(executionResult, jobInstance, params);
                 executionResult.close();
+                recordMetrics(jobInstance, executionResult, start);
 
                 log.trace("Job {} of type {} executed. Persisting job execution results", jobInstance.getCode(), jobInstance.getJobTemplate());
 
@@ -148,6 +154,17 @@ public abstract class Job {
 
     }
 
+    private void recordMetrics(JobInstance jobInstance, JobExecutionResultImpl executionResult, long start) {
+        if (start == 0) {
+            return;
+        }
+
+        metricsRegistry.stop(MetricsRegistry.JOB_TIME, start, "job", jobInstance.getCode());
+        metricsRegistry.increment(MetricsRegistry.JOB_ITEMS, executionResult.getNbItemsCorrectlyProcessed(), "job", jobInstance.getCode(), "status", "ok");
+        metricsRegistry.increment(MetricsRegistry.JOB_ITEMS, executionResult.getNbItemsProcessedWithWarning(), "job", jobInstance.getCode(), "status", "warning");
+        metricsRegistry.increment(MetricsRegistry.JOB_ITEMS, executionResult.getNbItemsProcessedWithError(), "job", jobInstance.getCode(), "status", "error");
+    }
+
     /**
      * Execute job instance with results published to a given job execution result entity. Executed in Asynchronous mode.
      *
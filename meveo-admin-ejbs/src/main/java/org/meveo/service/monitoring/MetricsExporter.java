@@ -0,0 +1,189 @@
+/*
+ * (C) Copyright 2018-2019 Webdrone SAS (https://www.webdrone.fr/) and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. This program is
+ * not suitable for any direct or indirect application in MILITARY industry See the GNU Affero
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.meveo.service.monitoring;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.Lock;
+import javax.ejb.LockType;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.inject.Inject;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.meveo.service.technicalservice.endpoint.EndpointCacheContainer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Exports the recorded metrics, along with the endpoint pools usage, in the Prometheus text format and through JMX.
+ */
+@Singleton
+@Startup
+@Lock(LockType.READ)
+public class MetricsExporter {
+
+	private static Logger log = LoggerFactory.getLogger(MetricsExporter.class);
+
+	private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	@Inject
+	private MetricsRegistry metricsRegistry;
+
+	@Inject
+	private EndpointCacheContainer endpointCacheContainer;
+
+	private ObjectName objectName;
+
+	@PostConstruct
+	private void init() {
+		try {
+			MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+			objectName = new ObjectName("org.meveo:type=Metrics");
+			if (!mBeanServer.isRegistered(objectName)) {
+				mBeanServer.registerMBean(new MetricsMXBeanImpl(), objectName);
+			}
+		} catch (Exception e) {
+			log.warn("Failed to register metrics MBean", e);
+			objectName = null;
+		}
+	}
+
+	@PreDestroy
+	private void destroy() {
+		if (objectName != null) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+			} catch (Exception e) {
+				log.warn("Failed to unregister metrics MBean", e);
+			}
+		}
+	}
+
+	/**
+	 * @return the metrics in the Prometheus text exposition format
+	 */
+	public String toPrometheus() {
+		StringBuilder text = new StringBuilder();
+		collect(new SampleWriter() {
+
+			@Override
+			public void type(String name, String type) {
+				text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+			}
+
+			@Override
+			public void sample(String name, String labels, double value) {
+				text.append(name);
+				if (!labels.isEmpty()) {
+					text.append('{').append(labels).append('}');
+				}
+				text.append(' ').append(value).append('\n');
+			}
+		});
+		return text.toString();
+	}
+
+	/**
+	 * @return the current value of each metric, keyed by metric name and labels
+	 */
+	public Map<String, Double> getMetrics() {
+		Map<String, Double> metrics = new LinkedHashMap<>();
+		collect(new SampleWriter() {
+
+			@Override
+			public void type(String name, String type) {
+				// Not needed
+			}
+
+			@Override
+			public void sample(String name, String labels, double value) {
+				metrics.put(labels.isEmpty() ? name : name + "{" + labels + "}", value);
+			}
+		});
+		return metrics;
+	}
+
+	private void collect(SampleWriter writer) {
+		metricsRegistry.getTimers().forEach((name, timers) -> {
+			writer.type(name, "summary");
+			timers.forEach((labels, timer) -> {
+				writer.sample(name + "_count", labels, timer.getCount());
+				writer.sample(name + "_sum", labels, timer.getTotal() / NANOS_PER_SECOND);
+			});
+			writer.type(name + "_max", "gauge");
+			timers.forEach((labels, timer) -> writer.sample(name + "_max", labels, timer.getMax() / NANOS_PER_SECOND));
+		});
+
+		metricsRegistry.getCounters().forEach((name, counters) -> {
+			writer.type(name, "counter");
+			counters.forEach((labels, counter) -> writer.sample(name, labels, counter.sum()));
+		});
+
+		// Samples of a metric family must be written together, after its type
+		Map<String, Double> activeInPools = new LinkedHashMap<>();
+		Map<String, Double> idleInPools = new LinkedHashMap<>();
+		for (String endpointCode : endpointCacheContainer.getPooledEndpoints()) {
+			String labels = MetricsRegistry.formatLabels("endpoint", endpointCode);
+			try {
+				double active = endpointCacheContainer.getNbActiveInPool(endpointCode);
+				double idle = endpointCacheContainer.getNbIdleInPool(endpointCode);
+				activeInPools.put(labels, active);
+				idleInPools.put(labels, idle);
+			} catch (RuntimeException e) {
+				// Pool removed in the meantime
+				log.trace("Pool of endpoint {} is not available", endpointCode, e);
+			}
+		}
+
+		writer.type("meveo_endpoint_pool_active", "gauge");
+		activeInPools.forEach((labels, value) -> writer.sample("meveo_endpoint_pool_active", labels, value));
+		writer.type("meveo_endpoint_pool_idle", "gauge");
+		idleInPools.forEach((labels, value) -> writer.sample("meveo_endpoint_pool_idle", labels, value));
+	}
+
+	private interface SampleWriter {
+
+		void type(String name, String type);
+
+		void sample(String name, String labels, double value);
+	}
+
+	private class MetricsMXBeanImpl implements MetricsMXBean {
+
+		@Override
+		public boolean isEnabled() {
+			return metricsRegistry.isEnabled();
+		}
+
+		@Override
+		public void setEnabled(boolean enabled) {
+			metricsRegistry.setEnabled(enabled);
+		}
+
+		@Override
+		public Map<String, Double> getMetrics() {
+			return MetricsExporter.this.getMetrics();
+		}
+	}
+}
@@ -0,0 +1,41 @@
+/*
+ * (C) Copyright 2018-2019 Webdrone SAS (https://www.webdrone.fr/) and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. This program is
+ * not suitable for any direct or indirect application in MILITARY industry See the GNU Affero
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.meveo.service.monitoring;
+
+import java.util.Map;
+
+/**
+ * JMX view of the metrics, registered as org.meveo:type=Metrics
+ */
+public interface MetricsMXBean {
+
+	/**
+	 * @return whether metrics are recorded
+	 */
+	boolean isEnabled();
+
+	/**
+	 * @param enabled whether metrics are recorded
+	 */
+	void setEnabled(boolean enabled);
+
+	/**
+	 * @return the current value of each metric, keyed by metric name and labels
+	 */
+	Map<String, Double> getMetrics();
+
+}
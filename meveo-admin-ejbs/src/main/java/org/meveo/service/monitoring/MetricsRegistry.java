@@ -0,0 +1,210 @@
+/*
+ * (C) Copyright 2018-2019 Webdrone SAS (https://www.webdrone.fr/) and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. This program is
+ * not suitable for any direct or indirect application in MILITARY industry See the GNU Affero
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.meveo.service.monitoring;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+
+import org.meveo.commons.utils.ParamBean;
+
+/**
+ * Timers and counters of the application hot paths, exported by {@link MetricsExporter}.
+ * <p>
+ * A metric is identified by its name and its labels, given as name / value pairs. When metrics are disabled with the
+ * metrics.enabled property, {@link #start()} returns 0 and nothing is recorded, so that instrumented code only pays
+ * for a volatile read. This is a plain CDI bean rather than an EJB so that recording does not go through the EJB
+ * container.
+ */
+@ApplicationScoped
+public class MetricsRegistry {
+
+	/** Duration of the storage implementation calls, by storage and operation */
+	public static final String CROSS_STORAGE_TIME = "meveo_cross_storage_seconds";
+
+	/** Duration of the script executions, by script */
+	public static final String SCRIPT_TIME = "meveo_script_execution_seconds";
+
+	/** Time between the reception of an endpoint request and the start of its script, by endpoint */
+	public static final String ENDPOINT_QUEUE_TIME = "meveo_endpoint_queue_seconds";
+
+	/** Duration of the endpoint script executions, by endpoint */
+	public static final String ENDPOINT_EXECUTION_TIME = "meveo_endpoint_execution_seconds";
+
+	/** Template cache lookups, by cache and result */
+	public static final String CACHE_REQUESTS = "meveo_cache_requests_total";
+
+	/** Duration of the job runs, by job instance */
+	public static final String JOB_TIME = "meveo_job_execution_seconds";
+
+	/** Items processed by the jobs, by job instance and status */
+	public static final String JOB_ITEMS = "meveo_job_items_total";
+
+	private volatile boolean enabled;
+
+	private final Map<String, Map<String, Timer>> timers = new ConcurrentHashMap<>();
+
+	private final Map<String, Map<String, LongAdder>> counters = new ConcurrentHashMap<>();
+
+	@PostConstruct
+	private void init() {
+		enabled = Boolean.parseBoolean(ParamBean.getInstance().getProperty("metrics.enabled", "true"));
+	}
+
+	/**
+	 * @return whether metrics are recorded
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * @param enabled whether metrics are recorded
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * @return the start time to pass to {@link #stop(String, long, String...)}, 0 if metrics are disabled
+	 */
+	public long start() {
+		return enabled ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Record the time elapsed since a start time
+	 *
+	 * @param name   name of the timer
+	 * @param start  start time, as returned by {@link #start()} or {@link System#nanoTime()}
+	 * @param labels label names and values
+	 */
+	public void stop(String name, long start, String... labels) {
+		if (start == 0 || !enabled) {
+			return;
+		}
+
+		long duration = System.nanoTime() - start;
+		timers.computeIfAbsent(name, key -> new ConcurrentHashMap<>())
+			.computeIfAbsent(formatLabels(labels), key -> new Timer())
+			.record(duration);
+	}
+
+	/**
+	 * Increment a counter
+	 *
+	 * @param name   name of the counter
+	 * @param amount amount to add
+	 * @param labels label names and values
+	 */
+	public void increment(String name, long amount, String... labels) {
+		if (!enabled) {
+			return;
+		}
+
+		counters.computeIfAbsent(name, key -> new ConcurrentHashMap<>())
+			.computeIfAbsent(formatLabels(labels), key -> new LongAdder())
+			.add(amount);
+	}
+
+	/**
+	 * @return the timers by name, then by formatted labels
+	 */
+	public Map<String, Map<String, Timer>> getTimers() {
+		return Collections.unmodifiableMap(timers);
+	}
+
+	/**
+	 * @return the counters by name, then by formatted labels
+	 */
+	public Map<String, Map<String, LongAdder>> getCounters() {
+		return Collections.unmodifiableMap(counters);
+	}
+
+	/**
+	 * Format labels the way Prometheus expects them, for instance <code>storage="SQL",operation="find"</code>
+	 *
+	 * @param labels label names and values
+	 * @return the formatted labels
+	 */
+	static String formatLabels(String... labels) {
+		StringBuilder formatted = new StringBuilder();
+		for (int i = 0; i + 1 < labels.length; i += 2) {
+			if (formatted.length() > 0) {
+				formatted.append(',');
+			}
+			formatted.append(labels[i]).append("=\"");
+			String value = labels[i + 1] != null ? labels[i + 1] : "";
+			for (int c = 0; c < value.length(); c++) {
+				char character = value.charAt(c);
+				if (character == '\\' || character == '"') {
+					formatted.append('\\').append(character);
+				} else if (character == '\n') {
+					formatted.append("\\n");
+				} else {
+					formatted.append(character);
+				}
+			}
+			formatted.append('"');
+		}
+		return formatted.toString();
+	}
+
+	/**
+	 * Number, total and maximum duration of timed calls
+	 */
+	public static class Timer {
+
+		private final LongAdder count = new LongAdder();
+
+		private final LongAdder total = new LongAdder();
+
+		private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+		private void record(long duration) {
+			count.increment();
+			total.add(duration);
+			max.accumulate(duration);
+		}
+
+		/**
+		 * @return number of timed calls
+		 */
+		public long getCount() {
+			return count.sum();
+		}
+
+		/**
+		 * @return total duration of the calls, in nanoseconds
+		 */
+		public long getTotal() {
+			return total.sum();
+		}
+
+		/**
+		 * @return longest call, in nanoseconds
+		 */
+		public long getMax() {
+			return max.get();
+		}
+	}
+}
@@ -238,10 +238,11 @@ public class DefaultObserver {
 			// thus
 			// will not be related to inbound request.
 			if (notif instanceof ScriptNotification) {
-				NotificationHistory histo = notificationHistoryService.create(notif, entityOrEvent, (String) context.get(Script.RESULT_VALUE), NotificationHistoryStatusEnum.SENT);
-
-				if (notif.getEventTypeFilter() == NotificationEventTypeEnum.INBOUND_REQ && histo != null) {
+				if (notif.getEventTypeFilter() == NotificationEventTypeEnum.INBOUND_REQ) {
+					NotificationHistory histo = notificationHistoryService.create(notif, entityOrEvent, (String) context.get(Script.RESULT_VALUE), NotificationHistoryStatusEnum.SENT);
 					((InboundRequest) entityOrEvent).add(histo);
+				} else {
+					notificationHistoryService.record(notif, entityOrEvent, (String) context.get(Script.RESULT_VALUE), NotificationHistoryStatusEnum.SENT);
 				}
 
 			} else if (notif instanceof EmailNotification) {
@@ -274,9 +275,11 @@ public class DefaultObserver {
 		} catch (Exception e1) {
 			log.error("Error while firing notification {} ", notif.getCode(), e1);
 			try {
-				NotificationHistory notificationHistory = notificationHistoryService.create(notif, entityOrEvent, e1.getMessage(), NotificationHistoryStatusEnum.FAILED);
 				if (entityOrEvent instanceof InboundRequest) {
+					NotificationHistory notificationHistory = notificationHistoryService.create(notif, entityOrEvent, e1.getMessage(), NotificationHistoryStatusEnum.FAILED);
 					((InboundRequest) entityOrEvent).add(notificationHistory);
+				} else {
+					notificationHistoryService.record(notif, entityOrEvent, e1.getMessage(), NotificationHistoryStatusEnum.FAILED);
 				}
 			} catch (Exception e2) {
 				log.error("Failed to create notification history", e2);
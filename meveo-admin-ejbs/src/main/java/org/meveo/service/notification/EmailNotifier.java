@@ -5,6 +5,8 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.ejb.Asynchronous;
 import javax.ejb.Stateless;
@@ -40,8 +42,12 @@ public class EmailNotifier {
     @Inject
     private CurrentUserProvider currentUserProvider;
 
+    @Inject
+    private EmailNotifier self;
+
     /**
-     * Send email message as fired notification result
+     * Send email message as fired notification result. The email is sent in the background, its outcome is recorded by
+     * {@link #recordResult} once known.
      * 
      * @param notification Email type notification that was fired
      * @param entityOrEvent Entity or event that triggered notification
@@ -75,16 +81,45 @@ public class EmailNotifier {
             if (notification.getEmails() != null) {
                 to.addAll(notification.getEmails());
             }
-            emailSender.send(notification.getEmailFrom(), Arrays.asList(notification.getEmailFrom()), to, subject, body, htmlBody);
-            notificationHistoryService.create(notification, entityOrEvent, "", NotificationHistoryStatusEnum.SENT);
+            emailSender.sendAsync(notification.getEmailFrom(), Arrays.asList(notification.getEmailFrom()), to, null, null, subject, body, htmlBody, null, null)
+                .whenComplete((result, error) -> self.recordResult(notification, entityOrEvent, error, lastCurrentUser));
+
         } catch (Exception e) {
             try {
                 log.error("Error occured when sending email", e);
-                notificationHistoryService.create(notification, entityOrEvent, e.getMessage(),
+                notificationHistoryService.record(notification, entityOrEvent, e.getMessage(),
                     e instanceof MessagingException ? NotificationHistoryStatusEnum.TO_RETRY : NotificationHistoryStatusEnum.FAILED);
             } catch (BusinessException e2) {
                 log.error("Failed to create notification history", e2);
             }
         }
     }
+
+    /**
+     * Record the outcome of an email notification
+     * 
+     * @param notification Email type notification that was fired
+     * @param entityOrEvent Entity or event that triggered notification
+     * @param error Sending failure, null if the email was sent
+     * @param lastCurrentUser Current user at the time the notification was fired
+     */
+    public void recordResult(EmailNotification notification, Object entityOrEvent, Throwable error, MeveoUser lastCurrentUser) {
+
+        currentUserProvider.reestablishAuthentication(lastCurrentUser);
+
+        try {
+            if (error == null) {
+                notificationHistoryService.record(notification, entityOrEvent, "", NotificationHistoryStatusEnum.SENT);
+                return;
+            }
+
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            log.error("Error occured when sending email", cause);
+            boolean retry = cause instanceof MessagingException || cause instanceof RejectedExecutionException;
+            notificationHistoryService.record(notification, entityOrEvent, cause.getMessage(), retry ? NotificationHistoryStatusEnum.TO_RETRY : NotificationHistoryStatusEnum.FAILED);
+
+        } catch (BusinessException e) {
+            log.error("Failed to create notification history", e);
+        }
+    }
 }
@@ -91,11 +91,11 @@ public class InstantMessagingNotifier {
             case YAHOO_MESSENGER:
                 break;
             }
-            notificationHistoryService.create(notification, entityOrEvent, "", NotificationHistoryStatusEnum.SENT);
+            notificationHistoryService.record(notification, entityOrEvent, "", NotificationHistoryStatusEnum.SENT);
 
         } catch (Exception e) {
             try {
-                notificationHistoryService.create(notification, entityOrEvent, e.getMessage(), NotificationHistoryStatusEnum.FAILED);
+                notificationHistoryService.record(notification, entityOrEvent, e.getMessage(), NotificationHistoryStatusEnum.FAILED);
             } catch (BusinessException e2) {
                 log.error("Failed to create notification history", e2);
             }
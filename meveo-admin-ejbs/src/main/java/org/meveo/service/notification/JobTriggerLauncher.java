@@ -63,11 +63,11 @@ public class JobTriggerLauncher {
             
             log.debug("launch jobTrigger:{} launched", jobTrigger);
 
-            notificationHistoryService.create(jobTrigger, entityOrEvent, "", NotificationHistoryStatusEnum.SENT);
+            notificationHistoryService.record(jobTrigger, entityOrEvent, "", NotificationHistoryStatusEnum.SENT);
 
         } catch (Exception e) {
             try {
-                notificationHistoryService.create(jobTrigger, entityOrEvent, e.getMessage(), NotificationHistoryStatusEnum.FAILED);
+                notificationHistoryService.record(jobTrigger, entityOrEvent, e.getMessage(), NotificationHistoryStatusEnum.FAILED);
             } catch (BusinessException e2) {
                 log.error("Failed to create notification history", e2);
             }
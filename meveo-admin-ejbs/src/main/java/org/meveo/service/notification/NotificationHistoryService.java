@@ -1,8 +1,17 @@
 package org.meveo.service.notification;
 
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
 import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
 
+import org.hibernate.Session;
+
 import org.meveo.admin.exception.BusinessException;
 import org.meveo.event.IEvent;
 import org.meveo.exceptions.EntityDoesNotExistsException;
@@ -10,6 +19,7 @@ import org.meveo.model.IEntity;
 import org.meveo.model.notification.Notification;
 import org.meveo.model.notification.NotificationHistory;
 import org.meveo.model.notification.NotificationHistoryStatusEnum;
+import org.meveo.security.keycloak.CurrentUserProvider;
 import org.meveo.service.base.PersistenceService;
 
 /**
@@ -18,7 +28,77 @@ import org.meveo.service.base.PersistenceService;
  */
 @Stateless
 public class NotificationHistoryService extends PersistenceService<NotificationHistory> {
-	
+
+    @Inject
+    private NotificationHistoryWriter notificationHistoryWriter;
+
+    @Inject
+    private CurrentUserProvider currentUserProvider;
+
+    /**
+     * Record the outcome of a fired notification, if the history retention of the notification keeps it. The record is written in
+     * the background, unless the notification history writer is disabled. Use {@link #create(Notification, Object, String, NotificationHistoryStatusEnum)}
+     * when the record must be persisted right away, like to link it to an inbound request.
+     * 
+     * @param notification notification which will put on history
+     * @param entityOrEvent entity or event
+     * @param result result of notification
+     * @param status status of notification history status.
+     * @throws BusinessException business exception.
+     */
+    public void record(Notification notification, Object entityOrEvent, String result, NotificationHistoryStatusEnum status) throws BusinessException {
+        if (!isRetained(notification, status)) {
+            notificationHistoryWriter.skip();
+            return;
+        }
+
+        if (!notificationHistoryWriter.isActive()) {
+            create(notification, entityOrEvent, result, status);
+            return;
+        }
+
+        // The notification is resolved when the record is written
+        NotificationHistory history = newHistory(notification, entityOrEvent, result, status);
+        history.updateAudit(currentUser);
+        notificationHistoryWriter.offer(currentUser.getProviderCode(), history);
+    }
+
+    /**
+     * Write a batch of queued notification history records in a new transaction, with the inserts sent in JDBC batches
+     * 
+     * @param providerCode provider the notifications were fired in
+     * @param histories notification history records
+     * @param batchSize JDBC batch size
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public void create(String providerCode, List<NotificationHistory> histories, int batchSize) {
+        currentUserProvider.forceAuthentication(null, providerCode);
+
+        EntityManager em = getEntityManager();
+        em.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        for (NotificationHistory history : histories) {
+            history.setNotification(em.getReference(Notification.class, history.getNotification().getId()));
+            em.persist(history);
+        }
+        em.flush();
+    }
+
+    private static boolean isRetained(Notification notification, NotificationHistoryStatusEnum status) {
+        if (status != NotificationHistoryStatusEnum.SENT || notification.getHistoryRetention() == null) {
+            return true;
+        }
+
+        switch (notification.getHistoryRetention()) {
+        case ERRORS_ONLY:
+            return false;
+        case SAMPLED:
+            int sampleRate = notification.getHistorySampleRate() == null ? 1 : notification.getHistorySampleRate();
+            return sampleRate <= 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0;
+        default:
+            return true;
+        }
+    }
+
     /**
      * @param notification notification which will put on history
      * @param entityOrEvent entity or event
@@ -28,6 +108,21 @@ public class NotificationHistoryService extends PersistenceService<NotificationH
      * @throws BusinessException business exception.
      */
     public NotificationHistory create(Notification notification, Object entityOrEvent, String result, NotificationHistoryStatusEnum status) throws BusinessException {
+        // Get reference to the notification in database
+        try {
+        	notification = getEntityManager().getReference(Notification.class, notification.getId());
+        } catch (EntityNotFoundException e) {
+        	throw new EntityDoesNotExistsException(notification);
+        }
+
+        NotificationHistory history = newHistory(notification, entityOrEvent, result, status);
+        create(history);
+
+        return history;
+
+    }
+
+    private static NotificationHistory newHistory(Notification notification, Object entityOrEvent, String result, NotificationHistoryStatusEnum status) {
         IEntity<?> entity = null;
 
         if (entityOrEvent instanceof IEntity) {
@@ -35,14 +130,6 @@ public class NotificationHistoryService extends PersistenceService<NotificationH
         } else if (entityOrEvent instanceof IEvent) {
             entity = ((IEvent) entityOrEvent).getEntity();
         }
-        
-        
-        // Get reference to the notification in database
-        try {
-        	notification = getEntityManager().getReference(Notification.class, notification.getId());
-        } catch (EntityNotFoundException e) {
-        	throw new EntityDoesNotExistsException(notification);
-        }
 
         NotificationHistory history = new NotificationHistory();
         history.setNotification(notification);
@@ -56,9 +143,6 @@ public class NotificationHistoryService extends PersistenceService<NotificationH
             history.setSerializedEntity(entityOrEvent.toString());
         }
 
-        create(history);
-
         return history;
-
     }
 }
\ No newline at end of file
@@ -0,0 +1,303 @@
+package org.meveo.service.notification;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.Lock;
+import javax.ejb.LockType;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.enterprise.concurrent.ManagedThreadFactory;
+import javax.inject.Inject;
+
+import org.meveo.commons.utils.ParamBean;
+import org.meveo.model.notification.NotificationHistory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded in-memory queue of notification history records, written by a background worker in JDBC batches. Fired notifications
+ * only pay for queuing the record. Records are dropped, and counted as such, when the queue is full.
+ * <p>
+ * Configured with the properties :
+ * <ul>
+ * <li>notification.history.queue.capacity : maximum number of queued records, 0 to write records synchronously. Default 10000.</li>
+ * <li>notification.history.batchSize : maximum number of records written in one transaction. Default 100.</li>
+ * </ul>
+ */
+@Singleton
+@Startup
+@Lock(LockType.READ)
+public class NotificationHistoryWriter {
+
+	private static final Logger log = LoggerFactory.getLogger(NotificationHistoryWriter.class);
+
+	@Resource
+	private ManagedThreadFactory threadFactory;
+
+	@Inject
+	private NotificationHistoryService notificationHistoryService;
+
+	private BlockingQueue<QueuedHistory> queue;
+
+	private int batchSize;
+
+	private volatile boolean running;
+
+	private Thread worker;
+
+	private final AtomicLong queuedRecords = new AtomicLong();
+
+	private final AtomicLong writtenRecords = new AtomicLong();
+
+	private final AtomicLong droppedRecords = new AtomicLong();
+
+	private final AtomicLong failedRecords = new AtomicLong();
+
+	private final AtomicLong skippedRecords = new AtomicLong();
+
+	private volatile long lastDelay;
+
+	private volatile long maxDelay;
+
+	public NotificationHistoryWriter() {
+
+	}
+
+	/**
+	 * Constructor used outside of the container, records are only written through {@link #write(String, List)}
+	 *
+	 * @param notificationHistoryService service writing the records
+	 * @param batchSize                  maximum number of records written in one transaction
+	 */
+	NotificationHistoryWriter(NotificationHistoryService notificationHistoryService, int batchSize) {
+		this.notificationHistoryService = notificationHistoryService;
+		this.batchSize = Math.max(1, batchSize);
+	}
+
+	@PostConstruct
+	private void init() {
+		ParamBean paramBean = ParamBean.getInstance();
+		int capacity = Integer.parseInt(paramBean.getProperty("notification.history.queue.capacity", "10000"));
+		batchSize = Math.max(1, Integer.parseInt(paramBean.getProperty("notification.history.batchSize", "100")));
+
+		if (capacity <= 0) {
+			log.info("Notification history is written synchronously");
+			return;
+		}
+
+		queue = new ArrayBlockingQueue<>(capacity);
+		running = true;
+		worker = threadFactory.newThread(this::drain);
+		worker.setName("meveo-notification-history-writer");
+		worker.start();
+
+		log.info("Notification history is queued, capacity {}, batch size {}", capacity, batchSize);
+	}
+
+	/**
+	 * Stop the worker once the queued records are written
+	 */
+	@PreDestroy
+	private void shutdown() {
+		if (worker == null) {
+			return;
+		}
+
+		running = false;
+		try {
+			worker.join(TimeUnit.SECONDS.toMillis(30));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		if (!queue.isEmpty()) {
+			droppedRecords.addAndGet(queue.size());
+			log.warn("{} notification history records were not written before shutdown", queue.size());
+		}
+	}
+
+	/**
+	 * @return true if records are queued, false if they must be written synchronously
+	 */
+	public boolean isActive() {
+		return running;
+	}
+
+	/**
+	 * Queue a notification history record. The record is dropped if the queue is full.
+	 *
+	 * @param providerCode provider the notification was fired in
+	 * @param history      notification history record
+	 * @return true if the record was queued
+	 */
+	public boolean offer(String providerCode, NotificationHistory history) {
+		if (queue.offer(new QueuedHistory(providerCode, history))) {
+			queuedRecords.incrementAndGet();
+			return true;
+		}
+
+		droppedRecords.incrementAndGet();
+		log.warn("Notification history queue is full, history of notification {} is dropped", history.getNotification().getCode());
+		return false;
+	}
+
+	/**
+	 * Count a record that was not kept because of the notification history retention
+	 */
+	public void skip() {
+		skippedRecords.incrementAndGet();
+	}
+
+	/**
+	 * Worker loop : wait for a record, then write it along with the other queued records, up to the batch size
+	 */
+	private void drain() {
+		List<QueuedHistory> batch = new ArrayList<>(batchSize);
+
+		while (running || !queue.isEmpty()) {
+			try {
+				QueuedHistory history = queue.poll(1, TimeUnit.SECONDS);
+				if (history == null) {
+					continue;
+				}
+
+				batch.add(history);
+				queue.drainTo(batch, batchSize - 1);
+				write(batch);
+
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	private void write(List<QueuedHistory> batch) {
+		long delay = System.currentTimeMillis() - batch.get(0).queuedAt;
+		lastDelay = delay;
+		if (delay > maxDelay) {
+			maxDelay = delay;
+		}
+
+		// Records are written in the context of their provider
+		Map<String, List<NotificationHistory>> historiesByProvider = new LinkedHashMap<>();
+		for (QueuedHistory history : batch) {
+			historiesByProvider.computeIfAbsent(history.providerCode, providerCode -> new ArrayList<>()).add(history.history);
+		}
+
+		historiesByProvider.forEach(this::write);
+	}
+
+	/**
+	 * Write the records of a provider in one transaction, or one by one if the transaction fails
+	 *
+	 * @param providerCode provider the notifications were fired in
+	 * @param histories    notification history records
+	 */
+	void write(String providerCode, List<NotificationHistory> histories) {
+		try {
+			notificationHistoryService.create(providerCode, histories, batchSize);
+			writtenRecords.addAndGet(histories.size());
+
+		} catch (Exception e) {
+			// A single invalid record, like one of a notification removed meanwhile, fails the whole batch : write them one by one
+			log.warn("Failed to write {} notification history records at once, writing them one by one", histories.size(), e);
+			for (NotificationHistory history : histories) {
+				// The rolled back transaction already assigned an id, the record would be taken as detached
+				history.setId(null);
+				history.setVersion(null);
+				try {
+					notificationHistoryService.create(providerCode, List.of(history), 1);
+					writtenRecords.incrementAndGet();
+
+				} catch (Exception e1) {
+					failedRecords.incrementAndGet();
+					log.error("Failed to write history of notification {}", history.getNotification().getCode(), e1);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return number of records currently in the queue
+	 */
+	public int getQueueSize() {
+		return queue != null ? queue.size() : 0;
+	}
+
+	/**
+	 * @return number of records queued since startup
+	 */
+	public long getQueuedRecords() {
+		return queuedRecords.get();
+	}
+
+	/**
+	 * @return number of records written since startup
+	 */
+	public long getWrittenRecords() {
+		return writtenRecords.get();
+	}
+
+	/**
+	 * @return number of records dropped because the queue was full, or not written before shutdown, since startup
+	 */
+	public long getDroppedRecords() {
+		return droppedRecords.get();
+	}
+
+	/**
+	 * @return number of records that failed to be written since startup
+	 */
+	public long getFailedRecords() {
+		return failedRecords.get();
+	}
+
+	/**
+	 * @return number of records not kept because of the notification history retention since startup
+	 */
+	public long getSkippedRecords() {
+		return skippedRecords.get();
+	}
+
+	/**
+	 * @return time in milliseconds the oldest record of the last written batch spent in the queue
+	 */
+	public long getLastDelay() {
+		return lastDelay;
+	}
+
+	/**
+	 * @return maximum time in milliseconds a record spent in the queue since startup
+	 */
+	public long getMaxDelay() {
+		return maxDelay;
+	}
+
+	private static class QueuedHistory {
+
+		private final String providerCode;
+
+		private final NotificationHistory history;
+
+		private final long queuedAt = System.currentTimeMillis();
+
+		private QueuedHistory(String providerCode, NotificationHistory history) {
+			this.providerCode = providerCode;
+			this.history = history;
+		}
+	}
+}
@@ -0,0 +1,309 @@
+package org.meveo.service.notification;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.ejb.Lock;
+import javax.ejb.LockType;
+import javax.ejb.Singleton;
+import javax.enterprise.concurrent.ManagedExecutorService;
+
+import org.meveo.commons.utils.ParamBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * HTTP client shared by the webhooks. Connections are kept alive and reused between requests, the number of concurrent requests
+ * to a host and the number of pending requests are bounded, and failed requests are retried with an exponential backoff.
+ * <p>
+ * Configured with the properties :
+ * <ul>
+ * <li>webhook.connectTimeout : connection timeout in milliseconds. Default 5000.</li>
+ * <li>webhook.requestTimeout : response timeout in milliseconds. Default 30000.</li>
+ * <li>webhook.maxRequestsPerHost : maximum number of concurrent requests to a host, the others wait for their turn. Default 10.</li>
+ * <li>webhook.maxPendingRequests : maximum number of requests waiting or in progress, the others are rejected. Default 1000.</li>
+ * <li>webhook.maxRetries : number of retries on connection errors, timeouts, 429 and 5xx responses. Default 3.</li>
+ * <li>webhook.retryBackoff : delay before the first retry in milliseconds, doubled on each retry. Default 500.</li>
+ * </ul>
+ */
+@Singleton
+@Lock(LockType.READ)
+public class WebHookClient {
+
+	private static Logger log = LoggerFactory.getLogger(WebHookClient.class);
+
+	@Resource
+	private ManagedExecutorService executor;
+
+	private HttpClient httpClient;
+
+	private Executor deliveryExecutor;
+
+	private Duration requestTimeout;
+
+	private int maxRequestsPerHost;
+
+	private Semaphore pendingRequests;
+
+	private int maxRetries;
+
+	private long retryBackoff;
+
+	private final Map<String, HostLimiter> hostLimiters = new ConcurrentHashMap<>();
+
+	private final Map<String, WebHookStatistics> statistics = new ConcurrentHashMap<>();
+
+	public WebHookClient() {
+
+	}
+
+	/**
+	 * Constructor used outside of the container
+	 *
+	 * @param executor           executor running the deliveries
+	 * @param connectTimeout     connection timeout
+	 * @param requestTimeout     response timeout
+	 * @param maxRequestsPerHost maximum number of concurrent requests to a host
+	 * @param maxPendingRequests maximum number of requests waiting or in progress
+	 * @param maxRetries         number of retries
+	 * @param retryBackoff       delay before the first retry in milliseconds
+	 */
+	WebHookClient(Executor executor, Duration connectTimeout, Duration requestTimeout, int maxRequestsPerHost, int maxPendingRequests, int maxRetries, long retryBackoff) {
+		configure(executor, connectTimeout, requestTimeout, maxRequestsPerHost, maxPendingRequests, maxRetries, retryBackoff);
+	}
+
+	@PostConstruct
+	private void init() {
+		ParamBean paramBean = ParamBean.getInstance();
+		configure(executor,
+				Duration.ofMillis(Long.parseLong(paramBean.getProperty("webhook.connectTimeout", "5000"))),
+				Duration.ofMillis(Long.parseLong(paramBean.getProperty("webhook.requestTimeout", "30000"))),
+				Integer.parseInt(paramBean.getProperty("webhook.maxRequestsPerHost", "10")),
+				Integer.parseInt(paramBean.getProperty("webhook.maxPendingRequests", "1000")),
+				Integer.parseInt(paramBean.getProperty("webhook.maxRetries", "3")),
+				Long.parseLong(paramBean.getProperty("webhook.retryBackoff", "500")));
+	}
+
+	private void configure(Executor executor, Duration connectTimeout, Duration requestTimeout, int maxRequestsPerHost, int maxPendingRequests, int maxRetries, long retryBackoff) {
+		this.deliveryExecutor = executor;
+		this.requestTimeout = requestTimeout;
+		this.maxRequestsPerHost = Math.max(1, maxRequestsPerHost);
+		this.pendingRequests = new Semaphore(Math.max(1, maxPendingRequests));
+		this.maxRetries = Math.max(0, maxRetries);
+		this.retryBackoff = retryBackoff;
+		this.httpClient = HttpClient.newBuilder()
+				.connectTimeout(connectTimeout)
+				.followRedirects(HttpClient.Redirect.NORMAL)
+				.executor(executor)
+				.build();
+	}
+
+	/**
+	 * @param uri target of the request
+	 * @return a request builder with the configured response timeout
+	 */
+	public HttpRequest.Builder newRequest(URI uri) {
+		return HttpRequest.newBuilder(uri).timeout(requestTimeout);
+	}
+
+	/**
+	 * Send a request asynchronously, retrying it if needed
+	 *
+	 * @param webHookCode code of the webhook sending the request, used for the statistics
+	 * @param request     the request
+	 * @return the final response, or the last error. Fails with a {@link RejectedExecutionException} if too many requests are pending.
+	 */
+	public CompletableFuture<HttpResponse<String>> send(String webHookCode, HttpRequest request) {
+		WebHookStatistics webHookStatistics = statistics.computeIfAbsent(webHookCode, code -> new WebHookStatistics());
+
+		if (!pendingRequests.tryAcquire()) {
+			webHookStatistics.rejected.incrementAndGet();
+			return CompletableFuture.failedFuture(new RejectedExecutionException("Too many pending webhook requests"));
+		}
+
+		long start = System.nanoTime();
+		HostLimiter hostLimiter = hostLimiters.computeIfAbsent(request.uri().getHost() + ":" + request.uri().getPort(), host -> new HostLimiter(maxRequestsPerHost));
+		CompletableFuture<HttpResponse<String>> result = new CompletableFuture<>();
+		hostLimiter.submit(() -> attempt(request, 0, hostLimiter, webHookStatistics, result));
+
+		return result.whenComplete((response, error) -> {
+			pendingRequests.release();
+			webHookStatistics.record(response != null && response.statusCode() < 400, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		});
+	}
+
+	private void attempt(HttpRequest request, int retry, HostLimiter hostLimiter, WebHookStatistics webHookStatistics, CompletableFuture<HttpResponse<String>> result) {
+		CompletableFuture<HttpResponse<String>> pending;
+		try {
+			pending = httpClient.sendAsync(request, BodyHandlers.ofString());
+		} catch (RuntimeException e) {
+			hostLimiter.release();
+			result.completeExceptionally(e);
+			return;
+		}
+
+		pending.whenComplete((response, error) -> {
+			hostLimiter.release();
+
+			if (retry < maxRetries && isRetryable(response, error)) {
+				long delay = retryBackoff << retry;
+				log.debug("Retrying webhook request {} in {} ms", request.uri(), delay);
+				webHookStatistics.retries.incrementAndGet();
+				CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, deliveryExecutor)
+					.execute(() -> hostLimiter.submit(() -> attempt(request, retry + 1, hostLimiter, webHookStatistics, result)));
+
+			} else if (error != null) {
+				result.completeExceptionally(error);
+
+			} else {
+				result.complete(response);
+			}
+		});
+	}
+
+	private static boolean isRetryable(HttpResponse<String> response, Throwable error) {
+		if (error != null) {
+			Throwable cause = error.getCause() != null ? error.getCause() : error;
+			return cause instanceof IOException;
+		}
+
+		return response.statusCode() == 429 || response.statusCode() >= 500;
+	}
+
+	/**
+	 * @param webHookCode code of the webhook
+	 * @return the delivery statistics of the webhook, null if it did not send any request yet
+	 */
+	public WebHookStatistics getStatistics(String webHookCode) {
+		return statistics.get(webHookCode);
+	}
+
+	/**
+	 * @return the delivery statistics of the webhooks, by webhook code
+	 */
+	public Map<String, WebHookStatistics> getStatistics() {
+		return Collections.unmodifiableMap(statistics);
+	}
+
+	/**
+	 * Delivery counters of a webhook
+	 */
+	public static class WebHookStatistics {
+
+		private final AtomicLong sent = new AtomicLong();
+
+		private final AtomicLong failed = new AtomicLong();
+
+		private final AtomicLong rejected = new AtomicLong();
+
+		private final AtomicLong retries = new AtomicLong();
+
+		private final AtomicLong totalLatency = new AtomicLong();
+
+		private final AtomicLong maxLatency = new AtomicLong();
+
+		private void record(boolean success, long latency) {
+			(success ? sent : failed).incrementAndGet();
+			totalLatency.addAndGet(latency);
+			maxLatency.accumulateAndGet(latency, Math::max);
+		}
+
+		/**
+		 * @return number of requests that got a successful response
+		 */
+		public long getSent() {
+			return sent.get();
+		}
+
+		/**
+		 * @return number of requests that failed or got an error response, after the retries
+		 */
+		public long getFailed() {
+			return failed.get();
+		}
+
+		/**
+		 * @return number of requests rejected because too many requests were pending
+		 */
+		public long getRejected() {
+			return rejected.get();
+		}
+
+		/**
+		 * @return number of retries
+		 */
+		public long getRetries() {
+			return retries.get();
+		}
+
+		/**
+		 * @return average time between the sending of a request and its final response, in milliseconds
+		 */
+		public long getAverageLatency() {
+			long count = sent.get() + failed.get();
+			return count == 0 ? 0 : totalLatency.get() / count;
+		}
+
+		/**
+		 * @return longest time between the sending of a request and its final response, in milliseconds
+		 */
+		public long getMaxLatency() {
+			return maxLatency.get();
+		}
+	}
+
+	/**
+	 * Limits the number of concurrent requests to a host. Requests over the limit are started as soon as a running one completes.
+	 */
+	private static class HostLimiter {
+
+		private final Deque<Runnable> waiting = new ArrayDeque<>();
+
+		private int available;
+
+		private HostLimiter(int permits) {
+			this.available = permits;
+		}
+
+		private void submit(Runnable request) {
+			synchronized (this) {
+				if (available == 0) {
+					waiting.add(request);
+					return;
+				}
+				available--;
+			}
+			request.run();
+		}
+
+		private void release() {
+			Runnable next;
+			synchronized (this) {
+				next = waiting.poll();
+				if (next == null) {
+					available++;
+					return;
+				}
+			}
+			next.run();
+		}
+	}
+}
@@ -1,16 +1,17 @@
 package org.meveo.service.notification;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.URI;
 import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.ejb.Asynchronous;
 import javax.ejb.Stateless;
@@ -48,6 +49,14 @@ public class WebHookNotifier {
     @Inject
     private CurrentUserProvider currentUserProvider;
 
+    @Inject
+    private WebHookClient webHookClient;
+
+    @Inject
+    private WebHookNotifier self;
+
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
     private String evaluate(String expression, Object entityOrEvent, Map<String, Object> context) throws ELException {
         HashMap<Object, Object> userMap = new HashMap<Object, Object>();
         userMap.put("event", entityOrEvent);
@@ -69,7 +78,8 @@ public class WebHookNotifier {
     }
 
     /**
-     * Access web URL as fired notification result
+     * Access web URL as fired notification result. The request is handed to the shared {@link WebHookClient}, its outcome is
+     * recorded by {@link #handleResponse} once the final response is received.
      * 
      * @param webHook Webhook type notification that was fired
      * @param entityOrEvent Entity or event that triggered notification
@@ -83,7 +93,6 @@ public class WebHookNotifier {
         currentUserProvider.reestablishAuthentication(lastCurrentUser);
 
         log.debug("webhook sendRequest");
-        String result = "";
 
         try {
             String url = webHook.getHttpProtocol().name().toLowerCase() + "://" + webHook.getHost().replace("http://", "");
@@ -115,9 +124,7 @@ public class WebHookNotifier {
                 }
             }
             log.debug("webhook url: {}", url);
-            URL obj = new URL(url);
-
-            HttpURLConnection conn = (HttpURLConnection) obj.openConnection();
+            HttpRequest.Builder request = webHookClient.newRequest(URI.create(url));
 
             Map<String, String> headers = evaluateMap(webHook.getHeaders(), entityOrEvent, context);
             if (!StringUtils.isBlank(webHook.getUsername()) && !headers.containsKey("Authorization")) {
@@ -126,48 +133,78 @@ public class WebHookNotifier {
             }
 
             for (String key : headers.keySet()) {
-                conn.setRequestProperty(key, headers.get(key));
+                // Connection management headers are handled by the client
+                if (RESTRICTED_HEADERS.contains(key.toLowerCase())) {
+                    log.debug("webhook header {} ignored", key);
+                } else {
+                    request.header(key, headers.get(key));
+                }
             }
 
             if (WebHookMethodEnum.HTTP_GET == webHook.getHttpMethod()) {
-                conn.setRequestMethod("GET");
-            } else if (WebHookMethodEnum.HTTP_POST == webHook.getHttpMethod()) {
-                conn.setRequestMethod("POST");
-            } else if (WebHookMethodEnum.HTTP_PUT == webHook.getHttpMethod()) {
-                conn.setRequestMethod("PUT");
+                request.GET();
             } else if (WebHookMethodEnum.HTTP_DELETE == webHook.getHttpMethod()) {
-                conn.setRequestMethod("DELETE");
+                request.DELETE();
+            } else {
+                if (headers.keySet().stream().noneMatch("Content-Type"::equalsIgnoreCase)) {
+                    request.header("Content-Type", "application/x-www-form-urlencoded");
+                }
+                String method = WebHookMethodEnum.HTTP_PUT == webHook.getHttpMethod() ? "PUT" : "POST";
+                request.method(method, BodyPublishers.ofString(paramQuery, StandardCharsets.UTF_8));
             }
-            conn.setUseCaches(false);
-
-            if (WebHookMethodEnum.HTTP_GET != webHook.getHttpMethod() && WebHookMethodEnum.HTTP_DELETE != webHook.getHttpMethod()) {
-                conn.setDoOutput(true);
-                OutputStream os = conn.getOutputStream();
-                BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(os, "UTF-8"));
-                writer.write(paramQuery);
-                writer.flush();
-                writer.close();
-                os.close();
+
+            // Script and its parameters are read now, the entity may not be accessible any more once the response is received
+            String functionCode = webHook.getFunction() != null ? webHook.getFunction().getCode() : null;
+            Map<String, String> functionParams = functionCode != null ? new HashMap<>(webHook.getParams()) : null;
+
+            webHookClient.send(webHook.getCode(), request.build())
+                .whenComplete((response, error) -> self.handleResponse(webHook, entityOrEvent, functionCode, functionParams, response, error, lastCurrentUser));
+
+        } catch (Exception e) {
+            try {
+                log.debug("webhook business error : ", e);
+                notificationHistoryService.record(webHook, entityOrEvent, e.getMessage(),
+                    e instanceof IOException ? NotificationHistoryStatusEnum.TO_RETRY : NotificationHistoryStatusEnum.FAILED);
+            } catch (BusinessException e2) {
+                log.error("Failed to create notification history", e2);
+
             }
-            int responseCode = conn.getResponseCode();
-            BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-            String inputLine;
-            StringBuffer response = new StringBuffer();
+        }
+    }
 
-            while ((inputLine = in.readLine()) != null) {
-                response.append(inputLine);
+    /**
+     * Record the outcome of a webhook request and execute the webhook's script on success
+     * 
+     * @param webHook Webhook type notification that was fired
+     * @param entityOrEvent Entity or event that triggered notification
+     * @param functionCode Code of the script to execute on success, if any
+     * @param functionParams Script parameters, as EL expressions
+     * @param response Final response, null if the request failed
+     * @param error Request failure, null if a response was received
+     * @param lastCurrentUser Current user at the time the notification was fired
+     */
+    public void handleResponse(WebHook webHook, Object entityOrEvent, String functionCode, Map<String, String> functionParams, HttpResponse<String> response, Throwable error,
+            MeveoUser lastCurrentUser) {
+
+        currentUserProvider.reestablishAuthentication(lastCurrentUser);
+
+        try {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                log.debug("webhook request error : ", cause);
+                boolean retry = cause instanceof IOException || cause instanceof RejectedExecutionException;
+                notificationHistoryService.record(webHook, entityOrEvent, cause.getMessage(), retry ? NotificationHistoryStatusEnum.TO_RETRY : NotificationHistoryStatusEnum.FAILED);
+                return;
             }
-            in.close();
-            result = response.toString();
+
+            String result = response.body();
+            int responseCode = response.statusCode();
             if (responseCode != 200) {
-                try {
-                    log.debug("webhook httpStatus error : " + responseCode + " response=" + result);
-                    notificationHistoryService.create(webHook, entityOrEvent, "http error status=" + responseCode + " response=" + result, NotificationHistoryStatusEnum.FAILED);
-                } catch (BusinessException e2) {
-                    log.error("Failed to create webhook ", entityOrEvent);
-                }
+                log.debug("webhook httpStatus error : " + responseCode + " response=" + result);
+                notificationHistoryService.record(webHook, entityOrEvent, "http error status=" + responseCode + " response=" + result,
+                    responseCode >= 400 ? NotificationHistoryStatusEnum.TO_RETRY : NotificationHistoryStatusEnum.FAILED);
             } else {
-                if (webHook.getFunction() != null) {
+                if (functionCode != null) {
                     HashMap<Object, Object> userMap = new HashMap<Object, Object>();
                     userMap.put("event", entityOrEvent);
                     userMap.put("response", result);
@@ -175,30 +212,21 @@ public class WebHookNotifier {
                     try {
                         Map<String, Object> paramsEvaluated = new HashMap<String, Object>();
 
-                        for (@SuppressWarnings("rawtypes")
-                        Map.Entry entry : webHook.getParams().entrySet()) {
-                            paramsEvaluated.put((String) entry.getKey(), MeveoValueExpressionWrapper.evaluateExpression((String) entry.getValue(), userMap, String.class));
+                        for (Map.Entry<String, String> entry : functionParams.entrySet()) {
+                            paramsEvaluated.put(entry.getKey(), MeveoValueExpressionWrapper.evaluateExpression(entry.getValue(), userMap, String.class));
                         }
                         paramsEvaluated.put("response", result);
-                        scriptInstanceService.execute(webHook.getFunction().getCode(), paramsEvaluated);
+                        scriptInstanceService.execute(functionCode, paramsEvaluated);
 
                     } catch (Exception ee) {
-                        log.error("Failed to execute a script {}", webHook.getFunction().getCode(), ee);
+                        log.error("Failed to execute a script {}", functionCode, ee);
                     }
                 }
                 log.debug("webhook answer : " + result);
-                notificationHistoryService.create(webHook, entityOrEvent, result, NotificationHistoryStatusEnum.SENT);
-
-            }
-        } catch (Exception e) {
-            try {
-                log.debug("webhook business error : ", e);
-                notificationHistoryService.create(webHook, entityOrEvent, e.getMessage(),
-                    e instanceof IOException ? NotificationHistoryStatusEnum.TO_RETRY : NotificationHistoryStatusEnum.FAILED);
-            } catch (BusinessException e2) {
-                log.error("Failed to create notification history", e2);
-
+                notificationHistoryService.record(webHook, entityOrEvent, result, NotificationHistoryStatusEnum.SENT);
             }
+        } catch (BusinessException e) {
+            log.error("Failed to create notification history", e);
         }
     }
 }
@@ -73,7 +73,7 @@ class WebNotifier {
 		} catch (Exception e) {
 			try {
 				log.debug("WebNotification business error : ", e);
-				notificationHistoryService.create(webNotif, entityOrEvent, e.getMessage(),
+				notificationHistoryService.record(webNotif, entityOrEvent, e.getMessage(),
 						NotificationHistoryStatusEnum.FAILED);
 
 			} catch (BusinessException e2) {
@@ -88,7 +88,7 @@ class WebNotifier {
 		} catch (Exception e) {
 			try {
 				log.debug("WebNotification business error : ", e);
-				notificationHistoryService.create(webNotif, entityOrEvent, e.getMessage(),
+				notificationHistoryService.record(webNotif, entityOrEvent, e.getMessage(),
 						NotificationHistoryStatusEnum.FAILED);
 
 			} catch (BusinessException e2) {
@@ -0,0 +1,208 @@
+/*
+ * (C) Copyright 2018-2019 Webdrone SAS (https://www.webdrone.fr/) and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. This program is
+ * not suitable for any direct or indirect application in MILITARY industry See the GNU Affero
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.meveo.service.script;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.meveo.model.scripts.CustomScript;
+import org.meveo.model.scripts.MavenDependency;
+import org.meveo.model.scripts.ScriptInstance;
+import org.meveo.service.custom.CustomEntityTemplateService;
+import org.meveo.util.Version;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Freshness key of the script classes persisted in the classes directory.
+ * <p>
+ * The key is a SHA-256 of the script source, of its maven dependencies coordinates, of the keys of the scripts it
+ * imports, of the compiled classes of the custom entities it uses and of the platform classpath, and is stored next
+ * to the class file. A persisted class may be loaded as is only while its stored key matches the one computed from
+ * the current script definition.
+ */
+public final class CompiledScriptFingerprint {
+
+	private static final String EXTENSION = ".fingerprint";
+
+	private static final AtomicReference<String> PLATFORM_FINGERPRINT = new AtomicReference<>("");
+
+	private static final Pattern CUSTOM_ENTITY_PATTERN = Pattern.compile("org\\.meveo\\.model\\.customEntities\\.(\\w+)");
+
+	private static Logger log = LoggerFactory.getLogger(CompiledScriptFingerprint.class);
+
+	private CompiledScriptFingerprint() {
+
+	}
+
+	/**
+	 * Compute the fingerprint of the platform classpath from the application version and the name and size of each
+	 * library, so that a new build of the application or a WildFly upgrade invalidates the persisted classes. Paths and
+	 * modification dates are left out, as a compressed deployment is extracted to a new temporary directory on each
+	 * start.
+	 *
+	 * @param classpath the platform classpath, as built by {@link CustomScriptService#constructClassPath()}
+	 */
+	public static void initPlatformFingerprint(String classpath) {
+		String entries = Arrays.stream(classpath.split(File.pathSeparator))
+				.filter(entry -> !entry.isBlank())
+				.map(entry -> {
+					File file = new File(entry);
+					return file.isDirectory() ? file.getName() : file.getName() + ":" + file.length();
+				})
+				.sorted()
+				.collect(Collectors.joining("\n"));
+
+		PLATFORM_FINGERPRINT.set(sha256(Version.appVersion + ":" + Version.buildNumber + "\n" + entries));
+	}
+
+	/**
+	 * @param script the script
+	 * @return the freshness key of the script's compiled class
+	 */
+	public static String compute(CustomScript script) {
+		return compute(script, new HashSet<>());
+	}
+
+	/**
+	 * @param visited codes of the scripts importing this one, to stop on import cycles
+	 */
+	private static String compute(CustomScript script, Set<String> visited) {
+		visited.add(script.getCode());
+		String source = script.getScript() != null ? script.getScript() : "";
+		StringBuilder key = new StringBuilder(source);
+		key.append('\n').append(PLATFORM_FINGERPRINT.get());
+
+		if (script instanceof ScriptInstance) {
+			ScriptInstance scriptInstance = (ScriptInstance) script;
+			scriptInstance.getMavenDependenciesNullSafe()
+				.stream()
+				.map(MavenDependency::getCoordinates)
+				.sorted()
+				.forEach(coordinates -> key.append('\n').append(coordinates));
+
+			scriptInstance.getImportScriptInstancesNullSafe()
+				.stream()
+				.filter(imported -> !visited.contains(imported.getCode()))
+				.map(imported -> imported.getCode() + ":" + compute(imported, new HashSet<>(visited)))
+				.sorted()
+				.forEach(importedKey -> key.append('\n').append(importedKey));
+		}
+
+		// Compiled classes of the custom entities used by the script
+		Set<String> customEntities = new TreeSet<>();
+		Matcher matcher = CUSTOM_ENTITY_PATTERN.matcher(source);
+		while (matcher.find()) {
+			customEntities.add(matcher.group(1));
+		}
+		customEntities.forEach(cetCode -> key.append('\n').append(cetCode).append(':').append(getClassFingerprint(cetCode)));
+
+		return sha256(key.toString());
+	}
+
+	private static String getClassFingerprint(String cetCode) {
+		File classFile = new File(CustomEntityTemplateService.getClassesDir(null), "org/meveo/model/customEntities/" + cetCode + ".class");
+		if (!classFile.exists()) {
+			return "";
+		}
+		try {
+			return sha256(Files.readAllBytes(classFile.toPath()));
+		} catch (IOException e) {
+			log.warn("Can't read compiled class {}", classFile, e);
+			return "";
+		}
+	}
+
+	/**
+	 * @param script the script
+	 * @return true if the persisted class of the script was compiled from the current script definition
+	 */
+	public static boolean isUpToDate(CustomScript script) {
+		File file = getFile(script.getCode());
+		if (!file.exists()) {
+			return false;
+		}
+
+		try {
+			return compute(script).equals(Files.readString(file.toPath(), StandardCharsets.UTF_8).trim());
+		} catch (IOException e) {
+			log.warn("Can't read compiled script fingerprint {}", file, e);
+			return false;
+		}
+	}
+
+	/**
+	 * Store the freshness key of a script that was just compiled to the classes directory
+	 *
+	 * @param script the compiled script
+	 */
+	public static void store(CustomScript script) {
+		File file = getFile(script.getCode());
+		try {
+			file.getParentFile().mkdirs();
+			Files.writeString(file.toPath(), compute(script), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			log.warn("Can't write compiled script fingerprint {}", file, e);
+		}
+	}
+
+	/**
+	 * Remove the freshness key of a script, forcing its recompilation on next load
+	 *
+	 * @param scriptCode code of the script
+	 */
+	public static void remove(String scriptCode) {
+		try {
+			Files.deleteIfExists(getFile(scriptCode).toPath());
+		} catch (IOException e) {
+			log.warn("Can't remove compiled script fingerprint of {}", scriptCode, e);
+		}
+	}
+
+	private static File getFile(String className) {
+		return new File(CustomEntityTemplateService.getClassesDir(null), className.replace('.', File.separatorChar) + EXTENSION);
+	}
+
+	private static String sha256(String value) {
+		return sha256(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String sha256(byte[] value) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(value);
+			StringBuilder hex = new StringBuilder(hash.length * 2);
+			for (byte b : hash) {
+				hex.append(String.format("%02x", b));
+			}
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -517,6 +517,8 @@ public abstract class CustomScriptService<T extends CustomScript> extends Functi
                     File wildflyFolder = new File(cpt).getParentFile();
                     File moduleFolder = new File(wildflyFolder, "modules/system/layers/base");
                     addJarsToClassPath(moduleFolder);
+
+                    CompiledScriptFingerprint.initPlatformFingerprint(CLASSPATH_REFERENCE.get());
                 }
             }
         }
@@ -600,6 +602,8 @@ public abstract class CustomScriptService<T extends CustomScript> extends Functi
                 	throw new InvalidScriptException(message);
                 }
                 
+                javaScripts.forEach(CompiledScriptFingerprint::store);
+
         } catch (CharSequenceCompilerException e) {
             String errorMessage = "";
             List<Diagnostic<? extends JavaFileObject>> diagnosticList = e.getDiagnostics().getDiagnostics();
@@ -649,6 +653,9 @@ public abstract class CustomScriptService<T extends CustomScript> extends Functi
 
 
                     compiledScript = compileJavaSource(script.getScript(), testCompile);
+                    if (!testCompile) {
+                        CompiledScriptFingerprint.store(script);
+                    }
 
                 } catch (CharSequenceCompilerException e) {
                     staticLogger.error("Failed to compile script {}. Compilation errors:", script.getCode());
@@ -944,10 +951,23 @@ public abstract class CustomScriptService<T extends CustomScript> extends Functi
                     new CacheKeyStr(currentUser.getProviderCode(), scriptCode),
                     key -> {
                         Class<ScriptInterface> compiledScript = null;
-                        try {
-                            compiledScript = CharSequenceCompiler.getCompiledClass(scriptCode);
-                        } catch (ClassNotFoundException e) {
-                            T script = findByCode(scriptCode);
+                        T script = findByCode(scriptCode);
+
+                        // Reuse the persisted class unless the script or its classpath changed since it was compiled
+                        if (script == null || script.getSourceTypeEnum() != JAVA || CompiledScriptFingerprint.isUpToDate(script)) {
+                            try {
+                                if (script != null) {
+                                    addScriptDependencies(script);
+                                }
+                                compiledScript = CharSequenceCompiler.getCompiledClass(scriptCode);
+                            } catch (ClassNotFoundException e) {
+                                staticLogger.debug("No compiled class found for script {}", scriptCode);
+                            }
+                        } else {
+                            staticLogger.debug("Compiled class of script {} is outdated", scriptCode);
+                        }
+
+                        if (compiledScript == null) {
                             compiledScript = compileScript(script, false);
                         }
 
@@ -1140,6 +1160,7 @@ public abstract class CustomScriptService<T extends CustomScript> extends Functi
         super.clear(scriptCode);
         ALL_SCRIPT_INTERFACES.remove(new CacheKeyStr(currentUser.getProviderCode(), scriptCode));
         MeveoBeanManager.getInstance().removeBean(scriptCode);
+        CompiledScriptFingerprint.remove(scriptCode);
     }
 
     /**
@@ -48,6 +48,7 @@ import org.meveo.model.scripts.test.ExpectedOutput;
 import org.meveo.model.storage.Repository;
 import org.meveo.service.base.BusinessService;
 import org.meveo.service.job.JobInstanceService;
+import org.meveo.service.monitoring.MetricsRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -72,6 +73,9 @@ public abstract class FunctionService<T extends Function, E extends ScriptInterf
 
     @Inject
     private JobInstanceService jobInstanceService;
+
+    @Inject
+    private MetricsRegistry metricsRegistry;
     
     /**
      * Parse parameters encoded in URL like style param=value&amp;param=value.
@@ -283,26 +287,36 @@ public abstract class FunctionService<T extends Function, E extends ScriptInterf
         if (context == null) {
             context = new HashMap<>();
         }
+        long start = metricsRegistry.start();
         try {
-			if (withInitFinalize) engine.init(context);
-		} catch (Throwable e) {
-			throw new ScriptExecutionException(engine.getClass().getName(), "init", e);
-		}
-        
-        executeEngine(engine, context);
-
-        try {
-			if (withInitFinalize) engine.finalize(context);
-		} catch (Throwable e) {
-			throw new ScriptExecutionException(engine.getClass().getName(), "finalize", e);
-		}
-
-        try {
-        	return buildResultMap(engine, context);
-		} catch (Throwable e) {
-			throw new ScriptExecutionException(engine.getClass().getName(), "buildResultMap", e);
-		}
-        
+	        try {
+				if (withInitFinalize) engine.init(context);
+			} catch (Throwable e) {
+				throw new ScriptExecutionException(engine.getClass().getName(), "init", e);
+			}
+	        
+	        executeEngine(engine, context);
+	
+	        try {
+				if (withInitFinalize) engine.finalize(context);
+			} catch (Throwable e) {
+				throw new ScriptExecutionException(engine.getClass().getName(), "finalize", e);
+			}
+	
+	        try {
+	        	return buildResultMap(engine, context);
+			} catch (Throwable e) {
+				throw new ScriptExecutionException(engine.getClass().getName(), "buildResultMap", e);
+			}
+        } finally {
+			// Failed executions are timed too
+			if (start != 0) {
+				// Script classes are named after the script code, container proxies add a suffix after a '$'
+				String scriptCode = engine.getClass().getName();
+				int proxySuffix = scriptCode.indexOf('$');
+				metricsRegistry.stop(MetricsRegistry.SCRIPT_TIME, start, "script", proxySuffix > 0 ? scriptCode.substring(0, proxySuffix) : scriptCode);
+			}
+        }
     }
     
     protected void executeEngine(E engine, Map<String, Object> context) throws ScriptExecutionException{
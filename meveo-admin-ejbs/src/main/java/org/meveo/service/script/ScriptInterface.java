@@ -1,6 +1,7 @@
 package org.meveo.service.script;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.meveo.admin.exception.BusinessException;
@@ -34,6 +35,21 @@ public interface ScriptInterface {
 	 */
 	void execute(Map<String, Object> methodContext) throws BusinessException;
 
+	/**
+	 * Chunk processing - process a chunk of records at once, instead of calling
+	 * {@link #execute(Map)} for each of them. All the records of the chunk are
+	 * processed in the same transaction. Default implementation calls
+	 * {@link #execute(Map)} for each record.
+	 * 
+	 * @param methodContexts Method variables of each record of the chunk
+	 * @throws BusinessException business exception.
+	 */
+	default void executeBatch(List<Map<String, Object>> methodContexts) throws BusinessException {
+		for (Map<String, Object> methodContext : methodContexts) {
+			execute(methodContext);
+		}
+	}
+
 	/**
 	 * Batch processing - method to call at the end of script execution - after
 	 * execute() is called.
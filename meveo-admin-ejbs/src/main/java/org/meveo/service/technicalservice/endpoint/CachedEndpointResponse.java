@@ -0,0 +1,52 @@
+package org.meveo.service.technicalservice.endpoint;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Response of a synchronous GET endpoint kept in the endpoint response cache
+ *
+ * @see EndpointCacheContainer#getCachedResponse(String)
+ */
+public class CachedEndpointResponse implements Serializable {
+
+	private static final long serialVersionUID = -2180540530711428402L;
+
+	private final String etag;
+
+	private final String body;
+
+	private final String contentType;
+
+	private final Map<String, String> headers;
+
+	/**
+	 * @param etag        entity tag identifying the body
+	 * @param body        body of the response
+	 * @param contentType content type of the response
+	 * @param headers     headers set by the endpoint script, may be null
+	 */
+	public CachedEndpointResponse(String etag, String body, String contentType, Map<String, String> headers) {
+		this.etag = etag;
+		this.body = body;
+		this.contentType = contentType;
+		this.headers = headers == null ? new HashMap<>() : new HashMap<>(headers);
+	}
+
+	public String getEtag() {
+		return etag;
+	}
+
+	public String getBody() {
+		return body;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public Map<String, String> getHeaders() {
+		return headers;
+	}
+}
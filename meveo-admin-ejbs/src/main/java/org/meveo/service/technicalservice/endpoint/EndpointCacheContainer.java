@@ -24,6 +24,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 
 import javax.annotation.PostConstruct;
@@ -47,6 +48,7 @@ import org.meveo.elresolver.ELException;
 import org.meveo.event.qualifier.Created;
 import org.meveo.event.qualifier.Removed;
 import org.meveo.event.qualifier.Updated;
+import org.meveo.model.scripts.Function;
 import org.meveo.model.scripts.ScriptInstance;
 import org.meveo.model.technicalservice.endpoint.Endpoint;
 import org.meveo.model.technicalservice.endpoint.EndpointPool;
@@ -74,6 +76,12 @@ public class EndpointCacheContainer {
 	@Resource(lookup = "java:jboss/infinispan/cache/meveo/endpoints-results")
 	private Cache<String, PendingResult> pendingExecutions;
 
+	/**
+	 * Responses of the synchronous GET endpoints with a cache TTL, by key built from the endpoint code and the resolved request
+	 */
+	@Resource(lookup = "java:jboss/infinispan/cache/meveo/endpoints-responses")
+	private Cache<String, CachedEndpointResponse> cachedResponses;
+
 	@Inject
 	private EndpointService endpointService;
 
@@ -125,7 +133,54 @@ public class EndpointCacheContainer {
 		pendingExecutions.put(key, value);
 	}
 
+	/**
+	 * @param endpointCode code of the endpoint
+	 * @return the prefix of the keys of the cached responses of the endpoint
+	 */
+	public static String getResponseCacheKeyPrefix(String endpointCode) {
+		return endpointCode + "|";
+	}
+
+	/**
+	 * @param key key of the response, starting with {@link #getResponseCacheKeyPrefix(String)}
+	 * @return the cached response, or null if not cached or expired
+	 */
+	@Lock(LockType.READ)
+	public CachedEndpointResponse getCachedResponse(String key) {
+		return cachedResponses.get(key);
+	}
+
+	/**
+	 * Cache a response for the cache TTL of the endpoint
+	 *
+	 * @param endpoint endpoint that produced the response
+	 * @param key      key of the response, starting with {@link #getResponseCacheKeyPrefix(String)}
+	 * @param response response to cache
+	 */
+	@Lock(LockType.READ)
+	public void putCachedResponse(Endpoint endpoint, String key, CachedEndpointResponse response) {
+		cachedResponses.put(key, response, endpoint.getCacheTtl(), TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Remove the cached responses of an endpoint. The cache is local, so the responses cached by the other nodes are kept until they expire.
+	 *
+	 * @param endpointCode code of the endpoint
+	 */
+	public void invalidateCachedResponses(String endpointCode) {
+		String prefix = getResponseCacheKeyPrefix(endpointCode);
+		cachedResponses.keySet().removeIf(key -> key.startsWith(prefix));
+	}
+
+	public void invalidateCachedResponses(@Observes(during = TransactionPhase.AFTER_SUCCESS) @Updated Function function) {
+		endpointLoadingCache.values()
+				.stream()
+				.filter(endpoint -> endpoint.getService() != null && endpoint.getService().getId().equals(function.getId()))
+				.forEach(endpoint -> invalidateCachedResponses(endpoint.getCode()));
+	}
+
 	public void removeEndpoint(@Observes(during = TransactionPhase.AFTER_SUCCESS) @Removed Endpoint endpoint) {
+		invalidateCachedResponses(endpoint.getCode());
 		endpointLoadingCache.remove(endpoint.getCode());
 		if (endpoint.getPool() != null && endpoint.getPool().isUsePool()) {
 			var pool = endpointPool.remove(endpoint.getCode());
@@ -156,6 +211,7 @@ public class EndpointCacheContainer {
 	}
 
 	public void updateEndpoint(@Observes(during = TransactionPhase.AFTER_SUCCESS) @Updated Endpoint endpoint) {
+		invalidateCachedResponses(endpoint.getCode());
 		if(endpoint.isActive()) {
 			endpointLoadingCache.put(endpoint.getCode(), endpoint);
 		} else{
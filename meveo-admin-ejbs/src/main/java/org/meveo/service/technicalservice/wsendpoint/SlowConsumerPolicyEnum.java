@@ -0,0 +1,25 @@
+package org.meveo.service.technicalservice.wsendpoint;
+
+/**
+ * What to do with a message sent to a websocket session whose outbound queue is full.
+ *
+ * @see WebsocketSessionQueue
+ */
+public enum SlowConsumerPolicyEnum {
+
+	/**
+	 * The oldest queued message is dropped to make room
+	 */
+	DROP_OLDEST,
+
+	/**
+	 * The new message is dropped
+	 */
+	DROP_NEWEST,
+
+	/**
+	 * The session is closed and its queued messages are dropped
+	 */
+	CLOSE;
+
+}
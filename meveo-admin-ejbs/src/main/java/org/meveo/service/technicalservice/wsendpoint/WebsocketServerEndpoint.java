@@ -4,11 +4,12 @@ import java.io.IOException;
 import java.security.Principal;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 import javax.ejb.Stateless;
 import javax.inject.Inject;
@@ -64,26 +65,51 @@ public class WebsocketServerEndpoint {
 		this.userMessageCacheProvider = userMessageCacheProvider;
 	}
 
-	private static Map<String, List<Session>> activeSessionsByEndpointCode = new ConcurrentHashMap<>();
+	private static Map<String, Set<Session>> activeSessionsByEndpointCode = new ConcurrentHashMap<>();
+
+	/**
+	 * Sessions of the authenticated users, by endpoint code then by username
+	 */
+	private static Map<String, Map<String, Set<Session>>> activeSessionsByUsername = new ConcurrentHashMap<>();
+
+	private void addSession(String endpointName, Session session) {
+		activeSessionsByEndpointCode.computeIfAbsent(endpointName, k -> ConcurrentHashMap.newKeySet()).add(session);
+
+		String username = (String) session.getUserProperties().get("username");
+		if (username != null) {
+			activeSessionsByUsername.computeIfAbsent(endpointName, k -> new ConcurrentHashMap<>())
+				.computeIfAbsent(username, k -> ConcurrentHashMap.newKeySet())
+				.add(session);
+		}
+	}
 
 	private void removeSession(Session session) {
 		String endpointName = (String) session.getUserProperties().get("endpointName");
 		if(endpointName != null) {
-			List<Session> sessions = activeSessionsByEndpointCode.get(endpointName);
-			if (sessions != null && sessions.contains(session)) {
-				sessions.remove(session);
-				log.info("removed session for endpoint {}, remains {}",endpointName,sessions.size());
-			}
+			removeSession(endpointName, session);
 		} else {
-			for(List<Session> sessions : activeSessionsByEndpointCode.values()){
-				if (sessions != null && sessions.contains(session)) {
-					sessions.remove(session);
-					log.info("removed session, remains {}",sessions.size());
-				}
+			for(String code : activeSessionsByEndpointCode.keySet()){
+				removeSession(code, session);
 			}
 		}
 	}
 
+	private void removeSession(String endpointName, Session session) {
+		Set<Session> sessions = activeSessionsByEndpointCode.get(endpointName);
+		if (sessions != null && sessions.remove(session)) {
+			log.info("removed session for endpoint {}, remains {}",endpointName,sessions.size());
+		}
+
+		String username = (String) session.getUserProperties().get("username");
+		Map<String, Set<Session>> sessionsByUsername = activeSessionsByUsername.get(endpointName);
+		if (username != null && sessionsByUsername != null) {
+			sessionsByUsername.computeIfPresent(username, (k, userSessions) -> {
+				userSessions.remove(session);
+				return userSessions.isEmpty() ? null : userSessions;
+			});
+		}
+	}
+
 	@OnOpen
 	public void onOpen(Session session, EndpointConfig config, @PathParam("endpoint-name") String endpointName) {
 		String username = null;
@@ -109,17 +135,11 @@ public class WebsocketServerEndpoint {
 			throw new IllegalStateException("invalid ws endpoint, no function set.");
 		}
 		
-		List<Session> sessions = activeSessionsByEndpointCode.get(endpointName);
-		if (sessions == null) {
-			sessions = new ArrayList<>();
-			activeSessionsByEndpointCode.put(wsEndpoint.getCode(), sessions);
-			log.info("onOpen create session list for {}", wsEndpoint.getCode());
-		}
-		
 		session.getUserProperties().put("endpointName", endpointName);
 		if (username != null) {
 			session.getUserProperties().put("username", username);
 		}
+		WebsocketSessionQueue.of(session);
 		
 		Function service = wsEndpoint.getService();
 		FunctionService<?, ScriptInterface> functionService;
@@ -143,7 +163,7 @@ public class WebsocketServerEndpoint {
 		boolean success = websocketExecutionService.onOpen(session, config, wsEndpoint, executionEngine);
 		
 		if (success) {
-			sessions.add(session);
+			addSession(wsEndpoint.getCode(), session);
 		}
 
 	}
@@ -201,22 +221,14 @@ public class WebsocketServerEndpoint {
 		}
 
 		if(session.isOpen()){
-			List<String> removedMessages = new ArrayList<>();
 			Optional<List<String>> messages = userMessageCacheProvider.getAllUserMessagesFromCache(cacheKey);
-			if(messages.isPresent()){
-				List<String> cachedMessages = messages.get();
-				Iterator<String> cacheMsgIterator = cachedMessages.iterator();
-				try{
-					while (cacheMsgIterator.hasNext()) {
-						String cacheMessage = cacheMsgIterator.next();
-						session.getBasicRemote().sendText(cacheMessage);
-						cacheMsgIterator.remove();
-					}
-					userMessageCacheProvider.updateMessagesInCache(cacheKey, cachedMessages);
-				}catch(IOException e){
-					log.error("Error while sending cached messages to user");
-					e.printStackTrace();
-					userMessageCacheProvider.updateMessagesInCache(cacheKey, cachedMessages);
+			if(messages != null && messages.isPresent()){
+				// Messages are taken out of the cache and queued without waiting for them to be sent, those that can't be sent go back to the cache
+				List<String> cachedMessages = new ArrayList<>(messages.get());
+				userMessageCacheProvider.removeUserMessagesFromCache(cacheKey, cachedMessages);
+				WebsocketSessionQueue queue = WebsocketSessionQueue.of(session);
+				for (String cacheMessage : cachedMessages) {
+					queue.offer(cacheMessage, failedMessage -> userMessageCacheProvider.addUserMessageToCache(cacheKey, failedMessage));
 				}
 			}
 		}
@@ -233,69 +245,46 @@ public class WebsocketServerEndpoint {
 		if(username==null){
 			throw new RuntimeException("username is mandatory to send message");
 		}
-		List<Session> sessions = activeSessionsByEndpointCode.get(enpointCode);
+		Consumer<String> onFailure = null;
+		if (persistCacheKey != null && persistMessage) {
+			onFailure = failedMessage -> userMessageCacheProvider.addUserMessageToCache(persistCacheKey, failedMessage);
+		}
+		Map<String, Set<Session>> sessionsByUsername = activeSessionsByUsername.get(enpointCode);
+		Set<Session> sessions = sessionsByUsername != null ? sessionsByUsername.get(username) : null;
 		if(sessions!=null){
-			messageSent = false;
 			for (Session session : sessions) {
 				if (session.isOpen()) {
-					if (session.getUserProperties().get("username")!=null){
-						if(session.getUserProperties().get("username").equals(username)) {
-							session.getAsyncRemote().sendText(txtMessage);
-							messageSent = true;
-						}
-					} else {
-						log.warn("session {} has no username",session);
-					}
+					// A message that can't be queued or sent is persisted by the queue
+					WebsocketSessionQueue.of(session).offer(txtMessage, onFailure);
+					messageSent = true;
+				} else {
+					removeSession(enpointCode, session);
 				}
 			}
 		}
-		if(persistCacheKey != null && !messageSent && persistMessage){
-			userMessageCacheProvider.addUserMessageToCache(persistCacheKey, txtMessage);
+		if(onFailure != null && !messageSent){
+			onFailure.accept(txtMessage);
 		}
 	}
 
 	public void broadcastMessage(String id, String name, String data, Map<Object, Object> context) {
 		log.info("broadcastMessage activeSessionsByEndpointCode.count={}", activeSessionsByEndpointCode.size());
-		List<Session> sessions = activeSessionsByEndpointCode.get(name);
-		List<Session> listeningSessions = new ArrayList<>();
-		List<Session> sessionsToRemove = new ArrayList<>();
+		Set<Session> sessions = activeSessionsByEndpointCode.get(name);
+		if (sessions == null) {
+			return;
+		}
+		String txtMessage = "{\"id\":\"" + id + "\",\"name\":\"" + name + "\",\"data\":\"" + data + "\"}";
+		int removedSessions = 0;
 		for (Session session : sessions) {
 			if (session.isOpen()) {
-				if (session.getUserProperties().get("filterEL") == null
-						|| ((String) session.getUserProperties().get("filterEL")).isEmpty()) {
-					listeningSessions.add(session);
-				} else {
-					try {
-						Object res = null;// MeveoValueExpressionWrapper.evaluateExpression(
-						// (String)session.getUserProperties().get("filterEL"),
-						// context, Boolean.class);
-						boolean result = Boolean.TRUE;// (Boolean) res;
-						if (result) {
-							listeningSessions.add(session);
-						}
-
-					} catch (Exception e) {
-						throw new IllegalStateException("Expression " + session.getUserProperties().get("filterEL")
-								+ " do not evaluate to boolean");
-					}
-				}
+				WebsocketSessionQueue.of(session).offer(txtMessage, null);
 			} else {
-				sessionsToRemove.add(session);
-			}
-		}
-		if (listeningSessions.size() > 0) {
-			String txtMessage = "{\"id\":\"" + id + "\",\"name\":\"" + name + "\",\"data\":\"" + data + "\"}";
-			for (Session session : listeningSessions) {
-				if (session.isOpen()) {
-					session.getAsyncRemote().sendText(txtMessage);
-				} else {
-					sessionsToRemove.add(session);
-				}
+				removeSession(name, session);
+				removedSessions++;
 			}
 		}
-		if (sessionsToRemove.size() > 0) {
-			sessions.removeAll(sessionsToRemove);
-			log.info("garbage collected {} sessions, remains {}",sessionsToRemove.size(),sessions.size());
+		if (removedSessions > 0) {
+			log.info("garbage collected {} sessions, remains {}",removedSessions,sessions.size());
 		}
 	}
 
@@ -0,0 +1,212 @@
+package org.meveo.service.technicalservice.wsendpoint;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import javax.websocket.CloseReason;
+import javax.websocket.CloseReason.CloseCodes;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+
+import org.meveo.commons.utils.ParamBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded queue of the messages to send to a websocket session. Messages are sent asynchronously, one at a time, so a slow
+ * client only fills its own queue and never blocks the senders. When the queue is full, the configured
+ * {@link SlowConsumerPolicyEnum} applies.
+ * <p>
+ * Configured with the properties :
+ * <ul>
+ * <li>websocket.outboundQueue.capacity : maximum number of messages waiting to be sent to a session. Default 1000.</li>
+ * <li>websocket.slowConsumerPolicy : DROP_OLDEST, DROP_NEWEST or CLOSE. Default DROP_OLDEST.</li>
+ * </ul>
+ */
+public class WebsocketSessionQueue {
+
+	private static Logger log = LoggerFactory.getLogger(WebsocketSessionQueue.class);
+
+	/**
+	 * Session user property holding the queue of a session
+	 */
+	public static final String SESSION_PROPERTY = "outboundQueue";
+
+	private final Session session;
+
+	private final int capacity;
+
+	private final SlowConsumerPolicyEnum policy;
+
+	private final Deque<OutboundMessage> messages = new ArrayDeque<>();
+
+	private boolean sending;
+
+	private boolean closed;
+
+	private final AtomicLong droppedMessages = new AtomicLong();
+
+	/**
+	 * @param session  session to send the messages to
+	 * @param capacity maximum number of messages waiting to be sent
+	 * @param policy   what to do when the queue is full
+	 */
+	public WebsocketSessionQueue(Session session, int capacity, SlowConsumerPolicyEnum policy) {
+		this.session = session;
+		this.capacity = Math.max(1, capacity);
+		this.policy = policy;
+	}
+
+	/**
+	 * Get the queue of a session, creating it with the configured capacity and policy if needed
+	 *
+	 * @param session websocket session
+	 * @return the queue of the session
+	 */
+	public static WebsocketSessionQueue of(Session session) {
+		synchronized (session) {
+			WebsocketSessionQueue queue = (WebsocketSessionQueue) session.getUserProperties().get(SESSION_PROPERTY);
+			if (queue == null) {
+				ParamBean paramBean = ParamBean.getInstance();
+				queue = new WebsocketSessionQueue(session,
+						Integer.parseInt(paramBean.getProperty("websocket.outboundQueue.capacity", "1000")),
+						SlowConsumerPolicyEnum.valueOf(paramBean.getProperty("websocket.slowConsumerPolicy", SlowConsumerPolicyEnum.DROP_OLDEST.name())));
+				session.getUserProperties().put(SESSION_PROPERTY, queue);
+			}
+			return queue;
+		}
+	}
+
+	/**
+	 * Queue a message
+	 *
+	 * @param text      message to send
+	 * @param onFailure called with the message if it could not be sent or was dropped, may be null
+	 * @return false if the message was rejected right away because the session is closed or the queue is full
+	 */
+	public boolean offer(String text, Consumer<String> onFailure) {
+		OutboundMessage message = new OutboundMessage(text, onFailure);
+		List<OutboundMessage> dropped = new ArrayList<>();
+		OutboundMessage next = null;
+		boolean accepted = true;
+		boolean close = false;
+
+		synchronized (this) {
+			if (closed || !session.isOpen()) {
+				accepted = false;
+
+			} else if (messages.size() >= capacity) {
+				switch (policy) {
+				case DROP_NEWEST:
+					accepted = false;
+					break;
+
+				case CLOSE:
+					dropped.addAll(messages);
+					messages.clear();
+					closed = true;
+					close = true;
+					accepted = false;
+					break;
+
+				default:
+					dropped.add(messages.poll());
+					messages.add(message);
+				}
+
+			} else {
+				messages.add(message);
+			}
+
+			if (accepted && !sending) {
+				sending = true;
+				next = messages.poll();
+			}
+		}
+
+		if (!accepted) {
+			dropped.add(message);
+		}
+		dropped.forEach(this::drop);
+
+		if (close) {
+			log.warn("Closing websocket session {}, {} messages could not be sent in time", session.getId(), capacity);
+			try {
+				session.close(new CloseReason(CloseCodes.TRY_AGAIN_LATER, "Too many pending messages"));
+			} catch (IOException e) {
+				log.error("error while trying to close the websocket", e);
+			}
+		}
+
+		if (next != null) {
+			send(next);
+		}
+
+		return accepted;
+	}
+
+	private void send(OutboundMessage message) {
+		try {
+			session.getAsyncRemote().sendText(message.text, result -> onSent(message, result));
+		} catch (RuntimeException e) {
+			onSent(message, new SendResult(e));
+		}
+	}
+
+	private void onSent(OutboundMessage message, SendResult result) {
+		if (!result.isOK()) {
+			log.debug("Failed to send message to websocket session {} : {}", session.getId(), result.getException().getMessage());
+			drop(message);
+		}
+
+		OutboundMessage next;
+		synchronized (this) {
+			next = messages.poll();
+			if (next == null) {
+				sending = false;
+			}
+		}
+
+		if (next != null) {
+			send(next);
+		}
+	}
+
+	private void drop(OutboundMessage message) {
+		droppedMessages.incrementAndGet();
+		if (message.onFailure != null) {
+			message.onFailure.accept(message.text);
+		}
+	}
+
+	/**
+	 * @return number of messages waiting to be sent
+	 */
+	public synchronized int size() {
+		return messages.size();
+	}
+
+	/**
+	 * @return number of messages that were dropped or could not be sent
+	 */
+	public long getDroppedMessages() {
+		return droppedMessages.get();
+	}
+
+	private static class OutboundMessage {
+
+		private final String text;
+
+		private final Consumer<String> onFailure;
+
+		private OutboundMessage(String text, Consumer<String> onFailure) {
+			this.text = text;
+			this.onFailure = onFailure;
+		}
+	}
+}
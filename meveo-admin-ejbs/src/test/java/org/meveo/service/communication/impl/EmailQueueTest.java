@@ -0,0 +1,155 @@
+package org.meveo.service.communication.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.mail.Session;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EmailQueueTest {
+
+	private ServerSocket serverSocket;
+
+	private final AtomicInteger receivedEmails = new AtomicInteger();
+
+	/**
+	 * Number of DATA commands to answer with a temporary failure
+	 */
+	private final AtomicInteger failuresToSimulate = new AtomicInteger();
+
+	private Session session;
+
+	private ExecutorService retryExecutor;
+
+	private EmailQueue emailQueue;
+
+	@Before
+	public void setUp() throws Exception {
+		serverSocket = new ServerSocket(0);
+		Thread server = new Thread(this::acceptConnections);
+		server.setDaemon(true);
+		server.start();
+
+		Properties props = new Properties();
+		props.put("mail.smtp.host", "localhost");
+		props.put("mail.smtp.port", String.valueOf(serverSocket.getLocalPort()));
+		session = Session.getInstance(props);
+
+		retryExecutor = Executors.newSingleThreadExecutor();
+		emailQueue = new EmailQueue(Executors.defaultThreadFactory(), retryExecutor, 10, 1, 10, 30000, 2, 10);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		emailQueue.shutdown();
+		retryExecutor.shutdownNow();
+		serverSocket.close();
+	}
+
+	@Test
+	public void testEmailsShareConnection() throws Exception {
+		List<CompletableFuture<Void>> results = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			results.add(emailQueue.offer(session, newMessage("email " + i)));
+		}
+		CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+		Assert.assertEquals(3, receivedEmails.get());
+		Assert.assertEquals(3, emailQueue.getSentEmails());
+		Assert.assertEquals(1, emailQueue.getConnections());
+	}
+
+	@Test
+	public void testRetryOnTemporaryFailure() throws Exception {
+		failuresToSimulate.set(1);
+
+		emailQueue.offer(session, newMessage("retried email")).get(10, TimeUnit.SECONDS);
+
+		Assert.assertEquals(1, receivedEmails.get());
+		Assert.assertEquals(1, emailQueue.getRetries());
+		Assert.assertEquals(0, emailQueue.getFailedEmails());
+	}
+
+	private MimeMessage newMessage(String subject) throws Exception {
+		MimeMessage message = new MimeMessage(session);
+		message.setFrom(new InternetAddress("from@meveo.org"));
+		message.setRecipient(MimeMessage.RecipientType.TO, new InternetAddress("to@meveo.org"));
+		message.setSubject(subject);
+		message.setText("Hello");
+		return message;
+	}
+
+	private void acceptConnections() {
+		while (!serverSocket.isClosed()) {
+			try {
+				Socket socket = serverSocket.accept();
+				Thread client = new Thread(() -> handle(socket));
+				client.setDaemon(true);
+				client.start();
+			} catch (IOException e) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Minimal SMTP server conversation
+	 */
+	private void handle(Socket socket) {
+		try (Socket s = socket;
+				BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+				PrintWriter out = new PrintWriter(s.getOutputStream(), true)) {
+
+			reply(out, "220 localhost");
+			String line;
+			while ((line = in.readLine()) != null) {
+				String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+				switch (command) {
+				case "DATA":
+					reply(out, "354 End data with <CR><LF>.<CR><LF>");
+					while (!".".equals(in.readLine())) {
+						// Skip the message contents
+					}
+					if (failuresToSimulate.getAndDecrement() > 0) {
+						reply(out, "451 Try again later");
+					} else {
+						receivedEmails.incrementAndGet();
+						reply(out, "250 OK");
+					}
+					break;
+				case "QUIT":
+					reply(out, "221 Bye");
+					return;
+				default:
+					reply(out, "250 OK");
+				}
+			}
+		} catch (IOException e) {
+			// Connection closed by the client
+		}
+	}
+
+	private static void reply(PrintWriter out, String line) {
+		out.print(line + "\r\n");
+		out.flush();
+	}
+}
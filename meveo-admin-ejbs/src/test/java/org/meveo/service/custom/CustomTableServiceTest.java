@@ -0,0 +1,88 @@
+package org.meveo.service.custom;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.meveo.admin.exception.BusinessException;
+
+public class CustomTableServiceTest {
+
+	@BeforeClass
+	public static void configure() throws IOException {
+		// Business exceptions read the application configuration
+		File properties = File.createTempFile("meveo-admin", ".properties");
+		properties.deleteOnExit();
+		Files.write(properties.toPath(), "monitoring.sendException=false\n".getBytes(StandardCharsets.UTF_8));
+		System.setProperty("meveo-admin.properties", properties.getAbsolutePath());
+	}
+
+	@Test
+	public void testFailingLinesAreReportedWhenBatchFails() {
+		FakeCustomTableService service = new FakeCustomTableService();
+
+		List<Map<String, Object>> values = new ArrayList<>();
+		values.add(newRecord("valid 1"));
+		values.add(newRecord(FakeCustomTableService.INVALID));
+		values.add(newRecord("valid 2"));
+
+		try {
+			service.insertNewRecords("default", "table", values, Arrays.asList(2, 3, 4));
+			Assert.fail("Failing line was not reported");
+
+		} catch (BusinessException e) {
+			Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("Failed to import lines 3 into table table"));
+		}
+
+		Assert.assertEquals(2, service.inserted.size());
+	}
+
+	private static Map<String, Object> newRecord(String name) {
+		Map<String, Object> record = new HashMap<>();
+		record.put("name", name);
+		return record;
+	}
+
+	/**
+	 * Inserts the records like the container does : the batch is inserted in a single transaction, and the invalid record fails
+	 */
+	private static class FakeCustomTableService extends CustomTableService {
+
+		private static final String INVALID = "invalid";
+
+		private final List<Map<String, Object>> inserted = new ArrayList<>();
+
+		@Override
+		CustomTableService self() {
+			return this;
+		}
+
+		@Override
+		public void insertBatchInNewTx(String sqlConnectionCode, String tableName, List<Map<String, Object>> values) throws BusinessException {
+			// Nothing is inserted when the transaction rolls back
+			for (Map<String, Object> value : values) {
+				if (INVALID.equals(value.get("name"))) {
+					throw new BusinessException("Invalid record in batch");
+				}
+			}
+			inserted.addAll(values);
+		}
+
+		@Override
+		public void createInNewTx(String sqlConnectionCode, String tableName, Map<String, Object> values) throws BusinessException {
+			if (INVALID.equals(values.get("name"))) {
+				throw new BusinessException("Invalid record");
+			}
+			inserted.add(values);
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package org.meveo.service.monitoring;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MetricsRegistryTest {
+
+	@Test
+	public void testFormatLabels() {
+		Assert.assertEquals("storage=\"SQL\",operation=\"find\"", MetricsRegistry.formatLabels("storage", "SQL", "operation", "find"));
+		Assert.assertEquals("script=\"a\\\"b\\\\c\"", MetricsRegistry.formatLabels("script", "a\"b\\c"));
+		Assert.assertEquals("", MetricsRegistry.formatLabels());
+	}
+
+	@Test
+	public void testDisabled() {
+		MetricsRegistry metricsRegistry = new MetricsRegistry();
+		metricsRegistry.setEnabled(false);
+
+		long start = metricsRegistry.start();
+		metricsRegistry.stop(MetricsRegistry.SCRIPT_TIME, start, "script", "test");
+		metricsRegistry.increment(MetricsRegistry.CACHE_REQUESTS, 1, "cache", "test");
+
+		Assert.assertEquals(0, start);
+		Assert.assertTrue(metricsRegistry.getTimers().isEmpty());
+		Assert.assertTrue(metricsRegistry.getCounters().isEmpty());
+	}
+
+	@Test
+	public void testRecord() {
+		MetricsRegistry metricsRegistry = new MetricsRegistry();
+		metricsRegistry.setEnabled(true);
+
+		metricsRegistry.stop(MetricsRegistry.SCRIPT_TIME, metricsRegistry.start(), "script", "test");
+		metricsRegistry.stop(MetricsRegistry.SCRIPT_TIME, metricsRegistry.start(), "script", "test");
+		metricsRegistry.increment(MetricsRegistry.CACHE_REQUESTS, 3, "cache", "test");
+
+		Assert.assertEquals(2, metricsRegistry.getTimers().get(MetricsRegistry.SCRIPT_TIME).get("script=\"test\"").getCount());
+		Assert.assertEquals(3, metricsRegistry.getCounters().get(MetricsRegistry.CACHE_REQUESTS).get("cache=\"test\"").sum());
+	}
+}
@@ -0,0 +1,72 @@
+package org.meveo.service.notification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.persistence.PersistenceException;
+
+import org.hibernate.PersistentObjectException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.meveo.model.notification.Notification;
+import org.meveo.model.notification.NotificationHistory;
+
+public class NotificationHistoryWriterTest {
+
+	@Test
+	public void testValidRecordsAreWrittenWhenBatchFails() {
+		FakeNotificationHistoryService service = new FakeNotificationHistoryService();
+		NotificationHistoryWriter writer = new NotificationHistoryWriter(service, 10);
+
+		List<NotificationHistory> histories = new ArrayList<>();
+		histories.add(newHistory("valid 1"));
+		histories.add(newHistory("valid 2"));
+		histories.add(newHistory(FakeNotificationHistoryService.INVALID));
+		histories.add(newHistory("valid 3"));
+
+		writer.write("provider", histories);
+
+		Assert.assertEquals(3, service.written.size());
+		Assert.assertEquals(3, writer.getWrittenRecords());
+		Assert.assertEquals(1, writer.getFailedRecords());
+	}
+
+	private static NotificationHistory newHistory(String result) {
+		Notification notification = new Notification();
+		notification.setId(1L);
+		notification.setCode("notification");
+
+		NotificationHistory history = new NotificationHistory();
+		history.setNotification(notification);
+		history.setResult(result);
+		return history;
+	}
+
+	/**
+	 * Persists the records like the entity manager does : ids are assigned before the invalid record fails the transaction,
+	 * and a record with an id is taken as detached
+	 */
+	private static class FakeNotificationHistoryService extends NotificationHistoryService {
+
+		private static final String INVALID = "invalid";
+
+		private final AtomicLong sequence = new AtomicLong();
+
+		private final List<NotificationHistory> written = new ArrayList<>();
+
+		@Override
+		public void create(String providerCode, List<NotificationHistory> histories, int batchSize) {
+			for (NotificationHistory history : histories) {
+				if (history.getId() != null) {
+					throw new PersistentObjectException("detached entity passed to persist");
+				}
+				history.setId(sequence.incrementAndGet());
+				if (INVALID.equals(history.getResult())) {
+					throw new PersistenceException("Invalid record");
+				}
+			}
+			written.addAll(histories);
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package org.meveo.service.notification;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class WebHookClientTest {
+
+	private HttpServer server;
+
+	private ExecutorService executor;
+
+	private WebHookClient client;
+
+	private final AtomicInteger calls = new AtomicInteger();
+
+	@Before
+	public void setUp() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/ok", exchange -> {
+			calls.incrementAndGet();
+			byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, body.length);
+			exchange.getResponseBody().write(body);
+			exchange.close();
+		});
+		server.createContext("/unavailable", exchange -> {
+			// Fails on first call, succeeds on retry
+			int status = calls.incrementAndGet() == 1 ? 503 : 200;
+			exchange.sendResponseHeaders(status, -1);
+			exchange.close();
+		});
+		server.start();
+
+		executor = Executors.newFixedThreadPool(4);
+		client = new WebHookClient(executor, Duration.ofSeconds(2), Duration.ofSeconds(5), 2, 10, 2, 10);
+	}
+
+	@After
+	public void tearDown() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testSend() throws Exception {
+		HttpResponse<String> response = client.send("hook", client.newRequest(uri("/ok")).GET().build()).get(10, TimeUnit.SECONDS);
+
+		Assert.assertEquals(200, response.statusCode());
+		Assert.assertEquals("ok", response.body());
+		Assert.assertEquals(1, client.getStatistics("hook").getSent());
+		Assert.assertEquals(0, client.getStatistics("hook").getFailed());
+	}
+
+	@Test
+	public void testRetryOnUnavailable() throws Exception {
+		HttpResponse<String> response = client.send("hook", client.newRequest(uri("/unavailable")).GET().build()).get(10, TimeUnit.SECONDS);
+
+		Assert.assertEquals(200, response.statusCode());
+		Assert.assertEquals(2, calls.get());
+		Assert.assertEquals(1, client.getStatistics("hook").getRetries());
+		Assert.assertEquals(1, client.getStatistics("hook").getSent());
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://localhost:" + server.getAddress().getPort() + path);
+	}
+}
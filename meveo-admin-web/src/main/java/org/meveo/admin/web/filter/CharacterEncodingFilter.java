@@ -10,7 +10,7 @@ import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.annotation.WebFilter;
 
-@WebFilter(filterName = "characterEncodingFilter", urlPatterns = { "/*" })
+@WebFilter(filterName = "characterEncodingFilter", urlPatterns = { "/*" }, asyncSupported = true)
 public class CharacterEncodingFilter implements Filter {
 	private static final String ENCODING="UTF-8";
 
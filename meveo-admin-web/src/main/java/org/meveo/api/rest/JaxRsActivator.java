@@ -20,9 +20,9 @@ import org.meveo.api.rest.impl.BaseRs;
 import org.meveo.api.rest.monitoring.MonitoringRs;
 import org.meveo.api.rest.persistence.PersistenceRs;
 import org.meveo.api.rest.swagger.SwaggerApiDefinition;
+import org.meveo.commons.utils.ReflectionUtils;
 import org.meveo.service.communication.impl.SseManager;
 import org.meveo.util.Version;
-import org.reflections.Reflections;
 
 import io.swagger.jaxrs.listing.SwaggerSerializers;
 
@@ -36,8 +36,7 @@ public class JaxRsActivator extends Application {
 
 	public JaxRsActivator() {
 		if (resources == null) {
-			Reflections reflections = new Reflections("org.meveo.api.rest");
-			Set<Class<? extends BaseRs>> allClasses = reflections.getSubTypesOf(BaseRs.class);
+			Set<Class<? extends BaseRs>> allClasses = ReflectionUtils.getClassesThatExtends(BaseRs.class, "org.meveo.api.rest");
 
 			resources = new HashSet<>(allClasses);
 			resources.add(RESTCorsRequestFilter.class);
@@ -6,10 +6,16 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 
 import org.jboss.resteasy.annotations.cache.Cache;
 import org.meveo.api.rest.impl.BaseRs;
+import org.meveo.service.crm.impl.JSONSchemaDocument;
 import org.meveo.service.crm.impl.JSONSchemaGenerator;
 
 import io.swagger.annotations.Api;
@@ -31,17 +37,27 @@ public class OntologyRs extends BaseRs {
 	private JSONSchemaGenerator jsonSchemaGenerator;
 
 	/**
-	 * Returns a schema given the following filters.
+	 * Returns a schema given the following filters. The schema is served with an
+	 * ETag and must be revalidated, a not modified status is returned when it did
+	 * not change.
 	 * 
 	 * @param onlyActivated if is only activated
 	 * @param categoryCode  code of the category
+	 * @param request       request holding the preconditions
 	 * @return String schema representation
 	 */
 	@GET
-	@Cache(maxAge = 86400)
-	@ApiOperation("Finds a schema with the given filters")
-	public String getSchema(@DefaultValue("true") @QueryParam("onlyActivated") @ApiParam("Whether to only activated schema") boolean onlyActivated,
-			@QueryParam("category") @ApiParam("Code of the category") String categoryCode) {
-		return jsonSchemaGenerator.generateSchema("ontology", onlyActivated, categoryCode);
+	@Cache(maxAge = 0, mustRevalidate = true)
+	@ApiOperation(value = "Finds a schema with the given filters", response = String.class)
+	public Response getSchema(@DefaultValue("true") @QueryParam("onlyActivated") @ApiParam("Whether to only activated schema") boolean onlyActivated,
+			@QueryParam("category") @ApiParam("Code of the category") String categoryCode, @Context Request request) {
+		JSONSchemaDocument document = jsonSchemaGenerator.getSchemaDocument("ontology", onlyActivated, categoryCode);
+		EntityTag etag = new EntityTag(document.getEtag());
+
+		ResponseBuilder notModified = request.evaluatePreconditions(etag);
+		if (notModified != null) {
+			return notModified.tag(etag).build();
+		}
+		return Response.ok(document.getSchema()).tag(etag).build();
 	}
 }
@@ -11,6 +11,8 @@ import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 
+import org.meveo.service.monitoring.MetricsExporter;
+
 @Path("/monitoring")
 @Produces(MediaType.APPLICATION_JSON)
 public class MonitoringRs {
@@ -18,11 +20,21 @@ public class MonitoringRs {
 	@Inject
 	private PoolsRs poolsRs;
 	
+	@Inject
+	private MetricsExporter metricsExporter;
+	
 	@Path("pools")
 	public PoolsRs getPools() {
 		return poolsRs;
 	}
 	
+	@GET
+	@Path("metrics")
+	@Produces("text/plain; version=0.0.4")
+	public String getMetrics() {
+		return metricsExporter.toPrometheus();
+	}
+	
 	@GET
 	public Map<String, Object> getAll() {
 		return Map.of("pools", poolsRs);
@@ -1,5 +1,7 @@
 package org.meveo.api.rest.sql;
 
+import java.util.Map;
+
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
@@ -14,6 +16,7 @@ import org.meveo.api.dto.ActionStatus;
 import org.meveo.api.dto.response.sql.SqlConfigurationResponseDto;
 import org.meveo.api.dto.response.sql.SqlConfigurationsResponseDto;
 import org.meveo.api.dto.sql.SqlConfigurationDto;
+import org.meveo.api.exception.EntityDoesNotExistsException;
 import org.meveo.model.sql.SqlConfiguration;
 
 import io.swagger.annotations.Api;
@@ -102,4 +105,16 @@ public interface SqlConfigurationRs {
 	@ApiOperation("Initializes custom tables for the given configuration")
 	public void initialize(@PathParam("code") @ApiParam("Code of the configuration to initialize") String code);
 
+	/**
+	 * Gets the statistics of the connection pool of the given configuration
+	 * 
+	 * @param code Code of the configuration
+	 * @return the pool statistics, empty if no pool is opened for the configuration
+	 * @throws EntityDoesNotExistsException if the configuration does not exist
+	 */
+	@GET
+	@Path("/{code}/pool")
+	@ApiOperation("Gets the statistics of the connection pool of the given configuration")
+	public Map<String, Object> poolStatistics(@PathParam("code") @ApiParam("Code of the configuration") String code) throws EntityDoesNotExistsException;
+
 }
@@ -1,5 +1,7 @@
 package org.meveo.api.rest.sql.impl;
 
+import java.util.Map;
+
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
 import javax.interceptor.Interceptors;
@@ -10,6 +12,7 @@ import org.meveo.api.dto.ActionStatusEnum;
 import org.meveo.api.dto.response.sql.SqlConfigurationResponseDto;
 import org.meveo.api.dto.response.sql.SqlConfigurationsResponseDto;
 import org.meveo.api.dto.sql.SqlConfigurationDto;
+import org.meveo.api.exception.EntityDoesNotExistsException;
 import org.meveo.api.logging.WsRestApiInterceptor;
 import org.meveo.api.rest.impl.BaseCrudRs;
 import org.meveo.api.rest.sql.SqlConfigurationRs;
@@ -123,4 +126,9 @@ public class SqlConfigurationRsImpl extends BaseCrudRs<SqlConfiguration, SqlConf
 	public void initialize(String code) {
 		sqlConfigurationApi.initialize(code);
 	}
+
+	@Override
+	public Map<String, Object> poolStatistics(String code) throws EntityDoesNotExistsException {
+		return sqlConfigurationApi.getPoolStatistics(code);
+	}
 }
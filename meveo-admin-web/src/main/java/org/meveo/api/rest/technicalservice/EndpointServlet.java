@@ -29,10 +29,16 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.ejb.EJB;
 import javax.inject.Inject;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.ServletException;
 import javax.servlet.ServletOutputStream;
 import javax.servlet.annotation.MultipartConfig;
@@ -41,7 +47,9 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.Part;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.io.IOUtils;
 import org.json.JSONObject;
@@ -56,6 +64,7 @@ import org.meveo.model.technicalservice.endpoint.Endpoint;
 import org.meveo.model.technicalservice.endpoint.EndpointExecutionResult;
 import org.meveo.model.technicalservice.endpoint.EndpointHttpMethod;
 import org.meveo.model.technicalservice.endpoint.TSParameterMapping;
+import org.meveo.service.technicalservice.endpoint.CachedEndpointResponse;
 import org.meveo.service.technicalservice.endpoint.EndpointCacheContainer;
 import org.meveo.service.technicalservice.endpoint.EndpointResult;
 import org.meveo.service.technicalservice.endpoint.PendingResult;
@@ -75,7 +84,7 @@ import org.slf4j.LoggerFactory;
  * @author Edward P. Legaspi | edward.legaspi@manaty.net
  * @version 6.10
  */
-@WebServlet("/rest/*")
+@WebServlet(urlPatterns = "/rest/*", asyncSupported = true)
 @MultipartConfig
 public class EndpointServlet extends HttpServlet {
 
@@ -127,7 +136,7 @@ public class EndpointServlet extends HttpServlet {
                     .setMethod(EndpointHttpMethod.DELETE)
                     .createEndpointExecution();
 
-            doRequest(endpointExecution, true);
+            doRequest(req, endpointExecution, true);
         } catch (Exception e) {
             returnError(resp, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Internal Server Error", e.getMessage(), e.toString());
         }
@@ -163,7 +172,7 @@ public class EndpointServlet extends HttpServlet {
                 .setMethod(EndpointHttpMethod.PATCH)
                 .createEndpointExecution();
 
-            doRequest(endpointExecution, false);
+            doRequest(req, endpointExecution, false);
         } catch (Exception e) {
             returnError(resp, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Internal Server Error", e.getMessage(), e.toString());
         }
@@ -257,7 +266,7 @@ public class EndpointServlet extends HttpServlet {
                     .setMethod(EndpointHttpMethod.POST)
                     .createEndpointExecution();
 
-            doRequest(endpointExecution, false);
+            doRequest(req, endpointExecution, false);
         } catch (Exception e) {
             returnError(resp, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Error processing query", e.getMessage(), e.toString());
         }
@@ -271,7 +280,7 @@ public class EndpointServlet extends HttpServlet {
                     .setMethod(EndpointHttpMethod.GET)
                     .createEndpointExecution();
 
-            doRequest(endpointExecution, false);
+            doRequest(req, endpointExecution, false);
         } catch (Exception e) {
             returnError(resp, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Error processing query", e.getMessage(), e.toString());
         }
@@ -285,14 +294,14 @@ public class EndpointServlet extends HttpServlet {
                     .setMethod(EndpointHttpMethod.HEAD)
                     .createEndpointExecution();
 
-            doRequest(endpointExecution, false);
+            doRequest(req, endpointExecution, false);
         } catch (Exception e) {
             returnError(resp, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Error processing query", e.getMessage(), e.toString());
         }
     }
 
 
-    private void doRequest(EndpointExecution endpointExecution, boolean cancel) throws IOException {
+    private void doRequest(HttpServletRequest req, EndpointExecution endpointExecution, boolean cancel) throws IOException {
     	if (!startupListener.isStarted()) {
     		endpointExecution.getResp().setStatus(503);
     		return;
@@ -345,6 +354,7 @@ public class EndpointServlet extends HttpServlet {
             return;
         }
 
+        boolean asyncStarted = false;
         try {
             String uuidStr = endpointExecution.getPathInfo().split("/")[0];
             PendingResult pendingExecution = endpointCacheContainer.getPendingExecution(uuidStr);
@@ -354,27 +364,16 @@ public class EndpointServlet extends HttpServlet {
                     pendingExecution.getEngine().cancel();
                 }
 
-                // Wait for max delay if defined
-                long start = System.currentTimeMillis();
-                if (endpointExecution.getDelayMax() != null) {
-                    while (System.currentTimeMillis() - start < endpointExecution.getDelayUnit().toMillis(endpointExecution.getDelayMax())) {
-                        if (execResult.isDone()) {
-                            break;
-                        }
-                        Thread.sleep(10L);
-                    }
-                }
+                if (execResult.isDone()) {
+                    setPendingResponse(execResult.get(), uuidStr, endpointExecution);
+
+                } else if (endpointExecution.isWait() || endpointExecution.getDelayMax() != null) {
+                    // Wait for the execution to finish, or for max delay if defined, without holding the request thread
+                    asyncStarted = true;
+                    waitForPendingResult(req, pendingExecution.getResult(), uuidStr, endpointExecution);
 
-                if (execResult.isDone() || endpointExecution.isWait()) {
-                    EndpointResult endpointResult = execResult.get();
-                    setReponse(endpointResult.getResult(), endpointExecution);
-                    if (!endpointExecution.isKeep()) {
-                        log.info("Removing execution results with id {}", uuidStr);
-                        endpointCacheContainer.remove(uuidStr);
-                    }
                 } else {
-                    endpointExecution.getResp().getWriter().print("In progress");
-                    endpointExecution.getResp().setStatus(202);
+                    setInProgressResponse(endpointExecution);
                 }
             } else {
                 launchEndpoint(endpointExecution, endpoint);
@@ -383,13 +382,111 @@ public class EndpointServlet extends HttpServlet {
             log.error("Error while executing request", e);
             returnError(endpointExecution.getResp(), HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Error while executing request", e.getMessage(), e.toString());
         } finally {
-            if(endpointExecution.getResponse().getInputStream() == null) {
+            if(!asyncStarted && endpointExecution.getResponse().getInputStream() == null) {
                 endpointExecution.getResp().getWriter().flush();
                 endpointExecution.getResp().getWriter().close();
             }
         }
     }
 
+    /**
+     * Put the request in asynchronous mode until the pending execution completes or the max delay expires. No request thread
+     * is held while waiting, the response is written once the execution completes or on timeout.
+     *
+     * @param req               HTTP request
+     * @param result            pending execution result
+     * @param uuidStr           id of the pending execution
+     * @param endpointExecution endpoint execution
+     */
+    private void waitForPendingResult(HttpServletRequest req, CompletableFuture<EndpointResult> result, String uuidStr, EndpointExecution endpointExecution) {
+        AsyncContext asyncContext = req.startAsync(req, endpointExecution.getResp());
+        // Only the first of completion and timeout writes the response
+        AtomicBoolean responded = new AtomicBoolean();
+
+        // With the "Wait-For-Finish" header, the execution result is awaited whatever the max delay
+        if (endpointExecution.isWait()) {
+            asyncContext.setTimeout(0);
+        } else {
+            asyncContext.setTimeout(endpointExecution.getDelayUnit().toMillis(endpointExecution.getDelayMax()));
+        }
+
+        asyncContext.addListener(new AsyncListener() {
+
+            @Override
+            public void onTimeout(AsyncEvent event) throws IOException {
+                if (responded.compareAndSet(false, true)) {
+                    setInProgressResponse(endpointExecution);
+                    completeAsync(asyncContext, endpointExecution);
+                }
+            }
+
+            @Override
+            public void onError(AsyncEvent event) throws IOException {
+                // Client went away, nothing to respond
+                responded.set(true);
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) throws IOException {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) throws IOException {
+            }
+        });
+
+        result.whenComplete((endpointResult, error) -> {
+            if (!responded.compareAndSet(false, true)) {
+                return;
+            }
+
+            // Respond from a container thread rather than from the thread that completed the execution
+            asyncContext.start(() -> {
+                try {
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                        log.error("Error while executing request", cause);
+                        returnError(endpointExecution.getResp(), HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Error while executing request", cause.getMessage(), cause.toString());
+                    } else {
+                        setPendingResponse(endpointResult, uuidStr, endpointExecution);
+                    }
+
+                } catch (Exception e) {
+                    log.error("Error while writing response of execution {}", uuidStr, e);
+                    returnError(endpointExecution.getResp(), HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Error while executing request", e.getMessage(), e.toString());
+
+                } finally {
+                    completeAsync(asyncContext, endpointExecution);
+                }
+            });
+        });
+    }
+
+    private void completeAsync(AsyncContext asyncContext, EndpointExecution endpointExecution) {
+        try {
+            if (endpointExecution.getResponse().getInputStream() == null) {
+                endpointExecution.getResp().getWriter().flush();
+            }
+        } catch (IOException e) {
+            log.debug("Failed to flush endpoint response", e);
+        } finally {
+            asyncContext.complete();
+        }
+    }
+
+    private void setPendingResponse(EndpointResult endpointResult, String uuidStr, EndpointExecution endpointExecution) throws IOException {
+        setReponse(endpointResult.getResult(), endpointExecution);
+        if (!endpointExecution.isKeep()) {
+            log.info("Removing execution results with id {}", uuidStr);
+            endpointCacheContainer.remove(uuidStr);
+        }
+    }
+
+    private void setInProgressResponse(EndpointExecution endpointExecution) throws IOException {
+        endpointExecution.getResp().getWriter().print("In progress");
+        endpointExecution.getResp().setStatus(202);
+    }
+
     private void launchEndpoint(EndpointExecution endpointExecution, Endpoint endpoint) throws BusinessException, ExecutionException, InterruptedException, IOException {
         // Endpoint does not exists
         if (endpoint == null) {
@@ -406,11 +503,29 @@ public class EndpointServlet extends HttpServlet {
 
         // If endpoint is synchronous, execute the script straight and return the response
         if (endpoint.isSynchronous()) {
+            // A cached response is returned, or validated with its ETag, without executing the script
+            String cacheKey = endpointApi.getResponseCacheKey(endpoint, endpointExecution);
+            if (cacheKey != null) {
+                CachedEndpointResponse cachedResponse = endpointCacheContainer.getCachedResponse(cacheKey);
+                if (cachedResponse != null) {
+                    setCachedResponse(cachedResponse, endpointExecution);
+                    return;
+                }
+            }
+
             EndpointExecutionResult result = endpointApi.execute(endpoint, endpointExecution);
             if (result.getCriticalError() != null) {
             	result = endpointApi.execute(endpoint, endpointExecution);
             }
             String transformedResult = endpointApi.transformData(endpoint, result.getResults());
+
+            if (cacheKey != null && result.getCriticalError() == null && isCacheable(endpointExecution.getResponse())) {
+                CachedEndpointResponse cachedResponse = newCachedResponse(transformedResult, endpointExecution);
+                endpointCacheContainer.putCachedResponse(endpoint, cacheKey, cachedResponse);
+                setCachedResponse(cachedResponse, endpointExecution);
+                return;
+            }
+
             setReponse(transformedResult, endpointExecution);
             return;
         }
@@ -448,6 +563,58 @@ public class EndpointServlet extends HttpServlet {
 
     }
 
+    /**
+     * Only successful responses written by the endpoint script's result can be cached
+     */
+    private static boolean isCacheable(EndpointResponse response) {
+        return (response.getStatus() == null || response.getStatus() == HttpServletResponse.SC_OK) && response.getInputStream() == null
+                && StringUtils.isBlank(response.getErrorMessage());
+    }
+
+    private CachedEndpointResponse newCachedResponse(String transformedResult, EndpointExecution endpointExecution) {
+        String body = String.valueOf(transformedResult);
+        String contentType = endpointExecution.getResponse().getContentType();
+        if (StringUtils.isBlank(contentType)) {
+            contentType = endpointExecution.getEndpoint().getContentType();
+        }
+        return new CachedEndpointResponse("\"" + DigestUtils.sha256Hex(body) + "\"", body, contentType, endpointExecution.getResponse().getHeaders());
+    }
+
+    /**
+     * Write a cached response, or a 304 status if the client already has it
+     */
+    private void setCachedResponse(CachedEndpointResponse cachedResponse, EndpointExecution endpointExecution) throws IOException {
+        HttpServletResponse servletResponse = endpointExecution.getResp();
+        servletResponse.setHeader(HttpHeaders.ETAG, cachedResponse.getEtag());
+
+        if (matchesEtag(endpointExecution.getRequest().getHeader(HttpHeaders.IF_NONE_MATCH), cachedResponse.getEtag())) {
+            servletResponse.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        servletResponse.setStatus(HttpServletResponse.SC_OK);
+        servletResponse.setContentType(cachedResponse.getContentType());
+        cachedResponse.getHeaders().forEach(servletResponse::setHeader);
+        servletResponse.getWriter().print(cachedResponse.getBody());
+    }
+
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (StringUtils.isBlank(ifNoneMatch)) {
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void setReponse(String transformedResult, EndpointExecution endpointExecution) throws IOException {
         // HTTP Status
 
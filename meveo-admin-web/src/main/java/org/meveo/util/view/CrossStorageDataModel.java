@@ -18,6 +18,7 @@ import org.meveo.model.crm.CustomFieldTemplate;
 import org.meveo.model.customEntities.CustomEntityTemplate;
 import org.meveo.model.storage.Repository;
 import org.meveo.persistence.CrossStorageService;
+import org.meveo.service.base.RowCountCache;
 import org.meveo.service.crm.impl.CustomFieldTemplateService;
 import org.primefaces.model.LazyDataModel;
 import org.primefaces.model.SortOrder;
@@ -42,6 +43,8 @@ public abstract class CrossStorageDataModel extends LazyDataModel<Map<String, Ob
 	
 	private CustomFieldTemplateService cftService = CDI.current().select(CustomFieldTemplateService.class).get();
 
+	private RowCountCache rowCountCache = CDI.current().select(RowCountCache.class).get();
+
 	private static Logger log = LoggerFactory.getLogger(CrossStorageDataModel.class);
 
 	private Integer rowCount;
@@ -74,7 +77,10 @@ public abstract class CrossStorageDataModel extends LazyDataModel<Map<String, Ob
 		paginationConfig.setFetchFields(summaryFields);
 
 		try {
-			setRowCount(persistenceService.count(getRepository(), getCustomEntityTemplate(), paginationConfig));
+			// The count is cached until the custom entity template is written to, so that paging and sorting do not count again
+			setRowCount((int) rowCountCache.count(RowCountCache.getCetSource(getCustomEntityTemplate().getCode()),
+					getRepository().getCode() + "|" + RowCountCache.getSignature(paginationConfig.getFilters()),
+					() -> persistenceService.count(getRepository(), getCustomEntityTemplate(), paginationConfig)));
 
 			if (getRowCount() > 0) {
 				return persistenceService.find(getRepository(), getCustomEntityTemplate(), paginationConfig);
@@ -22,12 +22,15 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import javax.enterprise.inject.spi.CDI;
+
 import org.apache.commons.lang.StringUtils;
 import org.meveo.admin.util.pagination.PaginationConfiguration;
 import org.meveo.model.customEntities.CustomEntityTemplate;
 import org.meveo.model.persistence.sql.SQLStorageConfiguration;
 import org.meveo.model.sql.SqlConfiguration;
 import org.meveo.service.base.NativePersistenceService;
+import org.meveo.service.base.RowCountCache;
 import org.primefaces.model.LazyDataModel;
 import org.primefaces.model.SortOrder;
 
@@ -46,6 +49,16 @@ public abstract class NativeTableBasedDataModel extends LazyDataModel<Map<String
 
 	private Integer rowIndex;
 
+	/**
+	 * Whether the row count is the planner estimate of a large unfiltered table
+	 */
+	private boolean estimatedRowCount;
+
+	/**
+	 * Whether the rows must be counted exactly, even for a large unfiltered table
+	 */
+	private boolean exactRowCount;
+
 	@Override
 	public List<Map<String, Object>> load(int first, int pageSize, String sortField, SortOrder sortOrder, Map<String, Object> loadingFilters) {
 
@@ -136,14 +149,49 @@ public abstract class NativeTableBasedDataModel extends LazyDataModel<Map<String
 	}
 
 	/**
-	 * Determine a number of records matching search criteria
+	 * Determine a number of records matching search criteria. Large unfiltered
+	 * tables are not scanned, the estimate of the query planner is used unless
+	 * {@link #countExactly()} was called. Other counts are cached until the table
+	 * is written to.
 	 * 
 	 * @param paginationConfig PaginationConfiguration data holds
 	 *                         filtering/pagination information
 	 * @return A number of records matching search criteria
 	 */
 	protected int countRecords(PaginationConfiguration paginationConfig) {
-		return (int) getPersistenceServiceImpl().count(getSqlConnectionCode(), getTableName(), paginationConfig);
+		NativePersistenceService persistenceService = getPersistenceServiceImpl();
+		RowCountCache rowCountCache = CDI.current().select(RowCountCache.class).get();
+		estimatedRowCount = false;
+
+		if (!exactRowCount && !isFiltered(paginationConfig.getFilters())) {
+			Long estimate = persistenceService.estimateCount(getSqlConnectionCode(), getTableName());
+			if (estimate != null && estimate >= rowCountCache.getEstimateThreshold()) {
+				estimatedRowCount = true;
+				return (int) Math.min(estimate, Integer.MAX_VALUE);
+			}
+		}
+
+		return (int) rowCountCache.count(RowCountCache.getTableSource(getSqlConnectionCode(), getTableName()), RowCountCache.getSignature(paginationConfig.getFilters()),
+				() -> persistenceService.count(getSqlConnectionCode(), getTableName(), paginationConfig));
+	}
+
+	private static boolean isFiltered(Map<String, Object> filters) {
+		return filters != null && filters.values().stream().anyMatch(value -> value != null && !StringUtils.isBlank(value.toString()));
+	}
+
+	/**
+	 * Count the rows exactly from now on, instead of using the estimate of a
+	 * large unfiltered table
+	 */
+	public void countExactly() {
+		exactRowCount = true;
+	}
+
+	/**
+	 * @return true if the row count is the estimate of a large unfiltered table
+	 */
+	public boolean isEstimatedRowCount() {
+		return estimatedRowCount;
 	}
 
 	/**
@@ -22,9 +22,12 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import javax.enterprise.inject.spi.CDI;
+
 import org.apache.commons.lang.StringUtils;
 import org.meveo.admin.util.pagination.PaginationConfiguration;
 import org.meveo.model.IEntity;
+import org.meveo.service.base.RowCountCache;
 import org.meveo.service.base.local.IPersistenceService;
 import org.primefaces.model.LazyDataModel;
 import org.primefaces.model.SortOrder;
@@ -126,13 +129,16 @@ public abstract class ServiceBasedLazyDataModel<T extends IEntity> extends LazyD
     }
 
     /**
-     * Determine a number of records matching search criteria
+     * Determine a number of records matching search criteria. The count is cached until the entities are written to, so that
+     * paging and sorting do not count the records again.
      * 
      * @param paginationConfig PaginationConfiguration data holds filtering/pagination information
      * @return A number of records matching search criteria
      */
     protected int countRecords(PaginationConfiguration paginationConfig) {
-        return (int) getPersistenceServiceImpl().count(paginationConfig);
+        IPersistenceService<T> persistenceService = getPersistenceServiceImpl();
+        return (int) CDI.current().select(RowCountCache.class).get().count(RowCountCache.getEntitySource(persistenceService.getEntityClass()),
+            RowCountCache.getSignature(paginationConfig.getFilters()), () -> persistenceService.count(paginationConfig));
     }
 
     /**
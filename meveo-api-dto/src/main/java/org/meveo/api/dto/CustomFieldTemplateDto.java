@@ -211,6 +211,11 @@ public class CustomFieldTemplateDto extends BaseEntityDto {
     @JsonProperty("unique")
     @JsonAlias("isUnique")
     protected boolean isUnique = false;
+
+    /** Whether search indexes are maintained for the field in custom tables. */
+    @XmlElement
+    @ApiModelProperty("Whether the field is indexed for wildcard, prefix and case-insensitive searches in custom tables")
+    protected boolean searchable;
     
     /** The is filter. */
     @XmlElement
@@ -378,6 +383,7 @@ public class CustomFieldTemplateDto extends BaseEntityDto {
         identifier = cf.isIdentifier();
         isFilter = cf.isFilter();
         isUnique = cf.isUnique();
+        searchable = cf.isSearchable();
         storages = cf.getStoragesNullSafe();
         summary=cf.isSummary();
 
@@ -1002,6 +1008,24 @@ public class CustomFieldTemplateDto extends BaseEntityDto {
 		this.isUnique = isUnique;
 	}
 
+	/**
+	 * Checks if is searchable.
+	 *
+	 * @return true, if is searchable
+	 */
+	public boolean isSearchable() {
+		return searchable;
+	}
+
+	/**
+	 * Sets the searchable.
+	 *
+	 * @param searchable the new searchable
+	 */
+	public void setSearchable(boolean searchable) {
+		this.searchable = searchable;
+	}
+
 	/**
 	 * Checks if is filter.
 	 *
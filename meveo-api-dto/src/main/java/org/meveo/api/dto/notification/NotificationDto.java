@@ -13,6 +13,7 @@ import io.swagger.annotations.ApiModelProperty;
 import org.meveo.api.dto.BusinessEntityDto;
 import org.meveo.model.notification.Notification;
 import org.meveo.model.notification.NotificationEventTypeEnum;
+import org.meveo.model.notification.NotificationHistoryRetentionEnum;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
@@ -61,6 +62,14 @@ public class NotificationDto extends BusinessEntityDto {
     /** The priority. */
     @ApiModelProperty("The priority")
     private int priority;
+
+    /** Which history records are kept. */
+    @ApiModelProperty("Which history records are kept : ALL, ERRORS_ONLY or SAMPLED")
+    private NotificationHistoryRetentionEnum historyRetention;
+
+    /** With the SAMPLED history retention, one record of sent notification out of this rate is kept. */
+    @ApiModelProperty("With the SAMPLED history retention, one record of sent notification out of this rate is kept")
+    private Integer historySampleRate;
     
     /**
      * Instantiates a new notification dto.
@@ -89,6 +98,8 @@ public class NotificationDto extends BusinessEntityDto {
             scriptParams.putAll(notification.getParams());
         }
         priority = notification.getPriority();
+        historyRetention = notification.getHistoryRetention();
+        historySampleRate = notification.getHistorySampleRate();
         // scriptParams = e.getParams();
     }
 
@@ -223,4 +234,40 @@ public class NotificationDto extends BusinessEntityDto {
         return "NotificationDto [classNameFilter=" + classNameFilter + ", eventTypeFilter=" + eventTypeFilter + ", elFilter=" + elFilter + ", scriptInstanceCode="
                 + scriptInstanceCode + ", scriptParams=" + scriptParams + ", counterTemplate=" + counterTemplate + ", priority=" + priority + "]";
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the history retention.
+     *
+     * @return the history retention
+     */
+    public NotificationHistoryRetentionEnum getHistoryRetention() {
+        return historyRetention;
+    }
+
+    /**
+     * Sets the history retention.
+     *
+     * @param historyRetention the new history retention
+     */
+    public void setHistoryRetention(NotificationHistoryRetentionEnum historyRetention) {
+        this.historyRetention = historyRetention;
+    }
+
+    /**
+     * Gets the history sample rate.
+     *
+     * @return the history sample rate
+     */
+    public Integer getHistorySampleRate() {
+        return historySampleRate;
+    }
+
+    /**
+     * Sets the history sample rate.
+     *
+     * @param historySampleRate the new history sample rate
+     */
+    public void setHistorySampleRate(Integer historySampleRate) {
+        this.historySampleRate = historySampleRate;
+    }
+}
@@ -49,6 +49,48 @@ public class SqlConfigurationDto extends BusinessEntityDto {
 	@ApiModelProperty("The dialect, if supported")
 	private String dialect;
 
+	/**
+	 * Minimum number of idle connections kept in the pool
+	 */
+	@ApiModelProperty("Minimum number of idle connections kept in the pool")
+	private Integer poolMinSize;
+
+	/**
+	 * Maximum number of connections of the pool
+	 */
+	@ApiModelProperty("Maximum number of connections of the pool")
+	private Integer poolMaxSize;
+
+	/**
+	 * Maximum time in milliseconds to wait for a connection from the pool
+	 */
+	@ApiModelProperty("Maximum time in milliseconds to wait for a connection from the pool")
+	private Long poolConnectionTimeout;
+
+	/**
+	 * Maximum time in milliseconds a connection can stay idle in the pool
+	 */
+	@ApiModelProperty("Maximum time in milliseconds a connection can stay idle in the pool")
+	private Long poolIdleTimeout;
+
+	/**
+	 * Maximum lifetime in milliseconds of a connection of the pool
+	 */
+	@ApiModelProperty("Maximum lifetime in milliseconds of a connection of the pool")
+	private Long poolMaxLifetime;
+
+	/**
+	 * Number of prepared statements cached by each connection, if supported by the driver
+	 */
+	@ApiModelProperty("Number of prepared statements cached by each connection, if supported by the driver")
+	private Integer poolStatementCacheSize;
+
+	/**
+	 * Query used to validate the connections. JDBC4 validation is used if not specified
+	 */
+	@ApiModelProperty("Query used to validate the connections. JDBC4 validation is used if not specified")
+	private String poolValidationQuery;
+
 	public SqlConfigurationDto() {
 
 	}
@@ -60,6 +102,13 @@ public class SqlConfigurationDto extends BusinessEntityDto {
 		setUsername(e.getUsername());
 		setPassword(e.getPassword());
 		setDialect(e.getDialect());
+		setPoolMinSize(e.getPoolMinSize());
+		setPoolMaxSize(e.getPoolMaxSize());
+		setPoolConnectionTimeout(e.getPoolConnectionTimeout());
+		setPoolIdleTimeout(e.getPoolIdleTimeout());
+		setPoolMaxLifetime(e.getPoolMaxLifetime());
+		setPoolStatementCacheSize(e.getPoolStatementCacheSize());
+		setPoolValidationQuery(e.getPoolValidationQuery());
 	}
 
 	public String getDriverClass() {
@@ -101,4 +150,60 @@ public class SqlConfigurationDto extends BusinessEntityDto {
 	public void setDialect(String dialect) {
 		this.dialect = dialect;
 	}
+
+	public Integer getPoolMinSize() {
+		return poolMinSize;
+	}
+
+	public void setPoolMinSize(Integer poolMinSize) {
+		this.poolMinSize = poolMinSize;
+	}
+
+	public Integer getPoolMaxSize() {
+		return poolMaxSize;
+	}
+
+	public void setPoolMaxSize(Integer poolMaxSize) {
+		this.poolMaxSize = poolMaxSize;
+	}
+
+	public Long getPoolConnectionTimeout() {
+		return poolConnectionTimeout;
+	}
+
+	public void setPoolConnectionTimeout(Long poolConnectionTimeout) {
+		this.poolConnectionTimeout = poolConnectionTimeout;
+	}
+
+	public Long getPoolIdleTimeout() {
+		return poolIdleTimeout;
+	}
+
+	public void setPoolIdleTimeout(Long poolIdleTimeout) {
+		this.poolIdleTimeout = poolIdleTimeout;
+	}
+
+	public Long getPoolMaxLifetime() {
+		return poolMaxLifetime;
+	}
+
+	public void setPoolMaxLifetime(Long poolMaxLifetime) {
+		this.poolMaxLifetime = poolMaxLifetime;
+	}
+
+	public Integer getPoolStatementCacheSize() {
+		return poolStatementCacheSize;
+	}
+
+	public void setPoolStatementCacheSize(Integer poolStatementCacheSize) {
+		this.poolStatementCacheSize = poolStatementCacheSize;
+	}
+
+	public String getPoolValidationQuery() {
+		return poolValidationQuery;
+	}
+
+	public void setPoolValidationQuery(String poolValidationQuery) {
+		this.poolValidationQuery = poolValidationQuery;
+	}
 }
@@ -130,6 +130,13 @@ public class EndpointDto extends BusinessEntityDto implements Serializable {
     @ApiModelProperty("Content type of the response")
     private String contentType;
 
+    /**
+     * Time to live in seconds of the cached responses
+     */
+    @JsonProperty
+    @ApiModelProperty("Time to live in seconds of the cached responses of a synchronous GET endpoint, no caching if not set")
+    private Integer cacheTtl;
+
 
     /**
      * Content type of the response
@@ -169,6 +176,14 @@ public class EndpointDto extends BusinessEntityDto implements Serializable {
 		this.contentType = contentType;
 	}
 
+	public Integer getCacheTtl() {
+		return cacheTtl;
+	}
+
+	public void setCacheTtl(Integer cacheTtl) {
+		this.cacheTtl = cacheTtl;
+	}
+
 	public boolean isSerializeResult() {
         return serializeResult;
     }
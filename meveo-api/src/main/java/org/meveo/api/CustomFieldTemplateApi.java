@@ -591,6 +591,7 @@ public class CustomFieldTemplateApi extends BaseCrudApi<CustomFieldTemplate, Cus
         }
 
         cft.setUnique(dto.isUnique());
+        cft.setSearchable(dto.isSearchable());
 
         cft.setIdentifier(dto.isIdentifier());
         
@@ -96,6 +96,7 @@ import org.meveo.api.exceptions.ModuleInstallFail;
 import org.meveo.api.export.ExportFormat;
 import org.meveo.api.git.GitRepositoryApi;
 import org.meveo.commons.utils.FileUtils;
+import org.meveo.commons.utils.ReflectionUtils;
 import org.meveo.commons.utils.StringUtils;
 import org.meveo.event.qualifier.Removed;
 import org.meveo.event.qualifier.git.CommitEvent;
@@ -135,7 +136,6 @@ import org.meveo.service.git.GitRepositoryService;
 import org.meveo.service.script.ScriptInstanceService;
 import org.meveo.service.storage.RepositoryService;
 import org.meveo.util.EntityCustomizationUtils;
-import org.reflections.Reflections;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -518,8 +518,7 @@ public class MeveoModuleApi extends BaseCrudApi<MeveoModule, MeveoModuleDto> {
 	}
 	
 	public void registerModulePackage(String packageName) {
-		Reflections reflections = new Reflections(packageName);
-		Set<Class<?>> moduleItemClasses = reflections.getTypesAnnotatedWith(ModuleItem.class);
+		Set<Class<?>> moduleItemClasses = ReflectionUtils.getClassesAnnotatedWith(ModuleItem.class, packageName);
 
 		for (Class<?> aClass : moduleItemClasses) {
 			MeveoModuleItemInstaller.MODULE_ITEM_TYPES.put(aClass.getSimpleName(), aClass);
@@ -353,6 +353,9 @@ public class MeveoModuleItemInstaller {
 		            }
 		            
 		            unpackAndInstallModuleItems(result, meveoModule, moduleDto, onDuplicate);
+		            
+		            // Apply the schema changes collected while installing the items before the module script runs
+		            installCtx.flushDeferredWorks();
 		
 		            meveoModule.setInstalled(true);
 		            
@@ -424,6 +427,9 @@ public class MeveoModuleItemInstaller {
                     cei.setCetCode(customEntityTemplate.getCode());
                     cei.setCet(customEntityTemplate);
                     
+                    // The instance may be stored in columns not created yet
+                    installCtx.flushDeferredWorks();
+                    
                     try {
                         meveoModuleApi.populateCustomFields(((CustomEntityInstanceDto) dto).getCustomFields(), cei, true);
                     } catch (Exception e) {
@@ -56,6 +56,7 @@ import org.meveo.api.exception.MeveoApiException;
 import org.meveo.api.export.ExportFormat;
 import org.meveo.commons.utils.FileUtils;
 import org.meveo.commons.utils.ParamBeanFactory;
+import org.meveo.commons.utils.ReflectionUtils;
 import org.meveo.commons.utils.StringUtils;
 import org.meveo.exceptions.EntityDoesNotExistsException;
 import org.meveo.model.ModuleItem;
@@ -71,7 +72,6 @@ import org.meveo.security.MeveoUser;
 import org.meveo.service.admin.impl.MeveoModuleUtils;
 import org.meveo.service.custom.CustomEntityTemplateService;
 import org.meveo.util.EntityCustomizationUtils;
-import org.reflections.Reflections;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -125,8 +125,7 @@ public class ModuleReleaseApi {
 	}
 
 	public void registerModulePackage(String packageName) {
-		Reflections reflections = new Reflections(packageName);
-		Set<Class<?>> moduleItemClasses = reflections.getTypesAnnotatedWith(ModuleItem.class);
+		Set<Class<?>> moduleItemClasses = ReflectionUtils.getClassesAnnotatedWith(ModuleItem.class, packageName);
 
 		for (Class<?> aClass : moduleItemClasses) {
 			MeveoModuleItemInstaller.MODULE_ITEM_TYPES.put(aClass.getSimpleName(), aClass);
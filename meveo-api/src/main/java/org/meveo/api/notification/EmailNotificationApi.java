@@ -135,6 +135,10 @@ public class EmailNotificationApi extends NotificationApi<EmailNotification, Ema
         notif.setFunction(scriptInstance);
         notif.setParams(postData.getScriptParams());
         notif.setElFilter(postData.getElFilter());
+        if (postData.getHistoryRetention() != null) {
+            notif.setHistoryRetention(postData.getHistoryRetention());
+        }
+        notif.setHistorySampleRate(postData.getHistorySampleRate());
         notif.setCounterTemplate(counterTemplate);
 
         notif.setEmailFrom(postData.getEmailFrom());
@@ -205,6 +209,10 @@ public class EmailNotificationApi extends NotificationApi<EmailNotification, Ema
         notif.setFunction(scriptInstance);
         notif.setParams(postData.getScriptParams());
         notif.setElFilter(postData.getElFilter());
+        if (postData.getHistoryRetention() != null) {
+            notif.setHistoryRetention(postData.getHistoryRetention());
+        }
+        notif.setHistorySampleRate(postData.getHistorySampleRate());
         notif.setCounterTemplate(counterTemplate);
 
         notif.setEmailFrom(postData.getEmailFrom());
@@ -134,6 +134,10 @@ public class JobTriggerApi extends NotificationApi<JobTrigger, JobTriggerDto> {
         notif.setFunction(scriptInstance);
         notif.setParams(postData.getScriptParams());
         notif.setElFilter(postData.getElFilter());
+        if (postData.getHistoryRetention() != null) {
+            notif.setHistoryRetention(postData.getHistoryRetention());
+        }
+        notif.setHistorySampleRate(postData.getHistorySampleRate());
         notif.setCounterTemplate(counterTemplate);
         notif.setJobInstance(jobInstance);
         notif.setJobParams(postData.getJobParams());
@@ -201,6 +205,10 @@ public class JobTriggerApi extends NotificationApi<JobTrigger, JobTriggerDto> {
         notif.setFunction(scriptInstance);
         notif.setParams(postData.getScriptParams());
         notif.setElFilter(postData.getElFilter());
+        if (postData.getHistoryRetention() != null) {
+            notif.setHistoryRetention(postData.getHistoryRetention());
+        }
+        notif.setHistorySampleRate(postData.getHistorySampleRate());
         notif.setCounterTemplate(counterTemplate);
         notif.setJobInstance(jobInstance);
         notif.setJobParams(postData.getJobParams());
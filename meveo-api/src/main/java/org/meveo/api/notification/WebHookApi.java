@@ -163,6 +163,10 @@ public class WebHookApi extends NotificationApi<WebHook, WebHookDto> {
         webHook.setFunction(scriptInstance);
         webHook.setParams(postData.getScriptParams());
         webHook.setElFilter(postData.getElFilter());
+        if (postData.getHistoryRetention() != null) {
+            webHook.setHistoryRetention(postData.getHistoryRetention());
+        }
+        webHook.setHistorySampleRate(postData.getHistorySampleRate());
         webHook.setCounterTemplate(counterTemplate);
 
         if (!StringUtils.isBlank(postData.getHttpProtocol())) {
@@ -215,6 +219,10 @@ public class WebHookApi extends NotificationApi<WebHook, WebHookDto> {
         webHook.setFunction(scriptInstance);
         webHook.setParams(dto.getScriptParams());
         webHook.setElFilter(dto.getElFilter());
+        if (dto.getHistoryRetention() != null) {
+            webHook.setHistoryRetention(dto.getHistoryRetention());
+        }
+        webHook.setHistorySampleRate(dto.getHistorySampleRate());
         webHook.setCounterTemplate(counterTemplate);
 
         if (!StringUtils.isBlank(dto.getHttpProtocol())) {
@@ -42,6 +42,7 @@ public class EndpointExecution {
     private final EndpointRequest request;
     private final EndpointResponse response;
     private final Endpoint endpoint;
+    private final long creationTime = System.nanoTime();
 
     public EndpointExecution(Map<String, Object> parameters, HttpServletResponse resp, String pathInfo, boolean keep,
                              boolean wait, EndpointHttpMethod method, String persistenceContextId,
@@ -70,6 +71,11 @@ public class EndpointExecution {
 
 	public Endpoint getEndpoint() { return endpoint; }
 
+	/**
+	 * @return the time the request was received, as given by {@link System#nanoTime()}
+	 */
+	public long getCreationTime() { return creationTime; }
+
 	public EndpointRequest getRequest() {
         return request;
     }
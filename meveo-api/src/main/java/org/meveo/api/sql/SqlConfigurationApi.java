@@ -2,6 +2,7 @@ package org.meveo.api.sql;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import javax.ejb.Stateless;
@@ -115,6 +116,13 @@ public class SqlConfigurationApi extends BaseCrudApi<SqlConfiguration, SqlConfig
 		target.setClearPassword(source.getPassword());
 		target.setUrl(source.getUrl());
 		target.setUsername(source.getUsername());
+		target.setPoolMinSize(source.getPoolMinSize());
+		target.setPoolMaxSize(source.getPoolMaxSize());
+		target.setPoolConnectionTimeout(source.getPoolConnectionTimeout());
+		target.setPoolIdleTimeout(source.getPoolIdleTimeout());
+		target.setPoolMaxLifetime(source.getPoolMaxLifetime());
+		target.setPoolStatementCacheSize(source.getPoolStatementCacheSize());
+		target.setPoolValidationQuery(source.getPoolValidationQuery());
 
 		return target;
 	}
@@ -153,6 +161,21 @@ public class SqlConfigurationApi extends BaseCrudApi<SqlConfiguration, SqlConfig
 		sqlConfigurationService.initializeCet(conf);		
 	}
 	
+	/**
+	 * Gets the statistics of the connection pool of the given configuration
+	 * 
+	 * @param code Code of the configuration
+	 * @return the pool statistics, empty if no pool is opened for the configuration
+	 * @throws EntityDoesNotExistsException if the configuration does not exist
+	 */
+	public Map<String, Object> getPoolStatistics(String code) throws EntityDoesNotExistsException {
+		if (sqlConfigurationService.findByCode(code) == null) {
+			throw new EntityDoesNotExistsException(SqlConfiguration.class, code);
+		}
+
+		return sqlConfigurationService.getPoolStatistics(code);
+	}
+
 	@Override
 	public void remove(SqlConfigurationDto dto) throws MeveoApiException, BusinessException {
 		var entity = sqlConfigurationService.findByCode(dto.getCode());
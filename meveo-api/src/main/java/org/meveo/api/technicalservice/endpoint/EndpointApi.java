@@ -24,6 +24,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
@@ -63,6 +65,7 @@ import org.meveo.model.technicalservice.endpoint.EndpointPool;
 import org.meveo.model.technicalservice.endpoint.EndpointVariables;
 import org.meveo.model.technicalservice.endpoint.TSParameterMapping;
 import org.meveo.service.base.local.IPersistenceService;
+import org.meveo.service.monitoring.MetricsRegistry;
 import org.meveo.service.script.ConcreteFunctionService;
 import org.meveo.service.script.FunctionService;
 import org.meveo.service.script.ScriptInstanceService;
@@ -98,6 +101,9 @@ public class EndpointApi extends BaseCrudApi<Endpoint, EndpointDto> {
 	@Inject
 	private EndpointCacheContainer endpointCache;
 
+	@Inject
+	private MetricsRegistry metricsRegistry;
+
 	@EJB
 	private EndpointService endpointService;
 
@@ -219,9 +225,7 @@ public class EndpointApi extends BaseCrudApi<Endpoint, EndpointDto> {
 				try {
 					final CompletableFuture<Map<String, Object>> resultFuture = CompletableFuture.supplyAsync(() -> {
 						try {
-							EndpointPool endpointPool = execution.getEndpoint().getPool();
-							boolean usePool = endpointPool != null && endpointPool.isUsePool();
-							return functionService.execute(executionEngine, parameterMap, !usePool);
+							return executeScript(execution, functionService, parameterMap, executionEngine);
 						} catch (BusinessException e) {
 							throw new RuntimeException(e);
 						}
@@ -233,9 +237,7 @@ public class EndpointApi extends BaseCrudApi<Endpoint, EndpointDto> {
 				}
 				
 			} else {
-				EndpointPool endpointPool = execution.getEndpoint().getPool();
-				boolean usePool = endpointPool != null && endpointPool.isUsePool();
-				executionResult.setResults(functionService.execute(executionEngine, parameterMap, !usePool));
+				executionResult.setResults(executeScript(execution, functionService, parameterMap, executionEngine));
 			}
 		} catch (Error error) {
 			hasScriptError = true;
@@ -258,6 +260,24 @@ public class EndpointApi extends BaseCrudApi<Endpoint, EndpointDto> {
 
 	}
 
+	/**
+	 * Execute the endpoint script, recording the time the request waited before the script started and the execution time
+	 */
+	private Map<String, Object> executeScript(EndpointExecution execution, final FunctionService<?, ScriptInterface> functionService, Map<String, Object> parameterMap,
+			final ScriptInterface executionEngine) throws BusinessException {
+		String endpointCode = execution.getEndpoint().getCode();
+		metricsRegistry.stop(MetricsRegistry.ENDPOINT_QUEUE_TIME, execution.getCreationTime(), "endpoint", endpointCode);
+
+		long start = metricsRegistry.start();
+		try {
+			EndpointPool endpointPool = execution.getEndpoint().getPool();
+			boolean usePool = endpointPool != null && endpointPool.isUsePool();
+			return functionService.execute(executionEngine, parameterMap, !usePool);
+		} finally {
+			metricsRegistry.stop(MetricsRegistry.ENDPOINT_EXECUTION_TIME, start, "endpoint", endpointCode);
+		}
+	}
+
 	public <T extends Function> ScriptInterface getEngine(Endpoint endpoint, EndpointExecution execution, T service,
 			final FunctionService<T, ScriptInterface> functionService, Map<String, Object> parameterMap)  {
 
@@ -549,6 +569,7 @@ public class EndpointApi extends BaseCrudApi<Endpoint, EndpointDto> {
 		}
 		endpointDto.setJsonataTransformer(endpoint.getJsonataTransformer());
 		endpointDto.setContentType(endpoint.getContentType());
+		endpointDto.setCacheTtl(endpoint.getCacheTtl());
 		endpointDto.setBasePath(endpoint.getBasePath());
 		endpointDto.setPath(endpoint.getPath());
 		endpointDto.setPool(endpoint.getPool());
@@ -618,6 +639,8 @@ public class EndpointApi extends BaseCrudApi<Endpoint, EndpointDto> {
 
 		endpoint.setContentType(endpointDto.getContentType());
 
+		endpoint.setCacheTtl(endpointDto.getCacheTtl());
+
 		endpoint.setBasePath(endpointDto.getBasePath());
 
 		endpoint.setPath(endpointDto.getPath());
@@ -698,6 +721,27 @@ public class EndpointApi extends BaseCrudApi<Endpoint, EndpointDto> {
 		return endpointParameter;
 	}
 
+	/**
+	 * Build the key of the cached response of an endpoint execution. As the response may depend on who calls the endpoint, the key
+	 * includes the roles of the current user along with the path and query parameters.
+	 *
+	 * @param endpoint  endpoint to execute
+	 * @param execution endpoint execution
+	 * @return the cache key, or null if the responses of the endpoint are not cached
+	 */
+	public String getResponseCacheKey(Endpoint endpoint, EndpointExecution execution) {
+		if (!endpoint.isResponseCacheable()) {
+			return null;
+		}
+
+		StringBuilder key = new StringBuilder(EndpointCacheContainer.getResponseCacheKeyPrefix(endpoint.getCode()));
+		key.append(new TreeSet<>(currentUser.getRoles())).append('|').append(execution.getPathInfo()).append('?');
+		new TreeMap<>(execution.getParameters()).forEach((name, value) -> {
+			key.append(name).append('=').append(value instanceof Object[] ? Arrays.toString((Object[]) value) : value).append('&');
+		});
+		return key.toString();
+	}
+
 	public boolean isUserAuthorized(Endpoint endpoint) {
 		if(!endpoint.isSecured()) {
 			return true;
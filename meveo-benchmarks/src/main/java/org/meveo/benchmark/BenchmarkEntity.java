@@ -0,0 +1,121 @@
+/*
+ * (C) Copyright 2018-2019 Webdrone SAS (https://www.webdrone.fr/) and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. This program is
+ * not suitable for any direct or indirect application in MILITARY industry See the GNU Affero
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.meveo.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.meveo.model.CustomEntity;
+
+/**
+ * In-memory custom entity used as fixture by the benchmarks, shaped like a generated custom entity class.
+ */
+public class BenchmarkEntity implements CustomEntity {
+
+	private String uuid;
+
+	private String name;
+
+	private String description;
+
+	private Long quantity;
+
+	private Double price;
+
+	private Boolean active;
+
+	private List<String> tags = new ArrayList<>();
+
+	@Override
+	public String getCetCode() {
+		return "BenchmarkEntity";
+	}
+
+	@Override
+	public String getUuid() {
+		return uuid;
+	}
+
+	public void setUuid(String uuid) {
+		this.uuid = uuid;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public void setDescription(String description) {
+		this.description = description;
+	}
+
+	public Long getQuantity() {
+		return quantity;
+	}
+
+	public void setQuantity(Long quantity) {
+		this.quantity = quantity;
+	}
+
+	public Double getPrice() {
+		return price;
+	}
+
+	public void setPrice(Double price) {
+		this.price = price;
+	}
+
+	public Boolean getActive() {
+		return active;
+	}
+
+	public void setActive(Boolean active) {
+		this.active = active;
+	}
+
+	public List<String> getTags() {
+		return tags;
+	}
+
+	public void setTags(List<String> tags) {
+		this.tags = tags;
+	}
+
+	/**
+	 * @param index index of the fixture
+	 * @return a populated entity
+	 */
+	public static BenchmarkEntity create(int index) {
+		BenchmarkEntity entity = new BenchmarkEntity();
+		entity.setUuid("00000000-0000-0000-0000-" + String.format("%012d", index));
+		entity.setName("Entity " + index);
+		entity.setDescription("Benchmark fixture number " + index);
+		entity.setQuantity((long) index);
+		entity.setPrice(index * 1.5);
+		entity.setActive(index % 2 == 0);
+		entity.getTags().add("tag-a");
+		entity.getTags().add("tag-" + index);
+		return entity;
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * (C) Copyright 2018-2019 Webdrone SAS (https://www.webdrone.fr/) and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. This program is
+ * not suitable for any direct or indirect application in MILITARY industry See the GNU Affero
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.meveo.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.meveo.model.customEntities.CustomEntityInstance;
+import org.meveo.model.persistence.CEIUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Conversions between custom entity POJOs and {@link CustomEntityInstance}, done on every cross storage read and
+ * write made from a script.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CEIUtilsBenchmark {
+
+	private BenchmarkEntity pojo;
+
+	private CustomEntityInstance cei;
+
+	@Setup
+	public void setUp() {
+		pojo = BenchmarkEntity.create(42);
+		cei = CEIUtils.pojoToCei(pojo);
+	}
+
+	@Benchmark
+	public CustomEntityInstance pojoToCei() {
+		return CEIUtils.pojoToCei(pojo);
+	}
+
+	@Benchmark
+	public BenchmarkEntity ceiToPojo() {
+		return CEIUtils.ceiToPojo(cei, BenchmarkEntity.class);
+	}
+}
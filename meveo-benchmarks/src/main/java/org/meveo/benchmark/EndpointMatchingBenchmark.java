@@ -0,0 +1,74 @@
+/*
+ * (C) Copyright 2018-2019 Webdrone SAS (https://www.webdrone.fr/) and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. This program is
+ * not suitable for any direct or indirect application in MILITARY industry See the GNU Affero
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.meveo.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.meveo.model.technicalservice.endpoint.Endpoint;
+import org.meveo.model.technicalservice.endpoint.EndpointHttpMethod;
+import org.meveo.service.technicalservice.endpoint.EndpointCacheContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Resolution of the endpoint matching a request path, done on every endpoint call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndpointMatchingBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	private int endpoints;
+
+	private EndpointCacheContainer endpointCacheContainer;
+
+	private String path;
+
+	@Setup
+	public void setUp() {
+		endpointCacheContainer = new EndpointCacheContainer();
+
+		for (int i = 0; i < endpoints; i++) {
+			Endpoint endpoint = new Endpoint();
+			endpoint.setCode("endpoint" + i);
+			endpoint.setBasePath("endpoint" + i);
+			endpoint.setPath("/{id}/items/{item}");
+			endpoint.setMethod(i % 2 == 0 ? EndpointHttpMethod.GET : EndpointHttpMethod.POST);
+			endpointCacheContainer.updateEndpoint(endpoint);
+		}
+
+		path = "/endpoint" + (endpoints - 2) + "/1234/items/5678";
+	}
+
+	@Benchmark
+	public Endpoint matchPath() {
+		return endpointCacheContainer.getEndpointForPath(path, EndpointHttpMethod.GET.getLabel());
+	}
+}
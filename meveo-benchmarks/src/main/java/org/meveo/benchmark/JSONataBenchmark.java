@@ -0,0 +1,51 @@
+/*
+ * (C) Copyright 2018-2019 Webdrone SAS (https://www.webdrone.fr/) and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. This program is
+ * not suitable for any direct or indirect application in MILITARY industry See the GNU Affero
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.meveo.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.meveo.api.utils.JSONata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JSONata transformation of an endpoint response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JSONataBenchmark {
+
+	private static final String DATA = "{\"Account\":{\"Name\":\"Firefly\",\"Order\":["
+			+ "{\"OrderID\":\"order103\",\"Product\":[{\"Name\":\"Bowler Hat\",\"Price\":34.45,\"Quantity\":2},{\"Name\":\"Trilby hat\",\"Price\":21.67,\"Quantity\":1}]},"
+			+ "{\"OrderID\":\"order104\",\"Product\":[{\"Name\":\"Bowler Hat\",\"Price\":34.45,\"Quantity\":4},{\"Name\":\"Cloak\",\"Price\":107.99,\"Quantity\":1}]}]}}";
+
+	@Benchmark
+	public String transform() {
+		return JSONata.transform("$sum(Account.Order.Product.(Price * Quantity))", DATA);
+	}
+}
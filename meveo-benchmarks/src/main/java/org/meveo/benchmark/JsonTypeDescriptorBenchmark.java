@@ -0,0 +1,94 @@
+/*
+ * (C) Copyright 2018-2019 Webdrone SAS (https://www.webdrone.fr/) and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. This program is
+ * not suitable for any direct or indirect application in MILITARY industry See the GNU Affero
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.meveo.benchmark;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.meveo.model.persistence.JsonTypeDescriptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Comparison of JSON column values, done by Hibernate on every flush to detect dirty entities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonTypeDescriptorBenchmark {
+
+	@Param({ "10", "100" })
+	private int fields;
+
+	private JsonTypeDescriptor descriptor;
+
+	private Map<String, Object> value;
+
+	private Map<String, Object> equalValue;
+
+	private Map<String, Object> differentValue;
+
+	@Setup
+	public void setUp() {
+		descriptor = new JsonTypeDescriptor();
+		value = values(fields);
+		equalValue = values(fields);
+		differentValue = values(fields);
+		differentValue.put("field" + (fields - 1), "changed");
+	}
+
+	@Benchmark
+	public boolean compareEqual() {
+		return descriptor.areEqual(value, equalValue);
+	}
+
+	@Benchmark
+	public boolean compareDifferent() {
+		return descriptor.areEqual(value, differentValue);
+	}
+
+	private static Map<String, Object> values(int fields) {
+		Map<String, Object> values = new HashMap<>();
+		for (int i = 0; i < fields; i++) {
+			switch (i % 3) {
+			case 0:
+				values.put("field" + i, "value " + i);
+				break;
+			case 1:
+				values.put("field" + i, (long) i);
+				break;
+			default:
+				values.put("field" + i, List.of("a" + i, "b" + i));
+			}
+		}
+		return values;
+	}
+}
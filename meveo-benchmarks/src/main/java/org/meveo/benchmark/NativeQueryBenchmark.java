@@ -0,0 +1,81 @@
+/*
+ * (C) Copyright 2018-2019 Webdrone SAS (https://www.webdrone.fr/) and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. This program is
+ * not suitable for any direct or indirect application in MILITARY industry See the GNU Affero
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.meveo.benchmark;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.meveo.admin.util.pagination.PaginationConfiguration;
+import org.meveo.service.base.NativePersistenceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.primefaces.model.SortOrder;
+
+/**
+ * Building of the SQL query listing custom table rows. The service is used outside of the container, query
+ * building does not need any injected dependency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NativeQueryBenchmark {
+
+	private NativePersistenceService nativePersistenceService;
+
+	private PaginationConfiguration noFilter;
+
+	private PaginationConfiguration filtered;
+
+	@Setup
+	public void setUp() {
+		nativePersistenceService = new NativePersistenceService();
+
+		noFilter = new PaginationConfiguration(0, 50, null, null, null, "code", SortOrder.ASCENDING);
+
+		Map<String, Object> filters = new HashMap<>();
+		filters.put("code", "CODE_1");
+		filters.put("status", "OPEN");
+		filters.put("fromRange amount", 10L);
+		filters.put("toRange amount", 1000L);
+		filters.put("inList type", Arrays.asList("A", "B", "C"));
+		filters.put("likeCriterias description", "*fixture*");
+		filtered = new PaginationConfiguration(0, 50, filters, null, Arrays.asList("code", "description", "amount"), "code", SortOrder.DESCENDING);
+	}
+
+	@Benchmark
+	public String buildQuery() {
+		return nativePersistenceService.getQuery("benchmark_table", noFilter).getSqlString();
+	}
+
+	@Benchmark
+	public String buildFilteredQuery() {
+		return nativePersistenceService.getQuery("benchmark_table", filtered).getSqlString();
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * (C) Copyright 2018-2019 Webdrone SAS (https://www.webdrone.fr/) and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. This program is
+ * not suitable for any direct or indirect application in MILITARY industry See the GNU Affero
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.meveo.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.meveo.elresolver.ELException;
+import org.meveo.elresolver.ValueExpressionWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Evaluation of the EL expressions used by notifications, webhooks and endpoint parameters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValueExpressionBenchmark {
+
+	private Map<Object, Object> context;
+
+	@Setup
+	public void setUp() {
+		context = new HashMap<>();
+		context.put("entity", BenchmarkEntity.create(7));
+	}
+
+	@Benchmark
+	public String constant() throws ELException {
+		return ValueExpressionWrapper.evaluateExpression("constant value", context, String.class);
+	}
+
+	@Benchmark
+	public String property() throws ELException {
+		return ValueExpressionWrapper.evaluateExpression("#{entity.name}", context, String.class);
+	}
+
+	@Benchmark
+	public Boolean condition() throws ELException {
+		return ValueExpressionWrapper.evaluateExpression("#{entity.quantity > 5 and entity.active}", context, Boolean.class);
+	}
+}
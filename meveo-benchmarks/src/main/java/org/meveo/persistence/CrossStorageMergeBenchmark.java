@@ -0,0 +1,86 @@
+/*
+ * (C) Copyright 2018-2019 Webdrone SAS (https://www.webdrone.fr/) and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. This program is
+ * not suitable for any direct or indirect application in MILITARY industry See the GNU Affero
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.meveo.persistence;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Merging of the rows read from a second storage into the rows read from the first one, as done by
+ * {@link CrossStorageService} when a template is stored in several storages. Half of the incoming rows match an
+ * existing row, the other half are appended.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CrossStorageMergeBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	private int rows;
+
+	private List<Map<String, Object>> existingRows;
+
+	private List<Map<String, Object>> incomingRows;
+
+	@Setup
+	public void setUp() {
+		existingRows = new ArrayList<>(rows);
+		incomingRows = new ArrayList<>(rows);
+
+		for (int i = 0; i < rows; i++) {
+			String uuid = UUID.randomUUID().toString();
+			existingRows.add(row("uuid", uuid, i));
+			incomingRows.add(row("meveo_uuid", i % 2 == 0 ? uuid : UUID.randomUUID().toString(), i));
+		}
+	}
+
+	@Benchmark
+	public List<Map<String, Object>> mergeRows() {
+		// Existing rows are only updated with identical values, copying the list is enough to start from the same state
+		List<Map<String, Object>> valuesList = new ArrayList<>(existingRows);
+		incomingRows.forEach(row -> CrossStorageService.mergeData(valuesList, row));
+		return valuesList;
+	}
+
+	private static Map<String, Object> row(String uuidField, String uuid, int index) {
+		Map<String, Object> row = new HashMap<>();
+		row.put(uuidField, uuid);
+		row.put("code", "code-" + index);
+		row.put("description", "Description of row " + index);
+		row.put("amount", (long) index);
+		return row;
+	}
+}
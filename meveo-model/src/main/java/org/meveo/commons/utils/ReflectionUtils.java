@@ -30,12 +30,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import javax.persistence.Embeddable;
@@ -65,6 +67,63 @@ public class ReflectionUtils {
      */
     @SuppressWarnings("rawtypes")
     private static Map<Class, Map<Class, List<Field>>> classReferences = new HashMap<>();
+
+    /**
+     * Root package of the shared class index
+     */
+    private static final String INDEXED_PACKAGE = "org.meveo";
+
+    /**
+     * Scans of the packages that are not covered by the shared class index, by package prefix
+     */
+    private static final Map<String, Reflections> packageScans = new ConcurrentHashMap<>();
+
+    /**
+     * Holds the shared class index, so the classpath is scanned once, on first use
+     */
+    private static class ClassIndexHolder {
+        private static final Reflections INDEX = scan(INDEXED_PACKAGE);
+    }
+
+    private static Reflections scan(String prefix) {
+        long start = System.currentTimeMillis();
+        Reflections reflections = new Reflections(prefix);
+        logger.info("Scanned classpath for package '{}' in {} ms", prefix, System.currentTimeMillis() - start);
+        return reflections;
+    }
+
+    /**
+     * Get the shared index of the sub types and annotated types of the org.meveo package. The classpath is scanned once, on first use, and the index is
+     * then served from memory.
+     * 
+     * @return the shared class index
+     */
+    public static Reflections getClassIndex() {
+        return ClassIndexHolder.INDEX;
+    }
+
+    /**
+     * @param prefix package prefix
+     * @return the shared class index if it covers the package, otherwise a scan of the package made once
+     */
+    private static Reflections getReflections(String prefix) {
+        if (prefix != null && prefix.startsWith(INDEXED_PACKAGE)) {
+            return getClassIndex();
+        }
+        return packageScans.computeIfAbsent(prefix == null ? "" : prefix, ReflectionUtils::scan);
+    }
+
+    /**
+     * @param classes classes to filter
+     * @param prefix package prefix
+     * @return a new set with the classes whose name starts with the prefix
+     */
+    private static <C extends Class<?>> Set<C> inPackage(Set<C> classes, String prefix) {
+        if (StringUtils.isEmpty(prefix)) {
+            return new HashSet<>(classes);
+        }
+        return classes.stream().filter(clazz -> clazz.getName().startsWith(prefix)).collect(Collectors.toSet());
+    }
     
     /**
      * @param clazz Class to apply reflection to
@@ -254,21 +313,22 @@ public class ReflectionUtils {
      * @return set of class.
      */
     public static <T> Set<Class<? extends T>> getClassesThatExtends(Class<T> superClass, String prefix) {
-        Reflections reflections = new Reflections(prefix);
-        return reflections.getSubTypesOf(superClass);
+        return inPackage(getReflections(prefix).getSubTypesOf(superClass), prefix);
     }
 
     public static Set<Class<?>> getClassesAnnotatedWith(Class<? extends Annotation> annotationClass, String prefix) {
-        Reflections reflections = new Reflections(prefix);
-        return reflections.getTypesAnnotatedWith(annotationClass);
+        return inPackage(getReflections(prefix).getTypesAnnotatedWith(annotationClass), prefix);
     }
 
-    public static <T> Set<Class<? extends T>> getClassesAnnotatedWith(Class<? extends Annotation> annotationClass, Class<T> baseClass, Object... prefixes) {
-        Reflections reflections = new Reflections(prefixes);
-        return reflections.getSubTypesOf(baseClass)
+    public static <T> Set<Class<? extends T>> getClassesAnnotatedWith(Class<? extends Annotation> annotationClass, Class<T> baseClass, String... prefixes) {
+        Set<Class<? extends T>> classes = new HashSet<>();
+        for (String prefix : prefixes) {
+            getClassesThatExtends(baseClass, prefix)
                 .stream()
                 .filter(c -> c.isAnnotationPresent(annotationClass))
-                .collect(Collectors.toSet());
+                .forEach(classes::add);
+        }
+        return classes;
     }
 
     /**
@@ -282,11 +342,10 @@ public class ReflectionUtils {
     public static Class<?> getClassBySimpleNameAndParentClass(String className, Class parentClass) {
         Class<?> entityClass = null;
         if (!StringUtils.isBlank(className)) {
-            Reflections reflections = new Reflections("org.meveo");
             if (parentClass.getSimpleName().equals(className)) {
                 return parentClass;
             }
-            Set<Class<?>> classes = reflections.getSubTypesOf(parentClass);
+            Set<Class<?>> classes = getClassIndex().getSubTypesOf(parentClass);
             for (Class<?> clazz : classes) {
                 if (className.equals(clazz.getSimpleName())) {
                     entityClass = clazz;
@@ -306,10 +365,7 @@ public class ReflectionUtils {
     @SuppressWarnings({ "unchecked", "rawtypes" })
     public static Set<Class<?>> getSubclasses(Class parentClass) {
 
-        Reflections reflections = new Reflections("org.meveo");
-        Set<Class<?>> classes = reflections.getSubTypesOf(parentClass);
-
-        return classes;
+        return new HashSet<>(getClassIndex().getSubTypesOf(parentClass));
     }
 
     /**
@@ -565,8 +621,7 @@ public class ReflectionUtils {
 
         Map<Class, List<Field>> matchedFields = new HashMap<>();
 
-        Reflections reflections = new Reflections("org.meveo.model");
-        Set<Class<? extends BusinessEntity>> classes = reflections.getSubTypesOf(BusinessEntity.class);
+        Set<Class<? extends BusinessEntity>> classes = getClassesThatExtends(BusinessEntity.class, "org.meveo.model");
 
         for (Class<? extends BusinessEntity> clazz : classes) {
             if (clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers())) {
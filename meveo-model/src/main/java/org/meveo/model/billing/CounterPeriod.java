@@ -41,7 +41,9 @@ import org.meveo.model.persistence.JacksonUtil;
 @GenericGenerator(name = "ID_GENERATOR", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
         @Parameter(name = "sequence_name", value = "billing_counter_period_seq"), })
 @NamedQueries({
-        @NamedQuery(name = "CounterPeriod.findByPeriodDate", query = "SELECT cp FROM CounterPeriod cp WHERE cp.counterInstance=:counterInstance AND cp.periodStartDate<=:date AND cp.periodEndDate>:date"), })
+        @NamedQuery(name = "CounterPeriod.findByPeriodDate", query = "SELECT cp FROM CounterPeriod cp WHERE cp.counterInstance=:counterInstance AND cp.periodStartDate<=:date AND cp.periodEndDate>:date"),
+        @NamedQuery(name = "CounterPeriod.deduceValue", query = "UPDATE CounterPeriod cp SET cp.value=cp.value-:value, cp.version=cp.version+1, cp.auditable.updated=:updated, cp.auditable.updater=:updater WHERE cp.id=:id AND cp.value>=:value"),
+        @NamedQuery(name = "CounterPeriod.getValue", query = "SELECT cp.value FROM CounterPeriod cp WHERE cp.id=:id"), })
 public class CounterPeriod extends BusinessEntity {
     private static final long serialVersionUID = -4924601467998738157L;
 
@@ -53,11 +53,14 @@ import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.Fetch;
 import org.hibernate.annotations.FetchMode;
 import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.Parameter;
 import org.hibernate.annotations.Type;
 import org.meveo.commons.utils.StringUtils;
@@ -98,6 +101,7 @@ import org.meveo.model.shared.DateUtils;
 @ModuleItem(value = "CustomFieldTemplate", path = "customFieldTemplates")
 @ModuleItemOrder(20)
 @Cacheable
+@NaturalIdCache
 @ExportIdentifier({ "code", "appliesTo" })
 @ObservableEntity
 @ImportOrder(3)
@@ -112,7 +116,7 @@ import org.meveo.model.shared.DateUtils;
 		@NamedQuery(name = "CustomFieldTemplate.getCftUniqueFieldsByApplies", query = "SELECT DISTINCT cft from CustomFieldTemplate cft left join fetch cft.storages where cft.unique=true and cft.appliesTo=:appliesTo", hints = {
 				@QueryHint(name = "org.hibernate.cacheable", value = "true") }),
 		@NamedQuery(name = "CustomFieldTemplate.getCFTByAppliesTo", query = "SELECT DISTINCT cft from CustomFieldTemplate cft left join fetch cft.storages where cft.appliesTo=:appliesTo order by cft.code", hints = {
-				@QueryHint(name = "org.hibernate.cacheable", value = "false") }) })
+				@QueryHint(name = "org.hibernate.cacheable", value = "true") }) })
 public class CustomFieldTemplate extends BusinessEntity {
 
     private static final long serialVersionUID = -1403961759495272885L;
@@ -169,10 +173,12 @@ public class CustomFieldTemplate extends BusinessEntity {
     @Column(name = "value_required")
     private boolean valueRequired;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @ElementCollection(fetch = FetchType.EAGER)
     @CollectionTable(name = "crm_custom_field_tmpl_val")
     private Map<String, String> listValues;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @ElementCollection(fetch = FetchType.EAGER)
     @OrderBy("columnUse ASC, position ASC")
     @CollectionTable(name = "crm_custom_field_tmpl_mcols", joinColumns = { @JoinColumn(name = "cft_id") })
@@ -312,6 +318,13 @@ public class CustomFieldTemplate extends BusinessEntity {
     @NotNull
     private boolean unique;
 
+    /**
+     * Whether the field is indexed for wildcard, prefix and case-insensitive searches in custom tables
+     */
+    @Type(type="numeric_boolean") @ColumnDefault("0")
+    @Column(name = "IS_SEARCHABLE")
+    @NotNull
+    private boolean searchable;
     
     @Type(type="numeric_boolean") @ColumnDefault("1")
     @Column(name = "IS_FILTER")
@@ -342,6 +355,7 @@ public class CustomFieldTemplate extends BusinessEntity {
 //    @Column(name = "storages", columnDefinition = "TEXT")
 //    @Type(type = JsonTypes.JSON_LIST)
 	@JoinTable(name = "cft_db_storage", inverseJoinColumns = @JoinColumn(name = "db_storage_code"), joinColumns = @JoinColumn(name = "cft_id"))
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 	@ManyToMany
 	List<DBStorageType> storages = new ArrayList<>();
 
@@ -1327,6 +1341,24 @@ public class CustomFieldTemplate extends BusinessEntity {
 		this.unique = unique;
 	}
 
+	/**
+	 * Checks if is searchable.
+	 *
+	 * @return true, if search indexes are maintained for the field in custom tables
+	 */
+	public boolean isSearchable() {
+		return searchable;
+	}
+
+	/**
+	 * Sets the searchable.
+	 *
+	 * @param searchable the new searchable
+	 */
+	public void setSearchable(boolean searchable) {
+		this.searchable = searchable;
+	}
+
 	/**
 	 * Checks if is filter.
 	 *
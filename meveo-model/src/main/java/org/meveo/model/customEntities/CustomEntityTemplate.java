@@ -41,7 +41,10 @@ import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.Parameter;
 import org.hibernate.annotations.Type;
 import org.meveo.commons.utils.StringUtils;
@@ -69,6 +72,7 @@ import org.meveo.model.storage.Repository;
 @ModuleItem(value = "CustomEntityTemplate", path ="customEntityTemplates")
 @ModuleItemOrder(10)
 @Cacheable
+@NaturalIdCache
 @ExportIdentifier({ "code" })
 @Table(name = "cust_cet", uniqueConstraints = @UniqueConstraint(columnNames = { "code" }))
 @GenericGenerator(name = "ID_GENERATOR", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
@@ -136,6 +140,7 @@ public class CustomEntityTemplate extends BusinessEntity implements Comparable<C
 	 */
 	// @Column(name = "available_storages", columnDefinition = "TEXT")
 	// @Type(type = JsonTypes.JSON_LIST)
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 	@ManyToMany
 	@JoinTable(name = "cet_db_storage", inverseJoinColumns = @JoinColumn(name = "db_storage_code"), joinColumns = @JoinColumn(name = "cet_id"))
 	private Set<DBStorageType> availableStorages = new HashSet<>();
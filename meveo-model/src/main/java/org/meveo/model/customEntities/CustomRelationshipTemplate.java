@@ -22,6 +22,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
@@ -38,8 +39,11 @@ import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.Type;
 import org.meveo.commons.utils.StringUtils;
 import org.meveo.model.BusinessEntity;
@@ -64,6 +68,8 @@ import org.meveo.model.storage.Repository;
 @Entity
 @ModuleItem(value = "CustomRelationshipTemplate", path = "customRelationshipTemplates")
 @ModuleItemOrder(11)
+@Cacheable
+@NaturalIdCache
 @ExportIdentifier({ "code"})
 @Table(name = "CUST_CRT", uniqueConstraints = @UniqueConstraint(columnNames = {"code"}))
 @GenericGenerator(name = "ID_GENERATOR", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
@@ -110,6 +116,7 @@ public class CustomRelationshipTemplate extends BusinessEntity implements Compar
     
 //    @Column(name = "available_storages", columnDefinition = "TEXT")
 //    @Type(type = JsonTypes.JSON_LIST)
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 	@ManyToMany
 	@JoinTable(name = "crt_db_storage", inverseJoinColumns = @JoinColumn(name = "db_storage_code"), joinColumns = @JoinColumn(name = "crt_id"))
     private Set<DBStorageType> availableStorages;
@@ -98,6 +98,19 @@ public class Notification extends BusinessEntity {
     @Column(name = "priority", columnDefinition = "int DEFAULT 1")
     private int priority = 1;
 
+    /**
+     * Which history records are kept when the notification is fired
+     */
+    @Column(name = "history_retention", length = 20)
+    @Enumerated(EnumType.STRING)
+    private NotificationHistoryRetentionEnum historyRetention = NotificationHistoryRetentionEnum.ALL;
+
+    /**
+     * With the SAMPLED history retention, one record of sent notification out of this rate is kept
+     */
+    @Column(name = "history_sample_rate")
+    private Integer historySampleRate;
+
     public String getClassNameFilter() {
         return classNameFilter;
     }
@@ -182,4 +195,20 @@ public class Notification extends BusinessEntity {
     public void setPriority(int priority) {
         this.priority = priority;
     }
-}
\ No newline at end of file
+
+    public NotificationHistoryRetentionEnum getHistoryRetention() {
+        return historyRetention;
+    }
+
+    public void setHistoryRetention(NotificationHistoryRetentionEnum historyRetention) {
+        this.historyRetention = historyRetention;
+    }
+
+    public Integer getHistorySampleRate() {
+        return historySampleRate;
+    }
+
+    public void setHistorySampleRate(Integer historySampleRate) {
+        this.historySampleRate = historySampleRate;
+    }
+}
@@ -0,0 +1,23 @@
+package org.meveo.model.notification;
+
+/**
+ * Which notification history records are kept for a notification. Failed and to retry records are always kept.
+ */
+public enum NotificationHistoryRetentionEnum {
+
+    /**
+     * Every record is kept
+     */
+    ALL,
+
+    /**
+     * Only the records of notifications that were not sent are kept
+     */
+    ERRORS_ONLY,
+
+    /**
+     * One record of sent notification out of the sample rate is kept
+     */
+    SAMPLED;
+
+}
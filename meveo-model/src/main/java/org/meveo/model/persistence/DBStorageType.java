@@ -23,6 +23,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
@@ -41,6 +42,7 @@ import com.fasterxml.jackson.annotation.JsonValue;
  * Enumeration class that represent the data storage handled by the application
  */
 @Entity
+@Cacheable
 @Table(name = "db_storage_type")
 public class DBStorageType implements Serializable {
 	
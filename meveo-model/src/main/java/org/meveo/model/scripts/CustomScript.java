@@ -20,6 +20,8 @@ import javax.persistence.Transient;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang.StringUtils;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Fetch;
 import org.hibernate.annotations.FetchMode;
 import org.hibernate.annotations.Type;
@@ -76,12 +78,14 @@ public abstract class CustomScript extends Function {
 	private List<Accessor> getters;
 
 	@Fetch(FetchMode.JOIN)
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 	@ElementCollection(fetch = FetchType.LAZY)
 	@JoinTable(name = "meveo_script_inputs", joinColumns = @JoinColumn(name = "meveo_script_instance_id"))
 	@Column(name = "script_input")
 	private Set<String> scriptInputs;
 
 	@Fetch(FetchMode.JOIN)
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 	@ElementCollection(fetch = FetchType.LAZY)
 	@JoinTable(name = "meveo_script_outputs", joinColumns = @JoinColumn(name = "meveo_script_instance_id"))
 	@Column(name = "script_output")
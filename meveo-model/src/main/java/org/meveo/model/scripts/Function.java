@@ -3,6 +3,7 @@ package org.meveo.model.scripts;
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Inheritance;
@@ -14,6 +15,7 @@ import javax.persistence.Transient;
 import javax.persistence.UniqueConstraint;
 
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.Parameter;
 import org.hibernate.annotations.Type;
 import org.meveo.model.BusinessEntity;
@@ -26,6 +28,8 @@ import org.meveo.model.persistence.JsonTypes;
  */
 @ExportIdentifier({ "code" })
 @Entity
+@Cacheable
+@NaturalIdCache
 @Inheritance(strategy = InheritanceType.JOINED)
 @Table(name = "meveo_function", uniqueConstraints = @UniqueConstraint(columnNames = { "code" }))
 @GenericGenerator(name = "ID_GENERATOR", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
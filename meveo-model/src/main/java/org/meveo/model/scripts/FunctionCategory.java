@@ -3,6 +3,7 @@
  */
 package org.meveo.model.scripts;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.Table;
 
@@ -15,6 +16,7 @@ import org.meveo.model.BusinessEntity;
  * @version 6.10.0
  */
 @Entity
+@Cacheable
 @Table(name = "function_category")
 public class FunctionCategory extends BusinessEntity {
 
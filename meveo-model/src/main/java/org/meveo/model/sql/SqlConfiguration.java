@@ -69,6 +69,48 @@ public class SqlConfiguration extends BusinessEntity implements IStorageConfigur
 	@Column(name = "initialized")
 	private boolean initialized = false;
 	
+	/**
+	 * Minimum number of idle connections kept in the pool.
+	 */
+	@Column(name = "pool_min_size")
+	private Integer poolMinSize;
+
+	/**
+	 * Maximum number of connections of the pool.
+	 */
+	@Column(name = "pool_max_size")
+	private Integer poolMaxSize;
+
+	/**
+	 * Maximum time in milliseconds to wait for a connection from the pool.
+	 */
+	@Column(name = "pool_connection_timeout")
+	private Long poolConnectionTimeout;
+
+	/**
+	 * Maximum time in milliseconds a connection can stay idle in the pool.
+	 */
+	@Column(name = "pool_idle_timeout")
+	private Long poolIdleTimeout;
+
+	/**
+	 * Maximum lifetime in milliseconds of a connection of the pool.
+	 */
+	@Column(name = "pool_max_lifetime")
+	private Long poolMaxLifetime;
+
+	/**
+	 * Number of prepared statements cached by each connection, if supported by the driver.
+	 */
+	@Column(name = "pool_statement_cache_size")
+	private Integer poolStatementCacheSize;
+
+	/**
+	 * Query used to validate the connections. JDBC4 validation is used if not specified.
+	 */
+	@Column(name = "pool_validation_query")
+	private String poolValidationQuery;
+
 	@Transient
 	private String clearPassword;
 	
@@ -218,6 +260,104 @@ public class SqlConfiguration extends BusinessEntity implements IStorageConfigur
 		this.initialized = initialized;
 	}
 
+	/**
+	 * @return the minimum number of idle connections kept in the pool
+	 */
+	public Integer getPoolMinSize() {
+		return poolMinSize;
+	}
+
+	/**
+	 * @param poolMinSize the minimum number of idle connections kept in the pool
+	 */
+	public void setPoolMinSize(Integer poolMinSize) {
+		this.poolMinSize = poolMinSize;
+	}
+
+	/**
+	 * @return the maximum number of connections of the pool
+	 */
+	public Integer getPoolMaxSize() {
+		return poolMaxSize;
+	}
+
+	/**
+	 * @param poolMaxSize the maximum number of connections of the pool
+	 */
+	public void setPoolMaxSize(Integer poolMaxSize) {
+		this.poolMaxSize = poolMaxSize;
+	}
+
+	/**
+	 * @return the maximum time in milliseconds to wait for a connection
+	 */
+	public Long getPoolConnectionTimeout() {
+		return poolConnectionTimeout;
+	}
+
+	/**
+	 * @param poolConnectionTimeout the maximum time in milliseconds to wait for a connection
+	 */
+	public void setPoolConnectionTimeout(Long poolConnectionTimeout) {
+		this.poolConnectionTimeout = poolConnectionTimeout;
+	}
+
+	/**
+	 * @return the maximum time in milliseconds a connection can stay idle
+	 */
+	public Long getPoolIdleTimeout() {
+		return poolIdleTimeout;
+	}
+
+	/**
+	 * @param poolIdleTimeout the maximum time in milliseconds a connection can stay idle
+	 */
+	public void setPoolIdleTimeout(Long poolIdleTimeout) {
+		this.poolIdleTimeout = poolIdleTimeout;
+	}
+
+	/**
+	 * @return the maximum lifetime in milliseconds of a connection
+	 */
+	public Long getPoolMaxLifetime() {
+		return poolMaxLifetime;
+	}
+
+	/**
+	 * @param poolMaxLifetime the maximum lifetime in milliseconds of a connection
+	 */
+	public void setPoolMaxLifetime(Long poolMaxLifetime) {
+		this.poolMaxLifetime = poolMaxLifetime;
+	}
+
+	/**
+	 * @return the number of prepared statements cached by each connection
+	 */
+	public Integer getPoolStatementCacheSize() {
+		return poolStatementCacheSize;
+	}
+
+	/**
+	 * @param poolStatementCacheSize the number of prepared statements cached by each connection
+	 */
+	public void setPoolStatementCacheSize(Integer poolStatementCacheSize) {
+		this.poolStatementCacheSize = poolStatementCacheSize;
+	}
+
+	/**
+	 * @return the query used to validate the connections
+	 */
+	public String getPoolValidationQuery() {
+		return poolValidationQuery;
+	}
+
+	/**
+	 * @param poolValidationQuery the query used to validate the connections
+	 */
+	public void setPoolValidationQuery(String poolValidationQuery) {
+		this.poolValidationQuery = poolValidationQuery;
+	}
+
 	public boolean isXAResource() {
 		if (isXaResource!= null)
 			return isXaResource;
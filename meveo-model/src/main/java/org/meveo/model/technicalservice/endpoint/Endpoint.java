@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Embedded;
@@ -39,7 +40,10 @@ import javax.persistence.Table;
 import javax.persistence.Transient;
 
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.Type;
 import org.meveo.model.BusinessEntity;
 import org.meveo.model.ExportIdentifier;
@@ -58,6 +62,8 @@ import org.meveo.validation.constraint.nointersection.NoIntersectionBetween;
  * @version 6.10
  */
 @Entity
+@Cacheable
+@NaturalIdCache
 @Table(name = "service_endpoint")
 @GenericGenerator(name = "ID_GENERATOR", strategy = "increment")
 @NoIntersectionBetween(firstCollection = "pathParameters.endpointParameter.parameter", secondCollection = "parametersMapping.endpointParameter.parameter")
@@ -120,6 +126,7 @@ public class Endpoint extends BusinessEntity {
 	/**
 	 * Parameters that will be exposed in the endpoint path
 	 */
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 	@OneToMany(mappedBy = "endpointParameter.endpoint", orphanRemoval = true, cascade = CascadeType.ALL, fetch = FetchType.LAZY)
 	@OrderColumn(name = "position")
 	private List<EndpointPathParameter> pathParameters;
@@ -127,6 +134,7 @@ public class Endpoint extends BusinessEntity {
 	/**
 	 * Mapping of the parameters that are not defined as path parameters
 	 */
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 	@OneToMany(mappedBy = "endpointParameter.endpoint", orphanRemoval = true, cascade = CascadeType.ALL, fetch = FetchType.LAZY)
 	private List<TSParameterMapping> parametersMapping;
 
@@ -155,6 +163,13 @@ public class Endpoint extends BusinessEntity {
 	@Column(name = "content_type")
 	private String contentType;
 
+	/**
+	 * Time to live in seconds of the cached responses of the endpoint. Responses are cached only if set and for synchronous GET
+	 * endpoints.
+	 */
+	@Column(name = "cache_ttl")
+	private Integer cacheTtl;
+
 
 	@Column(name = "base_path")
 	private String basePath;
@@ -196,6 +211,21 @@ public class Endpoint extends BusinessEntity {
 		getContentType();
 	}
 
+	public Integer getCacheTtl() {
+		return cacheTtl;
+	}
+
+	public void setCacheTtl(Integer cacheTtl) {
+		this.cacheTtl = cacheTtl;
+	}
+
+	/**
+	 * @return true if the responses of the endpoint can be cached
+	 */
+	public boolean isResponseCacheable() {
+		return cacheTtl != null && cacheTtl > 0 && synchronous && method == EndpointHttpMethod.GET;
+	}
+
 	public void setSerializeResult(boolean serializeResult) {
 		this.serializeResult = serializeResult;
 	}
@@ -30,6 +30,7 @@ import org.hibernate.annotations.Type;
  * @since 01.02.2019
  */
 @Entity
+@Cacheable
 @Table(name = "service_parameter_mapping")
 @NamedQuery(name = "TSParameterMapping.deleteByEndpoint", query = "DELETE from TSParameterMapping m WHERE m.endpointParameter.endpoint.id=:endpointId")
 public class TSParameterMapping {